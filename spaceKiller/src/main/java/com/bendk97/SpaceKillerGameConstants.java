@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 22:14
+ * Last modified 18/10/26 09:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -15,6 +15,9 @@ public class SpaceKillerGameConstants {
     public final static float SCREEN_HEIGHT = 700;
     public final static float OFFSET_WIDTH = (WORLD_WIDTH - SCREEN_WIDTH) / 2;
     public static boolean DEBUG = false;
+    // time of each system of the levels, shown by the debug stats and written to PROFILE_SYSTEMS_FILE at the end of a level
+    public static boolean PROFILE_SYSTEMS = false;
+    public static final String PROFILE_SYSTEMS_FILE = "systems-profile.csv";
     public static boolean NO_GOOGLE = false;
     public static boolean SKIP_SPLASH = false;
     public static String VERSION = "x.y.z";
@@ -113,6 +116,8 @@ public class SpaceKillerGameConstants {
     public static final float BOMB_X = 330f;
     public static final float BOMB_Y = 180f;
     public static final float BOMB_Y_VIRTUAL = 30f;
+    // a bomb clears the screen and the squadrons about to enter it: every enemy and enemy bullet is reached
+    public static final float BOMB_EXPLOSION_RADIUS = Float.POSITIVE_INFINITY;
 
     // icon game over
     public static final float ICON_SIZE = 64f;
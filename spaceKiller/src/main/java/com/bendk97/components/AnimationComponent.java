@@ -1,30 +1,26 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 06:20
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.components;
 
 import com.badlogic.ashley.core.Component;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.Pool;
 
 public class AnimationComponent implements Component, Pool.Poolable {
-    public IntMap<Animation<Sprite>> animations = new IntMap<>();
+    // shared definitions by state, the frames are shown by the sprite of the entity
+    public final IntMap<AnimationDefinition> animations = new IntMap<>();
+    // animation and frame the sprite shows
+    public AnimationDefinition shown;
+    public int shownFrame = -1;
 
     @Override
     public void reset() {
-        animations = new IntMap<>();
-    }
-
-    public void tintRed(int key, float red) {
-        int length = animations.get(key).getKeyFrames().length;
-        for (int i = 0; i < length; ++i) {
-            Sprite sprite = animations.get(key).getKeyFrames()[i];
-            sprite.setColor(red, 0f, 0f, 1f);
-        }
+        animations.clear();
+        shown = null;
+        shownFrame = -1;
     }
 }
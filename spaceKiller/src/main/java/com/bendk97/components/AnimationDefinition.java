@@ -0,0 +1,81 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 06:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components;
+
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Frames and timing of an animation, shared by every entity playing it: the entities only keep their state time
+ * and the sprite the frames are shown by.
+ * Unlike a gdx Animation, reading a frame changes nothing, so a definition can be read by several threads.
+ * LOOP_RANDOM is not supported (played as LOOP).
+ */
+public final class AnimationDefinition {
+
+    private final TextureRegion[] frames;
+    private final float frameDuration;
+    private final PlayMode playMode;
+
+    public AnimationDefinition(float frameDuration, Array<? extends TextureRegion> frames, PlayMode playMode) {
+        this.frames = new TextureRegion[frames.size];
+        for (int i = 0; i < frames.size; ++i) {
+            this.frames[i] = frames.get(i);
+        }
+        this.frameDuration = frameDuration;
+        this.playMode = playMode;
+    }
+
+    /**
+     * @return index of the frame shown at stateTime, as gdx Animation.getKeyFrameIndex
+     */
+    public int frameIndex(float stateTime) {
+        if (frames.length == 1) {
+            return 0;
+        }
+        int frameNumber = (int) (stateTime / frameDuration);
+        switch (playMode) {
+            case NORMAL:
+                return Math.min(frames.length - 1, frameNumber);
+            case REVERSED:
+                return Math.max(frames.length - frameNumber - 1, 0);
+            case LOOP_REVERSED:
+                return frames.length - frameNumber % frames.length - 1;
+            case LOOP_PINGPONG:
+                frameNumber = frameNumber % (frames.length * 2 - 2);
+                return frameNumber >= frames.length ? frames.length - 2 - (frameNumber - frames.length) : frameNumber;
+            case LOOP:
+            case LOOP_RANDOM:
+            default:
+                return frameNumber % frames.length;
+        }
+    }
+
+    public TextureRegion frame(int index) {
+        return frames[index];
+    }
+
+    public int size() {
+        return frames.length;
+    }
+
+    public float getFrameDuration() {
+        return frameDuration;
+    }
+
+    public PlayMode getPlayMode() {
+        return playMode;
+    }
+
+    /**
+     * @return true when a NORMAL animation has shown its last frame
+     */
+    public boolean isFinished(float stateTime) {
+        return playMode == PlayMode.NORMAL && frames.length - 1 < (int) (stateTime / frameDuration);
+    }
+}
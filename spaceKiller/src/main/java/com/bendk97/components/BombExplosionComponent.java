@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 17/10/26 23:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,10 +9,15 @@ package com.bendk97.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.utils.Pool;
 
+import static com.bendk97.SpaceKillerGameConstants.BOMB_EXPLOSION_RADIUS;
+
 public class BombExplosionComponent implements Component, Pool.Poolable {
 
+    // around the center of the explosion
+    public float radius = BOMB_EXPLOSION_RADIUS;
+
     @Override
     public void reset() {
-       // Nothing to reset, this component is stateless
+        radius = BOMB_EXPLOSION_RADIUS;
     }
 }
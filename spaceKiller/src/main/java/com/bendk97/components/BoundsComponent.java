@@ -0,0 +1,127 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 11:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Pool;
+
+import static com.bendk97.SpaceKillerGameConstants.*;
+
+/**
+ * Bounding box (rotation and scale included) and bounding circle of the sprite of an entity,
+ * updated by the PositionComponent of the entity each time its position changes,
+ * and by refresh when the sprite is resized, rotated or scaled (animations, rotations, tweens...).
+ */
+public class BoundsComponent implements Component, Pool.Poolable {
+
+    public float minX = 0f, minY = 0f, maxX = 0f, maxY = 0f;
+    public float centerX = 0f, centerY = 0f, radius = 0f;
+    SpriteComponent sprite;
+    private PositionComponent position;
+    // transform of the sprite the bounds were computed from
+    private float width, height, originX, originY, rotation, scaleX, scaleY;
+
+    /**
+     * links the bounds to the position and sprite of the entity
+     */
+    public void attach(PositionComponent position, SpriteComponent sprite) {
+        this.sprite = sprite;
+        this.position = position;
+        position.bounds = this;
+        update(position.x(), position.y());
+    }
+
+    public void detach(PositionComponent position) {
+        if (position.bounds == this) {
+            position.bounds = null;
+        }
+        sprite = null;
+        this.position = null;
+    }
+
+    public void update(float x, float y) {
+        compute(this.sprite == null ? null : this.sprite.sprite, x, y);
+    }
+
+    /**
+     * bounds of the sprite placed at (x, y), whatever its current position
+     */
+    public void compute(Sprite sprite, float x, float y) {
+        if (sprite == null) {
+            minX = maxX = centerX = x;
+            minY = maxY = centerY = y;
+            radius = 0f;
+            return;
+        }
+        float width = sprite.getWidth(), height = sprite.getHeight();
+        float rotation = sprite.getRotation(), scaleX = sprite.getScaleX(), scaleY = sprite.getScaleY();
+        float originX = sprite.getOriginX(), originY = sprite.getOriginY();
+        this.width = width;
+        this.height = height;
+        this.originX = originX;
+        this.originY = originY;
+        this.rotation = rotation;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        centerX = x + width / 2f;
+        centerY = y + height / 2f;
+        radius = Math.max(width, height) / 2f;
+        if (rotation == 0f && scaleX == 1f && scaleY == 1f) {
+            minX = x;
+            minY = y;
+            maxX = x + width;
+            maxY = y + height;
+            return;
+        }
+        float cos = MathUtils.cosDeg(rotation), sin = MathUtils.sinDeg(rotation);
+        minX = minY = Float.MAX_VALUE;
+        maxX = maxY = -Float.MAX_VALUE;
+        for (int corner = 0; corner < 4; ++corner) {
+            float dx = ((corner & 1) == 0 ? -originX : width - originX) * scaleX;
+            float dy = ((corner & 2) == 0 ? -originY : height - originY) * scaleY;
+            float cornerX = x + originX + dx * cos - dy * sin;
+            float cornerY = y + originY + dx * sin + dy * cos;
+            minX = Math.min(minX, cornerX);
+            minY = Math.min(minY, cornerY);
+            maxX = Math.max(maxX, cornerX);
+            maxY = Math.max(maxY, cornerY);
+        }
+    }
+
+    /**
+     * computes the bounds again if the sprite was resized, rotated or scaled since the last update
+     */
+    public void refresh() {
+        Sprite sprite = this.sprite == null ? null : this.sprite.sprite;
+        if (position == null || sprite == null) {
+            return;
+        }
+        if (sprite.getWidth() != width || sprite.getHeight() != height
+                || sprite.getOriginX() != originX || sprite.getOriginY() != originY
+                || sprite.getRotation() != rotation || sprite.getScaleX() != scaleX || sprite.getScaleY() != scaleY) {
+            update(position.x(), position.y());
+        }
+    }
+
+    /**
+     * @return true if the bounds are outside of the screen and its OFFSET_WIDTH margins
+     */
+    public boolean isOffScreen() {
+        return maxX < -OFFSET_WIDTH || minX > SCREEN_WIDTH + OFFSET_WIDTH || minY > SCREEN_HEIGHT || maxY < 0;
+    }
+
+    @Override
+    public void reset() {
+        minX = minY = maxX = maxY = 0f;
+        centerX = centerY = radius = 0f;
+        sprite = null;
+        position = null;
+        width = height = originX = originY = rotation = scaleX = scaleY = 0f;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 22:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+public class CollisionComponent implements Component, Pool.Poolable {
+
+    // layer of the entity (see CollisionLayers)
+    public int category = 0;
+    // layers this entity is looking for
+    public int mask = 0;
+
+    @Override
+    public void reset() {
+        category = 0;
+        mask = 0;
+    }
+}
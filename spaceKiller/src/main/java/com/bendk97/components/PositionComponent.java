@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 08:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -12,6 +12,14 @@ import com.badlogic.gdx.utils.Pool.Poolable;
 public class PositionComponent implements Component, Poolable {
     private float previousX = 0.0f, previousY = 0.0f;
     private float x = 0.0f, y = 0.0f;
+    // bounds of the entity kept up to date with its position, if any
+    BoundsComponent bounds = null;
+    // store holding the coordinates while the entity is moved by the MovementSystem
+    private TransformStore store = null;
+    private int slot = -1;
+    // coordinates at the start of the last logic step, origin of the render interpolation
+    private float stepX = 0.0f, stepY = 0.0f;
+    private boolean stepped = false;
 
 
     @Override
@@ -20,38 +28,109 @@ public class PositionComponent implements Component, Poolable {
         y = 0;
         previousX = 0;
         previousY = 0;
+        bounds = null;
+        store = null;
+        slot = -1;
+        stepX = 0;
+        stepY = 0;
+        stepped = false;
     }
 
     public float x() {
-        return x;
+        return store == null ? x : store.x(slot);
     }
 
     public float y() {
-        return y;
+        return store == null ? y : store.y(slot);
     }
 
     public void setXY(float x, float y){
-        savePreviousCoordinates();
-        this.x = x;
-        this.y = y;
+        if (store != null) {
+            store.setXY(slot, x, y);
+        } else {
+            savePreviousCoordinates();
+            this.x = x;
+            this.y = y;
+        }
+        updateBounds();
     }
 
     public void setX(float x){
-        savePreviousCoordinates();
-        this.x = x;
+        setXY(x, y());
     }
 
     public void setY(float y){
-        savePreviousCoordinates();
-        this.y = y;
+        setXY(x(), y);
+    }
+
+    /**
+     * moves the entity without crossing the space in between (spawn, respawn...):
+     * the move is neither swept by the collisions nor interpolated by the rendering
+     */
+    public void teleport(float x, float y) {
+        setXY(x, y);
+        stepX = x;
+        stepY = y;
     }
 
     public float previousX() {
-        return previousX;
+        return store == null ? previousX : store.previousX(slot);
     }
 
     public float previousY() {
-        return previousY;
+        return store == null ? previousY : store.previousY(slot);
+    }
+
+    /**
+     * called before each logic step
+     */
+    public void startStep() {
+        stepX = x();
+        stepY = y();
+        stepped = true;
+    }
+
+    /**
+     * @return x move since the start of the logic step, 0 for an entity created or teleported during it
+     */
+    public float stepMoveX() {
+        return stepped ? x() - stepX : 0f;
+    }
+
+    public float stepMoveY() {
+        return stepped ? y() - stepY : 0f;
+    }
+
+    /**
+     * @param alpha part of the next logic step already elapsed
+     * @return x between the start and the end of the last logic step (current x for an entity created during it)
+     */
+    public float interpolatedX(float alpha) {
+        return stepped ? stepX + (x() - stepX) * alpha : x();
+    }
+
+    public float interpolatedY(float alpha) {
+        return stepped ? stepY + (y() - stepY) * alpha : y();
+    }
+
+    void attach(TransformStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
+    void detach(float x, float y, float previousX, float previousY) {
+        this.store = null;
+        this.slot = -1;
+        this.x = x;
+        this.y = y;
+        this.previousX = previousX;
+        this.previousY = previousY;
+    }
+
+    void updateBounds() {
+        if (bounds != null) {
+            bounds.update(x(), y());
+        }
     }
 
     private void savePreviousCoordinates() {
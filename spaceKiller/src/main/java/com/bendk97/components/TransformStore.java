@@ -0,0 +1,175 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 02:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Positions and velocities of the moving entities in primitive arrays, indexed by a dense slot
+ * (a released slot is filled by the last one).
+ * The attached PositionComponent and VelocityComponent become views over their slot, detached ones keep their own values.
+ */
+public class TransformStore {
+
+    private static final int INITIAL_CAPACITY = 128;
+
+    private float[] x = new float[INITIAL_CAPACITY];
+    private float[] y = new float[INITIAL_CAPACITY];
+    private float[] previousX = new float[INITIAL_CAPACITY];
+    private float[] previousY = new float[INITIAL_CAPACITY];
+    private float[] velocityX = new float[INITIAL_CAPACITY];
+    private float[] velocityY = new float[INITIAL_CAPACITY];
+    private final Array<Entity> entities = new Array<>(true, INITIAL_CAPACITY, Entity.class);
+    private final Array<PositionComponent> positions = new Array<>(true, INITIAL_CAPACITY, PositionComponent.class);
+    private final Array<VelocityComponent> velocities = new Array<>(true, INITIAL_CAPACITY, VelocityComponent.class);
+    private final ObjectIntMap<Entity> slots = new ObjectIntMap<>(INITIAL_CAPACITY);
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public Entity entity(int slot) {
+        return entities.get(slot);
+    }
+
+    /**
+     * moves the values of both components into a new slot, the components then read and write the store
+     */
+    public void attach(Entity entity, PositionComponent position, VelocityComponent velocity) {
+        if (slots.containsKey(entity)) {
+            return;
+        }
+        int slot = size++;
+        ensureCapacity(size);
+        x[slot] = position.x();
+        y[slot] = position.y();
+        previousX[slot] = position.previousX();
+        previousY[slot] = position.previousY();
+        velocityX[slot] = velocity.x();
+        velocityY[slot] = velocity.y();
+        entities.add(entity);
+        positions.add(position);
+        velocities.add(velocity);
+        slots.put(entity, slot);
+        position.attach(this, slot);
+        velocity.attach(this, slot);
+    }
+
+    /**
+     * gives back its values to both components (even if already removed from the entity) and frees the slot
+     */
+    public void detach(Entity entity) {
+        int slot = slots.remove(entity, -1);
+        if (slot == -1) {
+            return;
+        }
+        positions.get(slot).detach(x[slot], y[slot], previousX[slot], previousY[slot]);
+        velocities.get(slot).detach(velocityX[slot], velocityY[slot]);
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            previousX[slot] = previousX[last];
+            previousY[slot] = previousY[last];
+            velocityX[slot] = velocityX[last];
+            velocityY[slot] = velocityY[last];
+            entities.set(slot, entities.get(last));
+            positions.set(slot, positions.get(last));
+            velocities.set(slot, velocities.get(last));
+            slots.put(entities.get(slot), slot);
+            positions.get(slot).attach(this, slot);
+            velocities.get(slot).attach(this, slot);
+        }
+        entities.removeIndex(last);
+        positions.removeIndex(last);
+        velocities.removeIndex(last);
+    }
+
+    /**
+     * moves every attached entity by its velocity in one pass over the arrays, then updates their bounds
+     */
+    public void integrate(float deltaTime) {
+        integrate(0, size, deltaTime);
+    }
+
+    /**
+     * same as integrate for the slots [from, to): disjoint ranges can be integrated at the same time
+     */
+    public void integrate(int from, int to, float deltaTime) {
+        for (int slot = from; slot < to; ++slot) {
+            previousX[slot] = x[slot];
+            previousY[slot] = y[slot];
+            x[slot] += velocityX[slot] * deltaTime;
+            y[slot] += velocityY[slot] * deltaTime;
+        }
+        PositionComponent[] views = positions.items;
+        for (int slot = from; slot < to; ++slot) {
+            views[slot].updateBounds();
+        }
+    }
+
+    float x(int slot) {
+        return x[slot];
+    }
+
+    float y(int slot) {
+        return y[slot];
+    }
+
+    float previousX(int slot) {
+        return previousX[slot];
+    }
+
+    float previousY(int slot) {
+        return previousY[slot];
+    }
+
+    void setXY(int slot, float newX, float newY) {
+        previousX[slot] = x[slot];
+        previousY[slot] = y[slot];
+        x[slot] = newX;
+        y[slot] = newY;
+    }
+
+    float velocityX(int slot) {
+        return velocityX[slot];
+    }
+
+    float velocityY(int slot) {
+        return velocityY[slot];
+    }
+
+    void setVelocityX(int slot, float value) {
+        velocityX[slot] = value;
+    }
+
+    void setVelocityY(int slot, float value) {
+        velocityY[slot] = value;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= x.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, x.length * 2);
+        x = copyOf(x, newCapacity);
+        y = copyOf(y, newCapacity);
+        previousX = copyOf(previousX, newCapacity);
+        previousY = copyOf(previousY, newCapacity);
+        velocityX = copyOf(velocityX, newCapacity);
+        velocityY = copyOf(velocityY, newCapacity);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
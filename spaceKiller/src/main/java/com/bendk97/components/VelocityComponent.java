@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 01:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -10,11 +10,57 @@ import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.utils.Pool.Poolable;
 
 public class VelocityComponent implements Component, Poolable {
-    public float x = 0.0f, y = 0.0f;
+    private float x = 0.0f, y = 0.0f;
+    // store holding the velocity while the entity is moved by the MovementSystem
+    private TransformStore store = null;
+    private int slot = -1;
 
     @Override
     public void reset() {
         x = 0.0f;
         y = 0.0f;
+        store = null;
+        slot = -1;
+    }
+
+    public float x() {
+        return store == null ? x : store.velocityX(slot);
+    }
+
+    public float y() {
+        return store == null ? y : store.velocityY(slot);
+    }
+
+    public void setX(float x) {
+        if (store != null) {
+            store.setVelocityX(slot, x);
+        } else {
+            this.x = x;
+        }
+    }
+
+    public void setY(float y) {
+        if (store != null) {
+            store.setVelocityY(slot, y);
+        } else {
+            this.y = y;
+        }
+    }
+
+    public void setXY(float x, float y) {
+        setX(x);
+        setY(y);
+    }
+
+    void attach(TransformStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
+    void detach(float x, float y) {
+        this.store = null;
+        this.slot = -1;
+        this.x = x;
+        this.y = y;
     }
 }
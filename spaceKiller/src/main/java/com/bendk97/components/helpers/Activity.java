@@ -0,0 +1,47 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 06:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components.helpers;
+
+import com.badlogic.ashley.core.Entity;
+import com.bendk97.components.BoundsComponent;
+
+import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
+import static com.bendk97.SpaceKillerGameConstants.SCREEN_WIDTH;
+
+/**
+ * Entities far from the screen are dormant: the systems opting in (setActiveOnly) skip them.
+ * The state is a bit of the entity flags, computed once per logic step from the bounds of the entity.
+ * An entity is woken as soon as its bounds enter the activation margin around the screen;
+ * an entity without bounds, or added since the last step, is active.
+ */
+public final class Activity {
+
+    // bit of Entity.flags
+    public static final int DORMANT = 1;
+    public static final float ACTIVATION_MARGIN = 32f;
+
+    private Activity() {
+    }
+
+    public static void update(Entity entity) {
+        BoundsComponent bounds = ComponentMapperHelper.bounds.get(entity);
+        if (bounds != null && isFar(bounds)) {
+            entity.flags |= DORMANT;
+        } else {
+            entity.flags &= ~DORMANT;
+        }
+    }
+
+    public static boolean isDormant(Entity entity) {
+        return (entity.flags & DORMANT) != 0;
+    }
+
+    static boolean isFar(BoundsComponent bounds) {
+        return bounds.maxX < -ACTIVATION_MARGIN || bounds.minX > SCREEN_WIDTH + ACTIVATION_MARGIN
+                || bounds.maxY < -ACTIVATION_MARGIN || bounds.minY > SCREEN_HEIGHT + ACTIVATION_MARGIN;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 23:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components.helpers;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.bendk97.components.BoundsComponent;
+import com.bendk97.components.PositionComponent;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.*;
+
+/**
+ * gives a BoundsComponent to every entity with a position and a sprite:
+ * the bounds are linked to the position so that movement, tweens and direct moves keep them up to date
+ */
+public class BoundsEntityListener implements EntityListener {
+
+    private final Engine engine;
+
+    public BoundsEntityListener(Engine engine) {
+        this.engine = engine;
+    }
+
+    public static void register(Engine engine) {
+        engine.addEntityListener(Families.bounded, new BoundsEntityListener(engine));
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        BoundsComponent boundsComponent = bounds.get(entity);
+        if (boundsComponent == null) {
+            boundsComponent = engine.createComponent(BoundsComponent.class);
+            // added later if the engine is updating, linked right now
+            entity.add(boundsComponent);
+        }
+        boundsComponent.attach(position.get(entity), sprite.get(entity));
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        BoundsComponent boundsComponent = bounds.get(entity);
+        PositionComponent positionComponent = position.get(entity);
+        if (boundsComponent != null && positionComponent != null) {
+            boundsComponent.detach(positionComponent);
+        }
+    }
+}
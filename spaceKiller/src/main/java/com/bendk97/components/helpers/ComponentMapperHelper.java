@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 12/10/18 18:23
+ * Last modified 17/10/26 23:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -33,4 +33,7 @@ public class ComponentMapperHelper {
     public static final ComponentMapper<GameOverComponent> gameOver = ComponentMapper.getFor(GameOverComponent.class);
     public static final ComponentMapper<PauseComponent> pause = ComponentMapper.getFor(PauseComponent.class);
     public static final ComponentMapper<PlayerBulletComponent> playerBullet = ComponentMapper.getFor(PlayerBulletComponent.class);
+    public static final ComponentMapper<CollisionComponent> collision = ComponentMapper.getFor(CollisionComponent.class);
+    public static final ComponentMapper<BoundsComponent> bounds = ComponentMapper.getFor(BoundsComponent.class);
+    public static final ComponentMapper<BombExplosionComponent> bombExplosion = ComponentMapper.getFor(BombExplosionComponent.class);
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 12/10/18 18:28
+ * Last modified 18/10/26 11:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -18,8 +18,12 @@ public class Families {
     public static final Family enemyBodies = Family.all(EnemyComponent.class).exclude(InvulnerableComponent.class).exclude(GroundEnemyComponent.class).get();
     public static final Family enemies = Family.all(EnemyComponent.class).exclude(InvulnerableComponent.class).get();
     public static final Family playerVulnerable = Family.one(PlayerComponent.class).exclude(InvulnerableComponent.class, GameOverComponent.class).get();
+    public static final Family anyPlayer = Family.one(PlayerComponent.class).get();
     public static final Family player = Family.one(PlayerComponent.class).exclude(GameOverComponent.class).get();
     public static final Family shield = Family.one(ShieldComponent.class).get();
     public static final Family boss = Family.one(BossComponent.class).get();
+    public static final Family collidable = Family.all(CollisionComponent.class, PositionComponent.class, SpriteComponent.class).get();
+    public static final Family bounded = Family.all(PositionComponent.class, SpriteComponent.class).get();
+    public static final Family positioned = Family.all(PositionComponent.class).get();
 
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 15:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.entities;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.bendk97.pools.PoolPeaks;
+import com.bendk97.systems.schedule.SystemSchedule;
+
+/**
+ * Pooled engine whose systems defer their structural changes to a command buffer, flushed at the end of each update.
+ * Its systems are ordered by a schedule, which also runs the concurrent ones at the same time.
+ */
+public class BufferedEngine extends PooledEngine {
+
+    private final EntityCommandBuffer commands = new EntityCommandBuffer(this);
+    private final SystemSchedule schedule = new SystemSchedule(this);
+    private boolean updating = false;
+
+    public BufferedEngine(int entityPoolInitialSize, int entityPoolMaxSize, int componentPoolInitialSize, int componentPoolMaxSize) {
+        super(entityPoolInitialSize, entityPoolMaxSize, componentPoolInitialSize, componentPoolMaxSize);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        update(deltaTime, true);
+    }
+
+    /**
+     * @param flush false to leave the buffered structural changes to the next update,
+     *              so that several updates (a system each) behave as a single one
+     */
+    public void update(float deltaTime, boolean flush) {
+        updating = true;
+        try {
+            super.update(deltaTime);
+        } finally {
+            updating = false;
+        }
+        if (!flush) {
+            return;
+        }
+        commands.flush();
+    }
+
+    /**
+     * systems updated by the caller as a part of an engine update (systems run at the same time by the schedule):
+     * their structural changes are buffered, then made at once
+     */
+    public void updateOutsideLoop(Runnable update) {
+        updating = true;
+        try {
+            update.run();
+        } finally {
+            updating = false;
+        }
+        commands.flush();
+    }
+
+    /**
+     * @return true while the systems are processed
+     */
+    public boolean isUpdating() {
+        return updating;
+    }
+
+    public EntityCommandBuffer getCommands() {
+        return commands;
+    }
+
+    public SystemSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * fills the entity and component pools up to the given peaks, by adding then removing as many entities:
+     * to be called before any entity listener is added
+     */
+    public void prewarm(PoolPeaks peaks) {
+        Array<Entity> entities = new Array<>(false, Math.max(peaks.get(PoolPeaks.ENTITIES), 16), Entity.class);
+        while (entities.size < peaks.get(PoolPeaks.ENTITIES)) {
+            entities.add(createEntity());
+        }
+        for (String key : peaks.keys()) {
+            Class<? extends Component> componentType = componentType(key);
+            if (componentType == null) {
+                continue;
+            }
+            int peak = peaks.get(key);
+            while (entities.size < peak) {
+                entities.add(createEntity());
+            }
+            for (int i = 0; i < peak; ++i) {
+                entities.get(i).add(createComponent(componentType));
+            }
+        }
+        for (Entity entity : entities) {
+            addEntity(entity);
+        }
+        for (Entity entity : entities) {
+            removeEntity(entity);
+        }
+    }
+
+    /**
+     * @return the size of the entity and component pools which keeps the given peaks, at least minimum:
+     * the peaks of the game pools are left out
+     */
+    public static int poolMaxSize(PoolPeaks peaks, int minimum) {
+        int max = Math.max(minimum, peaks.get(PoolPeaks.ENTITIES));
+        for (String key : peaks.keys()) {
+            if (componentType(key) != null) {
+                max = Math.max(max, peaks.get(key));
+            }
+        }
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Component> componentType(String name) {
+        try {
+            Class<?> type = ClassReflection.forName(name);
+            return ClassReflection.isAssignableFrom(Component.class, type) ? (Class<? extends Component>) type : null;
+        } catch (ReflectionException e) {
+            // not a component (game pool, entities) or a component renamed since
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 12:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.entities;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Component set declared once: the entities are created with every component (from the engine pools)
+ * before being added to the engine, so that their families are computed once, when they are spawned:
+ * an entity is to be spawned once complete (position, velocity, light...).
+ */
+public class EntityArchetype {
+
+    private final PooledEngine engine;
+    private final Array<Class<? extends Component>> componentTypes;
+    private final Family family;
+
+    @SafeVarargs
+    public EntityArchetype(PooledEngine engine, Class<? extends Component>... componentTypes) {
+        this.engine = engine;
+        // copied one by one: the varargs array itself must not escape
+        this.componentTypes = new Array<>(true, componentTypes.length, Class.class);
+        for (Class<? extends Component> componentType : componentTypes) {
+            this.componentTypes.add(componentType);
+        }
+        this.family = Family.all(this.componentTypes.toArray()).get();
+    }
+
+    /**
+     * @return a new entity with a fresh component of each type, not added to the engine yet
+     */
+    public Entity create() {
+        Entity entity = engine.createEntity();
+        for (Class<? extends Component> componentType : componentTypes) {
+            entity.add(engine.createComponent(componentType));
+        }
+        return entity;
+    }
+
+    /**
+     * adds count new entities to result, to be filled then spawned together
+     */
+    public Array<Entity> create(int count, Array<Entity> result) {
+        result.ensureCapacity(count);
+        for (int i = 0; i < count; ++i) {
+            result.add(create());
+        }
+        return result;
+    }
+
+    public Entity spawn(Entity entity) {
+        EntityCommandBuffer.addEntity(engine, entity);
+        return entity;
+    }
+
+    public void spawn(Array<Entity> entities) {
+        for (Entity entity : entities) {
+            EntityCommandBuffer.addEntity(engine, entity);
+        }
+    }
+
+    /**
+     * family of the entities of this archetype (and of any entity with more components)
+     */
+    public Family getFamily() {
+        return family;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 07:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.entities;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Structural changes asked while the engine is updating, run together at the sync points
+ * (start and end of the collision system, end of each engine update) in the order they were asked.
+ * Outside of an update, the changes are made at once.
+ * At a flush, the component changes of an entity about to be removed are dropped, those of an entity about to be added
+ * are made before it enters the engine, and an entity both added and removed never enters it.
+ * Thread safe, for the systems run at the same time by the schedule.
+ */
+public class EntityCommandBuffer {
+
+    private static final int ADD_COMPONENT = 0;
+    private static final int REMOVE_COMPONENT = 1;
+
+    private final BufferedEngine engine;
+    private final Array<Entity> added = new Array<>(false, 32, Entity.class);
+    private final Array<Entity> removed = new Array<>(true, 32, Entity.class);
+    private final ObjectSet<Entity> removedSet = new ObjectSet<>(32);
+    private final IntArray componentCommands = new IntArray(true, 16);
+    private final Array<Entity> componentEntities = new Array<>(true, 16, Entity.class);
+    private final Array<Object> componentArguments = new Array<>(true, 16);
+
+    EntityCommandBuffer(BufferedEngine engine) {
+        this.engine = engine;
+    }
+
+    public synchronized void add(Entity entity) {
+        if (engine.isUpdating()) {
+            added.add(entity);
+        } else {
+            engine.addEntity(entity);
+        }
+    }
+
+    public synchronized void remove(Entity entity) {
+        if (!engine.isUpdating()) {
+            engine.removeEntity(entity);
+        } else if (removedSet.add(entity)) {
+            removed.add(entity);
+        }
+    }
+
+    public synchronized void addComponent(Entity entity, Component component) {
+        if (!engine.isUpdating() || added.contains(entity, true)) {
+            entity.add(component);
+        } else {
+            componentCommands.add(ADD_COMPONENT);
+            componentEntities.add(entity);
+            componentArguments.add(component);
+        }
+    }
+
+    public synchronized void removeComponent(Entity entity, Class<? extends Component> componentType) {
+        if (!engine.isUpdating() || added.contains(entity, true)) {
+            entity.remove(componentType);
+        } else {
+            componentCommands.add(REMOVE_COMPONENT);
+            componentEntities.add(entity);
+            componentArguments.add(componentType);
+        }
+    }
+
+    /**
+     * @return true if the entity will be removed at the next flush
+     */
+    public synchronized boolean isRemoved(Entity entity) {
+        return entity != null && removedSet.contains(entity);
+    }
+
+    public synchronized int size() {
+        return added.size + removed.size + componentCommands.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized void flush() {
+        for (int i = 0; i < componentCommands.size; ++i) {
+            Entity entity = componentEntities.get(i);
+            if (removedSet.contains(entity)) {
+                continue;
+            }
+            if (componentCommands.get(i) == ADD_COMPONENT) {
+                entity.add((Component) componentArguments.get(i));
+            } else {
+                entity.remove((Class<? extends Component>) componentArguments.get(i));
+            }
+        }
+        componentCommands.clear();
+        componentEntities.clear();
+        componentArguments.clear();
+        for (int i = 0; i < added.size; ++i) {
+            Entity entity = added.get(i);
+            if (removedSet.remove(entity)) {
+                removed.removeValue(entity, true);
+            } else {
+                engine.addEntity(entity);
+            }
+        }
+        added.clear();
+        for (int i = 0; i < removed.size; ++i) {
+            engine.removeEntity(removed.get(i));
+        }
+        removed.clear();
+        removedSet.clear();
+    }
+
+    /**
+     * @return the command buffer of the engine, null if it has not got any
+     */
+    public static EntityCommandBuffer of(Engine engine) {
+        return engine instanceof BufferedEngine ? ((BufferedEngine) engine).getCommands() : null;
+    }
+
+    /**
+     * removal through the command buffer of the engine, if any
+     */
+    public static void removeEntity(Engine engine, Entity entity) {
+        EntityCommandBuffer commands = of(engine);
+        if (commands != null) {
+            commands.remove(entity);
+        } else {
+            engine.removeEntity(entity);
+        }
+    }
+
+    public static void addEntity(Engine engine, Entity entity) {
+        EntityCommandBuffer commands = of(engine);
+        if (commands != null) {
+            commands.add(entity);
+        } else {
+            engine.addEntity(entity);
+        }
+    }
+
+    public static void removeComponent(Engine engine, Entity entity, Class<? extends Component> componentType) {
+        EntityCommandBuffer commands = of(engine);
+        if (commands != null) {
+            commands.removeComponent(entity, componentType);
+        } else {
+            entity.remove(componentType);
+        }
+    }
+
+    public static boolean isRemoved(Engine engine, Entity entity) {
+        EntityCommandBuffer commands = of(engine);
+        return commands != null && commands.isRemoved(entity);
+    }
+
+    public static void flush(Engine engine) {
+        EntityCommandBuffer commands = of(engine);
+        if (commands != null) {
+            commands.flush();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 22:06
+ * Last modified 18/10/26 03:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -17,6 +17,7 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Pool;
 import com.bendk97.SpaceKillerGame;
 import com.bendk97.assets.GameAssets;
+import com.bendk97.components.CollisionComponent;
 import com.bendk97.components.LightComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
@@ -28,6 +29,7 @@ import com.bendk97.entities.player.PlayerActionsEntityFactory;
 import com.bendk97.entities.player.PlayerEntityFactory;
 import com.bendk97.screens.levels.Level;
 import com.bendk97.screens.levels.utils.ScreenShake;
+import com.bendk97.systems.collision.CollisionLayers;
 
 import static com.bendk97.assets.GameAssets.GFX_LEVEL_COMMON;
 
@@ -106,6 +108,20 @@ public class EntityFactory implements Disposable {
         entity.add(lightComponent);
     }
 
+    public void createCollision(Entity entity, int category) {
+        entity.add(engine.createComponent(CollisionComponent.class));
+        initCollision(entity, category);
+    }
+
+    /**
+     * for an entity already given a CollisionComponent (by an archetype)
+     */
+    public void initCollision(Entity entity, int category) {
+        CollisionComponent collisionComponent = ComponentMapperHelper.collision.get(entity);
+        collisionComponent.category = category;
+        collisionComponent.mask = CollisionLayers.maskOf(category);
+    }
+
     @Override
     public void dispose() {
         lightPool.clear();
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 21:32
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -34,8 +34,8 @@ public class StageSetEntityFactory {
         background.add(engine.createComponent(PositionComponent.class));
         VelocityComponent velocityComponent = engine.createComponent(VelocityComponent.class);
         background.add(velocityComponent);
-        velocityComponent.y = velocity;
-        engine.addEntity(background);
+        velocityComponent.setY(velocity);
+        EntityCommandBuffer.addEntity(engine, background);
         return background;
     }
 
@@ -53,7 +53,7 @@ public class StageSetEntityFactory {
         removableComponent.setDuration(3.0f);
         foreground.add(removableComponent);
         positionComponent.setXY(0f, SpaceKillerGameConstants.SCREEN_HEIGHT + 20f);
-        velocityComponent.y = -velocity;
-        engine.addEntity(foreground);
+        velocityComponent.setY(-velocity);
+        EntityCommandBuffer.addEntity(engine, foreground);
     }
 }
\ No newline at end of file
@@ -1,15 +1,17 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 01/11/18 16:18
+ * Last modified 18/10/26 06:20
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.entities;
 
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.bendk97.components.AnimationDefinition;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,6 +21,7 @@ public class TextureAtlasCache implements Disposable {
     private final TextureAtlas textureAtlas;
     private final Map<String, AtlasRegion> regionByRegionName = new HashMap<>();
     private final Map<String, Array<AtlasRegion>> regionsByRegionName = new HashMap<>();
+    private final Map<String, Array<AnimationDefinition>> animationsByRegionName = new HashMap<>();
 
 
     public TextureAtlasCache(TextureAtlas textureAtlas) {
@@ -40,9 +43,30 @@ public class TextureAtlasCache implements Disposable {
         return regionsByRegionName.get(name);
     }
 
+    /**
+     * @return the animation of the regions with this name, shared by every entity playing it
+     */
+    public AnimationDefinition findAnimation(String name, float frameDuration, PlayMode playMode) {
+        Array<AnimationDefinition> animations = animationsByRegionName.get(name);
+        if (animations == null) {
+            animations = new Array<>(false, 1, AnimationDefinition.class);
+            animationsByRegionName.put(name, animations);
+        }
+        for (int i = 0; i < animations.size; ++i) {
+            AnimationDefinition animation = animations.get(i);
+            if (animation.getFrameDuration() == frameDuration && animation.getPlayMode() == playMode) {
+                return animation;
+            }
+        }
+        AnimationDefinition animation = new AnimationDefinition(frameDuration, findRegions(name), playMode);
+        animations.add(animation);
+        return animation;
+    }
+
     @Override
     public void dispose() {
         regionByRegionName.clear();
         regionsByRegionName.clear();
+        animationsByRegionName.clear();
     }
 }
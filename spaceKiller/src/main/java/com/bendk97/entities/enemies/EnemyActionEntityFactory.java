@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 22:32
+ * Last modified 18/10/26 12:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -16,6 +16,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityArchetype;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.entities.EntityFactoryIds;
 import com.bendk97.screens.levels.Level;
@@ -31,17 +32,24 @@ import static com.bendk97.pools.GamePools.poolSprite;
 import static com.bendk97.pools.GamePools.poolVector2;
 import static com.bendk97.screens.levels.Level.Level1;
 import static com.bendk97.screens.levels.Level.Level3;
+import static com.bendk97.systems.collision.CollisionLayers.ENEMY_BULLET;
 import static com.bendk97.tweens.SpriteComponentTweenAccessor.ALPHA;
 
 public class EnemyActionEntityFactory {
 
+    private static final int BOSS_CIRCLE_BULLETS = 12;
+
     private final EntityFactory entityFactory;
     private final TweenManager tweenManager;
     private final Random random = new RandomXS128();
+    private final EntityArchetype enemyBullet;
+    private final Array<Entity> bossBullets = new Array<>(BOSS_CIRCLE_BULLETS);
 
     public EnemyActionEntityFactory(EntityFactory entityFactory, TweenManager tweenManager) {
         this.entityFactory = entityFactory;
         this.tweenManager = tweenManager;
+        this.enemyBullet = new EntityArchetype(entityFactory.engine, EnemyBulletComponent.class, CollisionComponent.class,
+                PositionComponent.class, VelocityComponent.class, SpriteComponent.class, RemovableComponent.class);
     }
 
 
@@ -65,34 +73,28 @@ public class EnemyActionEntityFactory {
 
     private void createEnemyFireLaser(float posX, float posY, float velocity) {
         entityFactory.assets.playSound(SOUND_FIRE_ENEMY);
-        Entity bullet = entityFactory.engine.createEntity();
-        bullet.add(entityFactory.engine.createComponent(EnemyBulletComponent.class));
-        PositionComponent positionComponent = entityFactory.engine.createComponent(PositionComponent.class);
-        bullet.add(positionComponent);
-        VelocityComponent velocityComponent = entityFactory.engine.createComponent(VelocityComponent.class);
-        bullet.add(velocityComponent);
-        SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
+        Entity bullet = enemyBullet.create();
+        entityFactory.initCollision(bullet, ENEMY_BULLET);
+        PositionComponent positionComponent = position.get(bullet);
+        VelocityComponent velocityComponent = ComponentMapperHelper.velocity.get(bullet);
+        SpriteComponent spriteComponent = sprite.get(bullet);
         spriteComponent.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("laser"));
         spriteComponent.pixelPerfectCollision = true;
-        bullet.add(spriteComponent);
-        RemovableComponent removableComponent = entityFactory.engine.createComponent(RemovableComponent.class);
-        removableComponent.setDuration(2f);
-        bullet.add(removableComponent);
-        entityFactory.engine.addEntity(bullet);
+        removable.get(bullet).setDuration(2f);
         positionComponent.setXY(posX - spriteComponent.sprite.getWidth() / 2f, posY - spriteComponent.sprite.getHeight() / 2f);
 
         Vector2 directionBullet = poolVector2.getVector2(0f, -1);
         directionBullet.scl(velocity);
-        velocityComponent.x = 0;
-        velocityComponent.y = directionBullet.y;
+        velocityComponent.setX(0);
+        velocityComponent.setY(directionBullet.y);
         poolVector2.free(directionBullet);
+        enemyBullet.spawn(bullet);
     }
 
 
     private void createEnemyFireCircle(Entity enemy, Entity player) {
         entityFactory.assets.playSound(SOUND_FIRE_ENEMY);
         Entity bullet = createEnemyBullet();
-        entityFactory.engine.addEntity(bullet);
         PositionComponent playerPosition = position.get(player);
         PositionComponent enemyPosition = position.get(enemy);
         EnemyComponent enemyComponent = ComponentMapperHelper.enemy.get(enemy);
@@ -126,9 +128,10 @@ public class EnemyActionEntityFactory {
             directionBullet.rotate(-10 + random.nextFloat() * 20f);
         }
         directionBullet.scl(ComponentMapperHelper.enemy.get(enemy).bulletVelocity);
-        bulletVelocity.x = directionBullet.x;
-        bulletVelocity.y = directionBullet.y;
+        bulletVelocity.setX(directionBullet.x);
+        bulletVelocity.setY(directionBullet.y);
         poolVector2.free(directionBullet);
+        enemyBullet.spawn(bullet);
     }
 
     public void createBossFire(final Entity boss, final Entity player) {
@@ -173,48 +176,43 @@ public class EnemyActionEntityFactory {
 
 
     private void createBossFireCircle(Entity boss, boolean yUp) {
-        Array<Entity> bullets = new Array<>(10);
         entityFactory.assets.playSound(SOUND_FIRE_ENEMY);
-        for (int i = 0; i < 12; ++i) {
-            Entity bullet = createEnemyBullet();
-            PositionComponent bulletPosition = position.get(bullet);
-            PositionComponent enemyPosition = position.get(boss);
-            bulletPosition.setX(enemyPosition.x() + sprite.get(boss).sprite.getWidth() / 2f
-                    - sprite.get(bullet).sprite.getWidth() / 2f);
-            bulletPosition.setY(enemyPosition.y() + sprite.get(boss).sprite.getHeight() / 4f);
-
-            bullets.add(bullet);
-            entityFactory.engine.addEntity(bullet);
-        }
+        // the whole circle is filled then spawned at once
+        enemyBullet.create(BOSS_CIRCLE_BULLETS, bossBullets);
+        PositionComponent enemyPosition = position.get(boss);
         float rotation = yUp ? 35f : -35f;
-        for (int i = 0; i < bullets.size; ++i) {
+        for (int i = 0; i < bossBullets.size; ++i) {
+            Entity bullet = bossBullets.get(i);
+            initEnemyBullet(bullet);
+            position.get(bullet).setXY(enemyPosition.x() + sprite.get(boss).sprite.getWidth() / 2f
+                            - sprite.get(bullet).sprite.getWidth() / 2f,
+                    enemyPosition.y() + sprite.get(boss).sprite.getHeight() / 4f);
             Vector2 directionBullet = poolVector2.getVector2(1f, 0f);
             directionBullet.setAngle(rotation);
             rotation -= yUp ? -10f : 10f;
             directionBullet.scl(ComponentMapperHelper.boss.get(boss).velocityFire1);
-            VelocityComponent velocityComponent = ComponentMapperHelper.velocity.get(bullets.get(i));
-            velocityComponent.x = directionBullet.x;
-            velocityComponent.y = directionBullet.y;
+            velocity.get(bullet).setXY(directionBullet.x, directionBullet.y);
             poolVector2.free(directionBullet);
         }
+        enemyBullet.spawn(bossBullets);
+        bossBullets.clear();
     }
 
     private Entity createEnemyBullet() {
-        Entity bullet = entityFactory.engine.createEntity();
-        bullet.add(entityFactory.engine.createComponent(EnemyBulletComponent.class));
-        bullet.add(entityFactory.engine.createComponent(PositionComponent.class));
-        bullet.add(entityFactory.engine.createComponent(VelocityComponent.class));
-        SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
+        Entity bullet = enemyBullet.create();
+        initEnemyBullet(bullet);
+        return bullet;
+    }
+
+    private void initEnemyBullet(Entity bullet) {
+        entityFactory.initCollision(bullet, ENEMY_BULLET);
+        SpriteComponent spriteComponent = sprite.get(bullet);
         spriteComponent.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("bulletEnemy"));
-        bullet.add(spriteComponent);
         Timeline.createSequence()
                 .push(Tween.to(spriteComponent, ALPHA, 0.09f).target(0.5f))
                 .push(Tween.to(spriteComponent, ALPHA, 0.09f).target(1f))
                 .repeat(Tween.INFINITY, 0f)
                 .start(tweenManager);
-        RemovableComponent removableComponent = entityFactory.engine.createComponent(RemovableComponent.class);
-        removableComponent.setDuration(5.0f);
-        bullet.add(removableComponent);
-        return bullet;
+        removable.get(bullet).setDuration(5.0f);
     }
 }
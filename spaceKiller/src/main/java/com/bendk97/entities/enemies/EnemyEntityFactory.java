@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 23:28
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,11 +9,12 @@ package com.bendk97.entities.enemies;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.utils.Array;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityArchetype;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.screens.levels.Level;
 import com.bendk97.timer.PausableTimer;
@@ -28,6 +29,8 @@ import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.assets.GameAssets.SOUND_EXPLOSION;
 import static com.bendk97.entities.EntityFactoryIds.*;
 import static com.bendk97.pools.GamePools.poolSprite;
+import static com.bendk97.systems.collision.CollisionLayers.ENEMY;
+import static com.bendk97.systems.collision.CollisionLayers.GROUND_ENEMY;
 
 public class EnemyEntityFactory {
 
@@ -36,10 +39,13 @@ public class EnemyEntityFactory {
     public SoloEnemyFactory soloEnemyFactory;
     public SquadronFactory squadronFactory;
     private final Random random = new RandomXS128();
+    private final EntityArchetype enemyShip;
 
 
     public EnemyEntityFactory(EntityFactory entityFactory, Level level) {
         this.entityFactory = entityFactory;
+        this.enemyShip = new EntityArchetype(entityFactory.engine, EnemyComponent.class, CollisionComponent.class,
+                PositionComponent.class, AnimationComponent.class, SpriteComponent.class, StateComponent.class);
         this.soloEnemyFactory = new SoloEnemyFactory(entityFactory, level);
         this.squadronFactory = new SquadronFactory(entityFactory);
     }
@@ -90,12 +96,11 @@ public class EnemyEntityFactory {
 
     private Entity createLaserShip(String atlasRegion, Float velocity, float bulletVelocity, int rateShoot, int gaugeLife, int points, boolean fromLeft) {
         Entity enemy = entityFactory.engine.createEntity();
-        entityFactory.engine.addEntity(enemy);
         PositionComponent positionComponent = entityFactory.engine.createComponent(PositionComponent.class);
         enemy.add(positionComponent);
         if (velocity != null) {
             VelocityComponent velocityComponent = entityFactory.engine.createComponent(VelocityComponent.class);
-            velocityComponent.x = velocity;
+            velocityComponent.setX(velocity);
             enemy.add(velocityComponent);
             FollowPlayerComponent followPlayerComponent = entityFactory.engine.createComponent(FollowPlayerComponent.class);
             enemy.add(followPlayerComponent);
@@ -103,12 +108,12 @@ public class EnemyEntityFactory {
 
         }
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions(atlasRegion));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION, sprites, LOOP_PINGPONG));
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation(atlasRegion, FRAME_DURATION, LOOP_PINGPONG);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         enemy.add(animationComponent);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
         enemy.add(spriteComponent);
-        spriteComponent.sprite = sprites.get(0);
+        spriteComponent.sprite = poolSprite.getSprite(animation.frame(0));
         spriteComponent.zIndex = 20;
         positionComponent.setX(fromLeft ? -spriteComponent.sprite.getWidth() : SCREEN_WIDTH);
         positionComponent.setY(SCREEN_HEIGHT - spriteComponent.sprite.getHeight());
@@ -121,7 +126,10 @@ public class EnemyEntityFactory {
         enemyComponent.attackType = ENEMY_FIRE_LASER;
         enemyComponent.isLaserShip = true;
         enemy.add(enemyComponent);
+        entityFactory.createCollision(enemy, ENEMY);
         enemy.add(entityFactory.engine.createComponent(StateComponent.class));
+        // added once complete: its families are computed once
+        EntityCommandBuffer.addEntity(entityFactory.engine, enemy);
         return enemy;
     }
 
@@ -137,6 +145,7 @@ public class EnemyEntityFactory {
         enemyComponent.bulletVelocity = level.bulletVelocity;
         enemyComponent.attackCapacity = 0;
         tankCannon.add(enemyComponent);
+        entityFactory.createCollision(tankCannon, GROUND_ENEMY);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         tankCannon.add(position);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
@@ -151,7 +160,7 @@ public class EnemyEntityFactory {
         TankComponent tankComponent = entityFactory.engine.createComponent(TankComponent.class);
         tankComponent.setLevel(level);
         tankCannon.add(tankComponent);
-        entityFactory.engine.addEntity(tankCannon);
+        EntityCommandBuffer.addEntity(entityFactory.engine, tankCannon);
         Entity tankBody = entityFactory.engine.createEntity();
         tankBody.add(entityFactory.engine.createComponent(PositionComponent.class));
         SpriteComponent sprite = entityFactory.engine.createComponent(SpriteComponent.class);
@@ -159,7 +168,7 @@ public class EnemyEntityFactory {
         sprite.zIndex = -6;
         tankBody.add(sprite);
         tankBody.add(entityFactory.engine.createComponent(GroundEnemyComponent.class));
-        entityFactory.engine.addEntity(tankBody);
+        EntityCommandBuffer.addEntity(entityFactory.engine, tankBody);
 
         entities.add(tankBody);
         entities.add(tankCannon);
@@ -167,8 +176,8 @@ public class EnemyEntityFactory {
     }
 
     private Entity createEnemy(Entity squadron, EnemyCharacteristics characteristics, float frameDuration, Animation.PlayMode animationType) {
-        Entity enemy = entityFactory.engine.createEntity();
-        EnemyComponent enemyComponent = entityFactory.engine.createComponent(EnemyComponent.class);
+        Entity enemy = enemyShip.create();
+        EnemyComponent enemyComponent = ComponentMapperHelper.enemy.get(enemy);
         enemyComponent.points = characteristics.points;
         enemyComponent.initLifeGauge(characteristics.strength);
         enemyComponent.probabilityAttack = characteristics.rateShoot;
@@ -177,22 +186,14 @@ public class EnemyEntityFactory {
         if (squadron != null) {
             enemyComponent.squadron = squadron;
         }
-        enemy.add(enemyComponent);
-        PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
-        enemy.add(position);
-        AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions(characteristics.atlasName));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(frameDuration, sprites, animationType));
-        enemy.add(animationComponent);
-        SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = sprites.get(0);
-        enemy.add(component);
+        entityFactory.initCollision(enemy, ENEMY);
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation(characteristics.atlasName, frameDuration, animationType);
+        ComponentMapperHelper.animation.get(enemy).animations.put(ANIMATION_MAIN, animation);
+        ComponentMapperHelper.sprite.get(enemy).sprite = poolSprite.getSprite(animation.frame(0));
         if(characteristics.directionable) {
             enemy.add(entityFactory.engine.createComponent(DirectionableComponent.class));
         }
-        enemy.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(enemy);
-        return enemy;
+        return enemyShip.spawn(enemy);
     }
 
     protected Entity createEnemySoucoupe(Entity squadron, boolean canAttack, float velocityBullet) {
@@ -326,13 +327,14 @@ public class EnemyEntityFactory {
             enemyComponent.squadron = squadron;
         }
         boss.add(enemyComponent);
+        entityFactory.createCollision(boss, ENEMY);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         boss.add(position);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
         spriteComponent.pixelPerfectCollision = true;
         spriteComponent.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("boss-level1"));
         boss.add(spriteComponent);
-        entityFactory.engine.addEntity(boss);
+        EntityCommandBuffer.addEntity(entityFactory.engine, boss);
         PausableTimer.schedule(new PausableTimer.Task() {
             @Override
             public void run() {
@@ -361,13 +363,14 @@ public class EnemyEntityFactory {
             enemyComponent.squadron = squadron;
         }
         boss.add(enemyComponent);
+        entityFactory.createCollision(boss, ENEMY);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         boss.add(position);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
         spriteComponent.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("boss"));
         spriteComponent.pixelPerfectCollision = true;
         boss.add(spriteComponent);
-        entityFactory.engine.addEntity(boss);
+        EntityCommandBuffer.addEntity(entityFactory.engine, boss);
         PausableTimer.schedule(new PausableTimer.Task() {
             @Override
             public void run() {
@@ -403,19 +406,19 @@ public class EnemyEntityFactory {
             enemyComponent.squadron = squadron;
         }
         boss.add(enemyComponent);
+        entityFactory.createCollision(boss, ENEMY);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         boss.add(position);
 
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions("boss3"));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(0.075f, (Sprite[]) sprites.toArray(Sprite.class)));
-        animationComponent.animations.get(ANIMATION_MAIN).setPlayMode(LOOP_PINGPONG);
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation("boss3", 0.075f, LOOP_PINGPONG);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         boss.add(animationComponent);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
-        spriteComponent.sprite = sprites.get(0);
+        spriteComponent.sprite = poolSprite.getSprite(animation.frame(0));
         spriteComponent.pixelPerfectCollision = true;
         boss.add(spriteComponent);
-        entityFactory.engine.addEntity(boss);
+        EntityCommandBuffer.addEntity(entityFactory.engine, boss);
         PausableTimer.schedule(new PausableTimer.Task() {
             @Override
             public void run() {
@@ -441,19 +444,20 @@ public class EnemyEntityFactory {
             enemyComponent.squadron = squadron;
         }
         enemy.add(enemyComponent);
+        entityFactory.createCollision(enemy, ENEMY);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         enemy.add(position);
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
         String asteroidSprite = asteroid == ASTEROID_1 ? "asteroid" : "asteroid2";
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions(asteroidSprite));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION, sprites, LOOP));
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation(asteroidSprite, FRAME_DURATION, LOOP);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         enemy.add(animationComponent);
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = sprites.get(0);
+        component.sprite = poolSprite.getSprite(animation.frame(0));
         component.zIndex = -99;
         enemy.add(component);
         enemy.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(enemy);
+        EntityCommandBuffer.addEntity(entityFactory.engine, enemy);
         return enemy;
     }
 
@@ -467,13 +471,14 @@ public class EnemyEntityFactory {
             enemyComponent.squadron = squadron;
         }
         house.add(enemyComponent);
+        entityFactory.createCollision(house, GROUND_ENEMY);
         house.add(entityFactory.engine.createComponent(PositionComponent.class));
         house.add(entityFactory.engine.createComponent(GroundEnemyComponent.class));
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
         component.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("house-" + (houseType - HOUSE_1 + 1)));
         component.zIndex = -10;
         house.add(component);
-        entityFactory.engine.addEntity(house);
+        EntityCommandBuffer.addEntity(entityFactory.engine, house);
 
         Entity houseDestroyed = entityFactory.engine.createEntity();
         houseDestroyed.add(entityFactory.engine.createComponent(PositionComponent.class));
@@ -482,7 +487,7 @@ public class EnemyEntityFactory {
         component.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion("house-" + (houseType - HOUSE_1 + 1) + "_destroyed"));
         component.zIndex = -11;
         houseDestroyed.add(component);
-        entityFactory.engine.addEntity(houseDestroyed);
+        EntityCommandBuffer.addEntity(entityFactory.engine, houseDestroyed);
 
         entities.add(house);
         entities.add(houseDestroyed);
@@ -495,15 +500,15 @@ public class EnemyEntityFactory {
         explosion.add(position);
         position.setXY(x, y);
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.commonAtlas.findRegions("explosion"));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION_EXPLOSION, sprites, Animation.PlayMode.NORMAL));
+        AnimationDefinition animation = entityFactory.commonAtlas.findAnimation("explosion", FRAME_DURATION_EXPLOSION, Animation.PlayMode.NORMAL);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         explosion.add(animationComponent);
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = animationComponent.animations.get(ANIMATION_MAIN).getKeyFrame(0);
+        component.sprite = poolSprite.getSprite(animation.frame(0));
         component.zIndex = 100;
         explosion.add(component);
         explosion.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(explosion);
+        EntityCommandBuffer.addEntity(entityFactory.engine, explosion);
         //
         if (entityFactory.rayHandler != null) {
             entityFactory.createLight(explosion);
@@ -539,7 +544,7 @@ public class EnemyEntityFactory {
         squadronComponent.displayBonusSquadron = displayScoreBonus;
         squadronComponent.scoreBonus = bonus;
         squadron.add(squadronComponent);
-        entityFactory.engine.addEntity(squadron);
+        EntityCommandBuffer.addEntity(entityFactory.engine, squadron);
         return squadron;
     }
 
@@ -562,7 +567,7 @@ public class EnemyEntityFactory {
         }
         scoreSquadron.add(position);
         scoreSquadron.add(score);
-        entityFactory.engine.addEntity(scoreSquadron);
+        EntityCommandBuffer.addEntity(entityFactory.engine, scoreSquadron);
         return scoreSquadron;
     }
 
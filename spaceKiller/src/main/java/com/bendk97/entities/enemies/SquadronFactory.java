@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 23:29
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -20,6 +20,7 @@ import com.bendk97.components.EnemyComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.screens.levels.utils.ScriptItem;
 import com.bendk97.tweens.PositionComponentTweenAccessor;
@@ -420,7 +421,7 @@ public class SquadronFactory {
             ComponentMapperHelper.squadron.get(enemyComponent.squadron).powerUpAfterDestruction = false;
             ComponentMapperHelper.squadron.get(enemyComponent.squadron).ships.removeValue(entity, true);
         }
-        entityFactory.engine.removeEntity(entity);
+        EntityCommandBuffer.removeEntity(entityFactory.engine, entity);
     }
 
 
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 22:35
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -11,17 +11,16 @@ import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
 import aurelienribon.tweenengine.equations.Linear;
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.utils.Array;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 
 import static com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP;
 import static com.bendk97.SpaceKillerGameConstants.ANIMATION_MAIN;
 import static com.bendk97.SpaceKillerGameConstants.FRAME_DURATION_POWER_UP;
 import static com.bendk97.pools.GamePools.poolSprite;
+import static com.bendk97.systems.collision.CollisionLayers.*;
 import static com.bendk97.tweens.PositionComponentTweenAccessor.POSITION_Y;
 import static com.bendk97.tweens.SpriteComponentTweenAccessor.ALPHA;
 
@@ -36,47 +35,50 @@ public class BonusEntityFactory {
     public void createPowerUp(Entity squadron) {
         final Entity powerUp = entityFactory.engine.createEntity();
         powerUp.add(entityFactory.engine.createComponent(PowerUpComponent.class));
+        entityFactory.createCollision(powerUp, POWER_UP);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         powerUp.add(position);
         powerUp.add(entityFactory.engine.createComponent(VelocityComponent.class));
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions("power-up"));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION_POWER_UP, sprites, LOOP));
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation("power-up", FRAME_DURATION_POWER_UP, LOOP);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         powerUp.add(animationComponent);
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = sprites.get(0);
+        component.sprite = poolSprite.getSprite(animation.frame(0));
         powerUp.add(component);
         position.setXY(ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.x,
                 ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.y);
         powerUp.add(entityFactory.engine.createComponent(StateComponent.class));
         tweenBonus(powerUp, position, component);
-        entityFactory.engine.addEntity(powerUp);
+        EntityCommandBuffer.addEntity(entityFactory.engine, powerUp);
     }
 
 
     public void createShieldUp(Entity squadron) {
         final Entity shieldUp = entityFactory.engine.createEntity();
         shieldUp.add(entityFactory.engine.createComponent(ShieldUpComponent.class));
+        entityFactory.createCollision(shieldUp, SHIELD_UP);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         shieldUp.add(position);
         shieldUp.add(entityFactory.engine.createComponent(VelocityComponent.class));
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        Array<Sprite> sprites = poolSprite.getSprites(entityFactory.levelAtlas.findRegions("shieldup"));
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION_POWER_UP, sprites, LOOP));
+        AnimationDefinition animation = entityFactory.levelAtlas.findAnimation("shieldup", FRAME_DURATION_POWER_UP, LOOP);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
         shieldUp.add(animationComponent);
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = sprites.get(0);
+        component.sprite = poolSprite.getSprite(animation.frame(0));
         shieldUp.add(component);
         position.setXY(ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.x,
                 ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.y);
         shieldUp.add(entityFactory.engine.createComponent(StateComponent.class));
         tweenBonus(shieldUp, position, component);
-        entityFactory.engine.addEntity(shieldUp);
+        EntityCommandBuffer.addEntity(entityFactory.engine, shieldUp);
     }
 
     public void createBombUp(Entity squadron) {
         final Entity bombUp = entityFactory.engine.createEntity();
         bombUp.add(entityFactory.engine.createComponent(BombUpComponent.class));
+        entityFactory.createCollision(bombUp, BOMB_UP);
         PositionComponent position = entityFactory.engine.createComponent(PositionComponent.class);
         bombUp.add(position);
         bombUp.add(entityFactory.engine.createComponent(VelocityComponent.class));
@@ -86,7 +88,7 @@ public class BonusEntityFactory {
         position.setXY(ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.x,
                 ComponentMapperHelper.squadron.get(squadron).lastKilledPosition.y);
         tweenBonus(bombUp, position, component);
-        entityFactory.engine.addEntity(bombUp);
+        EntityCommandBuffer.addEntity(entityFactory.engine, bombUp);
     }
 
 
@@ -98,7 +100,7 @@ public class BonusEntityFactory {
                 .end()
                 .setCallback((i, baseTween) -> {
                     if (i == TweenCallback.COMPLETE) {
-                        entityFactory.engine.removeEntity(powerUp);
+                        EntityCommandBuffer.removeEntity(entityFactory.engine, powerUp);
                     }
                 })
                 .start(entityFactory.tweenManager);
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 22:32
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -11,10 +11,11 @@ import aurelienribon.tweenengine.TweenCallback;
 import aurelienribon.tweenengine.equations.Linear;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.math.Vector2;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityArchetype;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.timer.PausableTimer;
 
@@ -26,6 +27,7 @@ import static com.bendk97.components.helpers.ComponentMapperHelper.position;
 import static com.bendk97.components.helpers.ComponentMapperHelper.sprite;
 import static com.bendk97.pools.GamePools.poolSprite;
 import static com.bendk97.pools.GamePools.poolVector2;
+import static com.bendk97.systems.collision.CollisionLayers.PLAYER_BULLET;
 import static com.bendk97.tweens.PositionComponentTweenAccessor.POSITION_XY;
 import static com.bendk97.tweens.PositionComponentTweenAccessor.POSITION_Y;
 
@@ -34,24 +36,28 @@ public class PlayerActionsEntityFactory {
     private static final Color WHITE_80 = new Color(1f, 1f, 1f, 0.8f);
     private static final String UNABLE_TO_FIRE_SIDED_AT_THIS_LEVEL = "Unable to fire sided at this level";
     private final EntityFactory entityFactory;
+    private final EntityArchetype playerBullet;
 
     public PlayerActionsEntityFactory(EntityFactory entityFactory) {
         this.entityFactory = entityFactory;
+        this.playerBullet = new EntityArchetype(entityFactory.engine, PlayerBulletComponent.class, CollisionComponent.class,
+                PositionComponent.class, VelocityComponent.class, SpriteComponent.class, RemovableComponent.class);
     }
 
     public void createPlayerFire(Entity player) {
         PlayerComponent playerComponent = ComponentMapperHelper.player.get(player);
-        SpriteComponent spriteBulletComponent = entityFactory.engine.createComponent(SpriteComponent.class);
-        VelocityComponent velocityBulletComponent = entityFactory.engine.createComponent(VelocityComponent.class);
-        PositionComponent positionBulletComponent = entityFactory.engine.createComponent(PositionComponent.class);
-        Entity bullet = createBullet(playerComponent.powerLevel.bulletRegionName, spriteBulletComponent, velocityBulletComponent, positionBulletComponent);
+        Entity bullet = createBullet(playerComponent.powerLevel.bulletRegionName);
+        SpriteComponent spriteBulletComponent = sprite.get(bullet);
+        VelocityComponent velocityBulletComponent = ComponentMapperHelper.velocity.get(bullet);
+        PositionComponent positionBulletComponent = position.get(bullet);
         PositionComponent playerPosition = position.get(player);
         positionBulletComponent.setX(playerPosition.x() + ComponentMapperHelper.sprite.get(player).sprite.getWidth() / 2f - spriteBulletComponent.sprite.getWidth() / 2f);
         positionBulletComponent.setY(playerPosition.y() + sprite.get(player).sprite.getHeight());
-        velocityBulletComponent.y = PLAYER_BULLET_VELOCITY;
+        velocityBulletComponent.setY(PLAYER_BULLET_VELOCITY);
         if (entityFactory.rayHandler != null) {
             entityFactory.createLight(bullet, playerComponent.powerLevel.color, spriteBulletComponent.sprite.getWidth() * 7f);
         }
+        playerBullet.spawn(bullet);
     }
 
     public void createPlayerFireSide(Entity player) {
@@ -64,10 +70,10 @@ public class PlayerActionsEntityFactory {
 
     private void createPlayerLeftFire(Entity player) {
         PlayerComponent playerComponent = ComponentMapperHelper.player.get(player);
-        SpriteComponent spriteBulletComponent = entityFactory.engine.createComponent(SpriteComponent.class);
-        VelocityComponent velocityBulletComponent = entityFactory.engine.createComponent(VelocityComponent.class);
-        PositionComponent positionBulletComponent = entityFactory.engine.createComponent(PositionComponent.class);
-        Entity bullet = createBullet(playerComponent.powerLevel.bulletLeftSidedRegionName, spriteBulletComponent, velocityBulletComponent, positionBulletComponent);
+        Entity bullet = createBullet(playerComponent.powerLevel.bulletLeftSidedRegionName);
+        SpriteComponent spriteBulletComponent = sprite.get(bullet);
+        VelocityComponent velocityBulletComponent = ComponentMapperHelper.velocity.get(bullet);
+        PositionComponent positionBulletComponent = position.get(bullet);
         PositionComponent playerPosition = position.get(player);
         positionBulletComponent.setX(playerPosition.x() - spriteBulletComponent.sprite.getWidth());
         positionBulletComponent.setY(playerPosition.y() + sprite.get(player).sprite.getHeight());
@@ -75,20 +81,21 @@ public class PlayerActionsEntityFactory {
         direction.rotate(35f);
         direction.nor();
         direction.scl(PLAYER_BULLET_VELOCITY * 1.5f);
-        velocityBulletComponent.y = direction.y;
-        velocityBulletComponent.x = direction.x;
+        velocityBulletComponent.setY(direction.y);
+        velocityBulletComponent.setX(direction.x);
         poolVector2.free(direction);
         if (entityFactory.rayHandler != null) {
             entityFactory.createLight(bullet, playerComponent.powerLevel.color, spriteBulletComponent.sprite.getWidth() * 7f);
         }
+        playerBullet.spawn(bullet);
     }
 
     private void createPlayerRightFire(Entity player) {
         PlayerComponent playerComponent = ComponentMapperHelper.player.get(player);
-        SpriteComponent spriteBulletComponent = entityFactory.engine.createComponent(SpriteComponent.class);
-        VelocityComponent velocityBulletComponent = entityFactory.engine.createComponent(VelocityComponent.class);
-        PositionComponent positionBulletComponent = entityFactory.engine.createComponent(PositionComponent.class);
-        Entity bullet = createBullet(playerComponent.powerLevel.bulletRightSidedRegionName, spriteBulletComponent, velocityBulletComponent, positionBulletComponent);
+        Entity bullet = createBullet(playerComponent.powerLevel.bulletRightSidedRegionName);
+        SpriteComponent spriteBulletComponent = sprite.get(bullet);
+        VelocityComponent velocityBulletComponent = ComponentMapperHelper.velocity.get(bullet);
+        PositionComponent positionBulletComponent = position.get(bullet);
         PositionComponent playerPosition = position.get(player);
         positionBulletComponent.setX(playerPosition.x() + sprite.get(player).sprite.getWidth());
         positionBulletComponent.setY(playerPosition.y() + sprite.get(player).sprite.getHeight());
@@ -96,12 +103,13 @@ public class PlayerActionsEntityFactory {
         direction.rotate(-35f);
         direction.nor();
         direction.scl(PLAYER_BULLET_VELOCITY * 1.5f);
-        velocityBulletComponent.y = direction.y;
-        velocityBulletComponent.x = direction.x;
+        velocityBulletComponent.setY(direction.y);
+        velocityBulletComponent.setX(direction.x);
         poolVector2.free(direction);
         if (entityFactory.rayHandler != null) {
             entityFactory.createLight(bullet, playerComponent.powerLevel.color, spriteBulletComponent.sprite.getWidth() * 7f);
         }
+        playerBullet.spawn(bullet);
     }
 
     public void createPlayerBomb(Entity player) {
@@ -110,22 +118,23 @@ public class PlayerActionsEntityFactory {
         bomb.add(positionComponent);
         SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION, poolSprite.getSprites(entityFactory.commonAtlas.findRegions("bomb")), LOOP));
-        spriteComponent.sprite = animationComponent.animations.get(ANIMATION_MAIN).getKeyFrame(0);
+        AnimationDefinition animation = entityFactory.commonAtlas.findAnimation("bomb", FRAME_DURATION, LOOP);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
+        spriteComponent.sprite = poolSprite.getSprite(animation.frame(0));
         bomb.add(spriteComponent);
         bomb.add(animationComponent);
         bomb.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(bomb);
         PositionComponent playerPosition = position.get(player);
         positionComponent.setX(playerPosition.x() + ComponentMapperHelper.sprite.get(player).sprite.getWidth() / 2f - spriteComponent.sprite.getWidth() / 2f);
         positionComponent.setY(playerPosition.y() + ComponentMapperHelper.sprite.get(player).sprite.getHeight() >= SCREEN_HEIGHT * 3f / 4f ?
                 playerPosition.y() : playerPosition.y() + sprite.get(player).sprite.getHeight());
+        EntityCommandBuffer.addEntity(entityFactory.engine, bomb);
         Tween.to(positionComponent, POSITION_XY, 0.6f).ease(Linear.INOUT)
                 .target(SCREEN_WIDTH / 2f - spriteComponent.sprite.getWidth() / 2f, SCREEN_HEIGHT * 3f / 4f)
                 .setCallback((event, baseTween) -> {
                     if (event == TweenCallback.COMPLETE) {
                         createBombExplosion(bomb);
-                        entityFactory.engine.removeEntity(bomb);
+                        EntityCommandBuffer.removeEntity(entityFactory.engine, bomb);
                     }
                 })
                 .start(entityFactory.tweenManager);
@@ -137,18 +146,18 @@ public class PlayerActionsEntityFactory {
         bombExplosion.add(positionComponent);
         final SpriteComponent spriteComponent = entityFactory.engine.createComponent(SpriteComponent.class);
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION_BOMB_EXPLOSION,
-                poolSprite.getSprites(entityFactory.commonAtlas.findRegions("bomb_explosion")), LOOP_PINGPONG));
-        spriteComponent.sprite = poolSprite.getSprite(entityFactory.commonAtlas.findRegions("bomb_explosion").get(6));
+        AnimationDefinition animation = entityFactory.commonAtlas.findAnimation("bomb_explosion", FRAME_DURATION_BOMB_EXPLOSION, LOOP_PINGPONG);
+        animationComponent.animations.put(ANIMATION_MAIN, animation);
+        spriteComponent.sprite = poolSprite.getSprite(animation.frame(6));
         spriteComponent.zIndex = 100;
         bombExplosion.add(spriteComponent);
         bombExplosion.add(animationComponent);
         bombExplosion.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(bombExplosion);
-        entityFactory.assets.playSound(SOUND_BOMB_EXPLOSION);
         PositionComponent bombPosition = position.get(bomb);
         positionComponent.setX(bombPosition.x() - spriteComponent.sprite.getWidth() / 2f);
         positionComponent.setY(bombPosition.y() - spriteComponent.sprite.getHeight() / 2f);
+        EntityCommandBuffer.addEntity(entityFactory.engine, bombExplosion);
+        entityFactory.assets.playSound(SOUND_BOMB_EXPLOSION);
         Tween.to(positionComponent, POSITION_Y, 0.7f).ease(Linear.INOUT)
                 .target(bombPosition.y() - spriteComponent.sprite.getHeight() / 2f)
                 .setCallback((event, baseTween) -> {
@@ -168,15 +177,10 @@ public class PlayerActionsEntityFactory {
         }, 0.6f);
     }
 
-    private Entity createBullet(String bulletSpriteName, SpriteComponent spriteBulletComponent, VelocityComponent velocityBulletComponent, PositionComponent positionBulletComponent) {
-        Entity bullet = entityFactory.engine.createEntity();
-        bullet.add(entityFactory.engine.createComponent(PlayerBulletComponent.class));
-        bullet.add(positionBulletComponent);
-        bullet.add(velocityBulletComponent);
-        spriteBulletComponent.sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion(bulletSpriteName));
-        bullet.add(spriteBulletComponent);
-        bullet.add(entityFactory.engine.createComponent(RemovableComponent.class));
-        entityFactory.engine.addEntity(bullet);
+    private Entity createBullet(String bulletSpriteName) {
+        Entity bullet = playerBullet.create();
+        entityFactory.initCollision(bullet, PLAYER_BULLET);
+        sprite.get(bullet).sprite = poolSprite.getSprite(entityFactory.levelAtlas.findRegion(bulletSpriteName));
         return bullet;
     }
 
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 11/10/18 23:26
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -11,21 +11,24 @@ import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.SnapshotArray;
 import com.bendk97.Settings;
 import com.bendk97.SpaceKillerGame;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.screens.levels.Level;
 
 import static com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP;
 import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.pools.GamePools.poolSprite;
+import static com.bendk97.systems.collision.CollisionLayers.PLAYER;
+import static com.bendk97.systems.collision.CollisionLayers.SHIELD;
 import static com.bendk97.tweens.SpriteComponentTweenAccessor.ALPHA;
 
 public class PlayerEntityFactory {
@@ -62,31 +65,32 @@ public class PlayerEntityFactory {
             playerComponent.level = level;
         }
         player.add(playerComponent);
+        entityFactory.createCollision(player, PLAYER);
         player.add(entityFactory.engine.createComponent(PositionComponent.class));
         player.add(entityFactory.engine.createComponent(VelocityComponent.class));
         AnimationComponent animationComponent = entityFactory.engine.createComponent(AnimationComponent.class);
         Array<AtlasRegion> playerRegions = entityFactory.levelAtlas.findRegions("player");
-        Array<Sprite> spritesMAIN = new Array<>(true, 2, Sprite.class);
-        spritesMAIN.add(poolSprite.getSprite(playerRegions.get(1)));
-        spritesMAIN.add(poolSprite.getSprite(playerRegions.get(2)));
-        Array<Sprite> spritesLEFT = new Array<>(true, 2, Sprite.class);
-        spritesLEFT.add(poolSprite.getSprite(playerRegions.get(0)));
-        spritesLEFT.add(poolSprite.getSprite(playerRegions.get(3)));
-        Array<Sprite> spritesRIGHT = new Array<>(true, 2, Sprite.class);
-        spritesRIGHT.add(poolSprite.getSprite(playerRegions.get(0)));
-        spritesRIGHT.add(poolSprite.getSprite(playerRegions.get(3)));
-        spritesRIGHT.get(0).flip(true, false);
-        spritesRIGHT.get(1).flip(true, false);
-        animationComponent.animations.put(ANIMATION_MAIN, new Animation<>(FRAME_DURATION, spritesMAIN, LOOP));
-        animationComponent.animations.put(GO_LEFT, new Animation<>(FRAME_DURATION, spritesLEFT, LOOP));
-        animationComponent.animations.put(GO_RIGHT, new Animation<>(FRAME_DURATION, spritesRIGHT, LOOP));
+        Array<TextureRegion> framesMAIN = new Array<>(true, 2, TextureRegion.class);
+        framesMAIN.add(playerRegions.get(1));
+        framesMAIN.add(playerRegions.get(2));
+        Array<TextureRegion> framesLEFT = new Array<>(true, 2, TextureRegion.class);
+        framesLEFT.add(playerRegions.get(0));
+        framesLEFT.add(playerRegions.get(3));
+        Array<TextureRegion> framesRIGHT = new Array<>(true, 2, TextureRegion.class);
+        framesRIGHT.add(new TextureRegion(playerRegions.get(0)));
+        framesRIGHT.add(new TextureRegion(playerRegions.get(3)));
+        framesRIGHT.get(0).flip(true, false);
+        framesRIGHT.get(1).flip(true, false);
+        animationComponent.animations.put(ANIMATION_MAIN, new AnimationDefinition(FRAME_DURATION, framesMAIN, LOOP));
+        animationComponent.animations.put(GO_LEFT, new AnimationDefinition(FRAME_DURATION, framesLEFT, LOOP));
+        animationComponent.animations.put(GO_RIGHT, new AnimationDefinition(FRAME_DURATION, framesRIGHT, LOOP));
         player.add(animationComponent);
         SpriteComponent component = entityFactory.engine.createComponent(SpriteComponent.class);
-        component.sprite = spritesMAIN.get(0);
+        component.sprite = poolSprite.getSprite(framesMAIN.get(0));
         component.zIndex = 99;
         player.add(component);
         player.add(entityFactory.engine.createComponent(StateComponent.class));
-        entityFactory.engine.addEntity(player);
+        EntityCommandBuffer.addEntity(entityFactory.engine, player);
         ComponentMapperHelper.position.get(player).setXY(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
         entityFactory.enemyEntityFactory.setPlayer(player);
         return player;
@@ -106,7 +110,8 @@ public class PlayerEntityFactory {
         shield.add(positionComponent);
         shield.add(spriteComponent);
         shield.add(entityFactory.engine.createComponent(ShieldComponent.class));
-        entityFactory.engine.addEntity(shield);
+        entityFactory.createCollision(shield, SHIELD);
+        EntityCommandBuffer.addEntity(entityFactory.engine, shield);
         Timeline.createSequence().beginSequence()
                 .delay(5f)
                 .push(Tween.to(spriteComponent, ALPHA, 0.2f).target(0.2f))
@@ -114,7 +119,7 @@ public class PlayerEntityFactory {
                 .repeat(5, 0f)
                 .setCallback((i, baseTween) -> {
                     if (i == TweenCallback.COMPLETE) {
-                        entityFactory.engine.removeEntity(shield);
+                        EntityCommandBuffer.removeEntity(entityFactory.engine, shield);
                         removeInvulnerableComponent(player);
                     }
                 })
@@ -131,7 +136,7 @@ public class PlayerEntityFactory {
             component.setTexture(sprite, 1f, 0f, 0.5f);
             component.setPosition(LIVES_X + 20f * i, LIVES_Y - sprite.getHeight());
             life.add(component);
-            entityFactory.engine.addEntity(life);
+            EntityCommandBuffer.addEntity(entityFactory.engine, life);
             entities.add(life);
         }
         return entities;
@@ -148,7 +153,7 @@ public class PlayerEntityFactory {
             component.setTexture(sprite, 1f, 0f, 1f);
             component.setPosition(BOMB_STOCK_X - (22f * (i % 4)), BOMB_STOCK_Y + (22f * (float) Math.floor(i/4d)));
             bomb.add(component);
-            entityFactory.engine.addEntity(bomb);
+            EntityCommandBuffer.addEntity(entityFactory.engine, bomb);
             entities.add(bomb);
         }
         return entities;
@@ -178,7 +183,7 @@ public class PlayerEntityFactory {
         component.zIndex = 100;
         component.setPosition(posX, posY);
         entity.add(component);
-        entityFactory.engine.addEntity(entity);
+        EntityCommandBuffer.addEntity(entityFactory.engine, entity);
         return entity;
     }
 
@@ -189,7 +194,7 @@ public class PlayerEntityFactory {
         component.setTexture(poolSprite.getSprite(entityFactory.commonAtlas.findRegion("bomb_button")), alpha, 0, 1f);
         component.setPosition(posX, posY);
         entity.add(component);
-        entityFactory.engine.addEntity(entity);
+        EntityCommandBuffer.addEntity(entityFactory.engine, entity);
         return entity;
 
     }
@@ -201,7 +206,7 @@ public class PlayerEntityFactory {
         component.setTexture(poolSprite.getSprite(entityFactory.commonAtlas.findRegion("pad")), alpha, 0f, scale);
         component.setPosition(posX, posY);
         pad.add(component);
-        entityFactory.engine.addEntity(pad);
+        EntityCommandBuffer.addEntity(entityFactory.engine, pad);
         return pad;
     }
 
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -16,11 +16,15 @@ import com.badlogic.ashley.core.EntitySystem;
 import com.bendk97.assets.GameAssets;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.listeners.CollisionListener;
 import com.bendk97.listeners.PlayerListener;
 import com.bendk97.screens.levels.LevelScreen;
 import com.bendk97.screens.levels.utils.ScreenShake;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 import com.bendk97.timer.PausableTimer;
 import com.bendk97.tweens.PositionComponentTweenAccessor;
 
@@ -28,7 +32,7 @@ import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.assets.GameAssets.*;
 import static com.bendk97.tweens.SpriteComponentTweenAccessor.ALPHA;
 
-public class CollisionListenerImpl extends EntitySystem implements CollisionListener {
+public class CollisionListenerImpl extends EntitySystem implements CollisionListener, ScheduledSystem {
 
     private final GameAssets assets;
     private final EntityFactory entityFactory;
@@ -76,7 +80,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         PositionComponent explodePosition = ComponentMapperHelper.position.get(enemy);
         entityFactory.enemyEntityFactory.createEntityExploding(explodePosition.x(), explodePosition.y());
         if (bullet != null) {
-            getEngine().removeEntity(bullet);
+            EntityCommandBuffer.removeEntity(getEngine(), bullet);
         }
         // update score
         int nbHits = bullet != null ? 1 : HIT_EXPLOSION;
@@ -111,7 +115,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         if (enemyComponent.belongsToSquadron()) {
             ComponentMapperHelper.squadron.get(enemyComponent.squadron).removeEntity(enemy);
         }
-        getEngine().removeEntity(enemy);
+        EntityCommandBuffer.removeEntity(getEngine(), enemy);
     }
 
     private void bossIsShoot(Entity boss, Entity player, Entity bullet) {
@@ -131,7 +135,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
             explosionPosition.setY(explosionPosition.y() + ComponentMapperHelper.sprite.get(boss).sprite.getHeight() / 2f);
         }
         if (bullet != null) {
-            getEngine().removeEntity(bullet);
+            EntityCommandBuffer.removeEntity(getEngine(), bullet);
         }
         // update score
         int nbHits = bullet != null ? 1 : HIT_EXPLOSION;
@@ -151,18 +155,13 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         ComponentMapperHelper.healthBar.get(boss).setValue(bossComponent.getRemainingLifeInPercent());
         float percentLifeAfter = bossComponent.getRemainingLifeInPercent();
         if (percentLifeBefore >= 0.25 && percentLifeAfter < 0.25) {
-            AnimationComponent animationComponent = ComponentMapperHelper.animation.get(boss);
-            if (animationComponent != null) {
-                animationComponent.tintRed(ANIMATION_MAIN, 0.99f);
-            } else {
-                ComponentMapperHelper.sprite.get(boss).tintRed(0.99f);
-            }
+            ComponentMapperHelper.sprite.get(boss).tintRed(0.99f);
         }
     }
 
     private void bossIdDead(Entity boss, Entity player, EnemyComponent enemyComponent) {
         assets.playSound(SOUND_BOSS_FINISHED);
-        boss.remove(StatusHealthComponent.class);
+        EntityCommandBuffer.removeComponent(getEngine(), boss, StatusHealthComponent.class);
         if (ComponentMapperHelper.levelFinished.get(player) == null) {
             ComponentMapperHelper.player.get(player).enemyKilled();
         }
@@ -194,7 +193,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
                 .end()
                 .setCallback((i, baseTween) -> {
                     if (i == TweenCallback.COMPLETE) {
-                        getEngine().removeEntity(enemy);
+                        EntityCommandBuffer.removeEntity(getEngine(), enemy);
                     }
                     PausableTimer.schedule(new PausableTimer.Task() {
                         @Override
@@ -226,7 +225,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         assets.playSound(SOUND_EXPLOSION);
         PositionComponent playerPosition = ComponentMapperHelper.position.get(player);
         entityFactory.enemyEntityFactory.createEntityExploding(playerPosition.x(), playerPosition.y());
-        getEngine().removeEntity(bullet);
+        EntityCommandBuffer.removeEntity(getEngine(), bullet);
         tweenManager.killTarget(ComponentMapperHelper.sprite.get(bullet));
         playerListener.loseLive(player);
     }
@@ -241,7 +240,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         playerComponent.powerUp();
         tweenManager.killTarget(ComponentMapperHelper.position.get(powerUp));
         tweenManager.killTarget(ComponentMapperHelper.sprite.get(powerUp));
-        getEngine().removeEntity(powerUp);
+        EntityCommandBuffer.removeEntity(getEngine(), powerUp);
     }
 
 
@@ -251,7 +250,7 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         entityFactory.playerEntityFactory.createShield(player);
         tweenManager.killTarget(ComponentMapperHelper.position.get(shieldUp));
         tweenManager.killTarget(ComponentMapperHelper.sprite.get(shieldUp));
-        getEngine().removeEntity(shieldUp);
+        EntityCommandBuffer.removeEntity(getEngine(), shieldUp);
     }
 
     @Override
@@ -260,14 +259,14 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         playerListener.newBombObtained(player);
         tweenManager.killTarget(ComponentMapperHelper.position.get(bombUp));
         tweenManager.killTarget(ComponentMapperHelper.sprite.get(bombUp));
-        getEngine().removeEntity(bombUp);
+        EntityCommandBuffer.removeEntity(getEngine(), bombUp);
     }
 
 
     @Override
     public void bulletStoppedByShield(Entity bullet) {
         assets.playSound(SOUND_SHIELD_BULLET);
-        getEngine().removeEntity(bullet);
+        EntityCommandBuffer.removeEntity(getEngine(), bullet);
         tweenManager.killTarget(ComponentMapperHelper.sprite.get(bullet));
     }
 
@@ -280,7 +279,12 @@ public class CollisionListenerImpl extends EntitySystem implements CollisionList
         if (ComponentMapperHelper.enemy.get(enemy).squadron != null) {
             ComponentMapperHelper.squadron.get(ComponentMapperHelper.enemy.get(enemy).squadron).removeEntity(enemy);
         }
-        getEngine().removeEntity(enemy);
+        EntityCommandBuffer.removeEntity(getEngine(), enemy);
     }
 
+    @Override
+    public void declare(SystemAccess access) {
+        // listener of the contacts, nothing is done by its update
+        access.phase(SystemPhase.LOGIC);
+    }
 }
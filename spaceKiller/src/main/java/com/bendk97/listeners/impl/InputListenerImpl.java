@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -16,12 +16,15 @@ import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.components.helpers.Families;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.listeners.PlayerListener;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.assets.GameAssets.SOUND_FIRE;
 import static com.bendk97.pools.GamePools.poolVector2;
 
-public class InputListenerImpl extends EntitySystem implements com.bendk97.listeners.InputListener {
+public class InputListenerImpl extends EntitySystem implements com.bendk97.listeners.InputListener, ScheduledSystem {
     private static final float AUTOFIRE_DELAY = 1 / 10f;
     private final Entity player;
     private final EntityFactory entityFactory;
@@ -81,27 +84,27 @@ public class InputListenerImpl extends EntitySystem implements com.bendk97.liste
 
     @Override
     public void goLeft() {
-        ComponentMapperHelper.velocity.get(player).x = -playerVelocity;
+        ComponentMapperHelper.velocity.get(player).setX(-playerVelocity);
         ComponentMapperHelper.state.get(player).set(GO_LEFT);
     }
 
     @Override
     public void goRight() {
-        ComponentMapperHelper.velocity.get(player).x = playerVelocity;
+        ComponentMapperHelper.velocity.get(player).setX(playerVelocity);
         ComponentMapperHelper.state.get(player).set(GO_RIGHT);
     }
 
     @Override
     public void goTop() {
-        ComponentMapperHelper.velocity.get(player).x = 0;
-        ComponentMapperHelper.velocity.get(player).y = playerVelocity;
+        ComponentMapperHelper.velocity.get(player).setX(0);
+        ComponentMapperHelper.velocity.get(player).setY(playerVelocity);
         ComponentMapperHelper.state.get(player).set(ANIMATION_MAIN);
     }
 
     @Override
     public void goDown() {
-        ComponentMapperHelper.velocity.get(player).x = 0;
-        ComponentMapperHelper.velocity.get(player).y = -playerVelocity;
+        ComponentMapperHelper.velocity.get(player).setX(0);
+        ComponentMapperHelper.velocity.get(player).setY(-playerVelocity);
         ComponentMapperHelper.state.get(player).set(ANIMATION_MAIN);
     }
 
@@ -109,8 +112,8 @@ public class InputListenerImpl extends EntitySystem implements com.bendk97.liste
     public void goLeftTop() {
         Vector2 vector2 = poolVector2.getVector2(-1f, 1f);
         vector2.nor();
-        ComponentMapperHelper.velocity.get(player).x = playerVelocity * vector2.x;
-        ComponentMapperHelper.velocity.get(player).y = playerVelocity * vector2.y;
+        ComponentMapperHelper.velocity.get(player).setX(playerVelocity * vector2.x);
+        ComponentMapperHelper.velocity.get(player).setY(playerVelocity * vector2.y);
         ComponentMapperHelper.state.get(player).set(GO_LEFT);
         poolVector2.free(vector2);
     }
@@ -119,8 +122,8 @@ public class InputListenerImpl extends EntitySystem implements com.bendk97.liste
     public void goLeftDown() {
         Vector2 vector2 = poolVector2.getVector2(-1f, -1f);
         vector2.nor();
-        ComponentMapperHelper.velocity.get(player).x = playerVelocity * vector2.x;
-        ComponentMapperHelper.velocity.get(player).y = playerVelocity * vector2.y;
+        ComponentMapperHelper.velocity.get(player).setX(playerVelocity * vector2.x);
+        ComponentMapperHelper.velocity.get(player).setY(playerVelocity * vector2.y);
         ComponentMapperHelper.state.get(player).set(GO_LEFT);
         poolVector2.free(vector2);
     }
@@ -129,8 +132,8 @@ public class InputListenerImpl extends EntitySystem implements com.bendk97.liste
     public void goRightTop() {
         Vector2 vector2 = poolVector2.getVector2(1f, 1f);
         vector2.nor();
-        ComponentMapperHelper.velocity.get(player).x = playerVelocity * vector2.x;
-        ComponentMapperHelper.velocity.get(player).y = playerVelocity * vector2.y;
+        ComponentMapperHelper.velocity.get(player).setX(playerVelocity * vector2.x);
+        ComponentMapperHelper.velocity.get(player).setY(playerVelocity * vector2.y);
         ComponentMapperHelper.state.get(player).set(GO_RIGHT);
         poolVector2.free(vector2);
     }
@@ -139,17 +142,22 @@ public class InputListenerImpl extends EntitySystem implements com.bendk97.liste
     public void goRightBottom() {
         Vector2 vector2 = poolVector2.getVector2(1f, -1f);
         vector2.nor();
-        ComponentMapperHelper.velocity.get(player).x = playerVelocity * vector2.x;
-        ComponentMapperHelper.velocity.get(player).y = playerVelocity * vector2.y;
+        ComponentMapperHelper.velocity.get(player).setX(playerVelocity * vector2.x);
+        ComponentMapperHelper.velocity.get(player).setY(playerVelocity * vector2.y);
         ComponentMapperHelper.state.get(player).set(GO_RIGHT);
         poolVector2.free(vector2);
     }
 
     @Override
     public void stop() {
-        ComponentMapperHelper.velocity.get(player).x = 0;
-        ComponentMapperHelper.velocity.get(player).y = 0;
+        ComponentMapperHelper.velocity.get(player).setX(0);
+        ComponentMapperHelper.velocity.get(player).setY(0);
         ComponentMapperHelper.state.get(player).set(ANIMATION_MAIN);
     }
 
+    @Override
+    public void declare(SystemAccess access) {
+        // the autofire creates the bullets
+        access.phase(SystemPhase.LOGIC).exclusive();
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -17,10 +17,14 @@ import com.bendk97.components.GameOverComponent;
 import com.bendk97.components.PlayerComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.components.helpers.Families;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.listeners.PlayerListener;
 import com.bendk97.screens.levels.LevelScreen;
 import com.bendk97.screens.levels.utils.ScreenShake;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 import com.bendk97.timer.PausableTimer;
 
 import static com.bendk97.SpaceKillerGameConstants.PLAYER_ORIGIN_X;
@@ -28,7 +32,7 @@ import static com.bendk97.SpaceKillerGameConstants.PLAYER_ORIGIN_Y;
 import static com.bendk97.assets.GameAssets.*;
 
 
-public final class PlayerListenerImpl extends EntitySystem implements PlayerListener {
+public final class PlayerListenerImpl extends EntitySystem implements PlayerListener, ScheduledSystem {
     private final EntityFactory entityFactory;
     protected SnapshotArray<Entity> lives;
     protected SnapshotArray<Entity> bombs;
@@ -54,7 +58,7 @@ public final class PlayerListenerImpl extends EntitySystem implements PlayerList
             assets.playSound(SOUND_BOMB_DROP);
             playerComponent.useBomb();
             entityFactory.playerActionsEntityFactory.createPlayerBomb(player);
-            getEngine().removeEntity(bombs.removeIndex(bombs.size - 1));
+            EntityCommandBuffer.removeEntity(getEngine(), bombs.removeIndex(bombs.size - 1));
 
         }
     }
@@ -64,7 +68,7 @@ public final class PlayerListenerImpl extends EntitySystem implements PlayerList
         ComponentMapperHelper.player.get(player).bombs++;
         Entity[] bombsArray = bombs.begin();
         for (int i = 0; i < bombs.size; ++i) {
-            getEngine().removeEntity(bombsArray[i]);
+            EntityCommandBuffer.removeEntity(getEngine(), bombsArray[i]);
         }
         bombs.end();
         this.bombs = entityFactory.playerEntityFactory.createEntityPlayerBombs(player);
@@ -74,12 +78,12 @@ public final class PlayerListenerImpl extends EntitySystem implements PlayerList
     public void updateLivesAndBombsAfterContinue(Entity player) {
         Entity[] livesArray = this.lives.begin();
         for (int i = 0; i < lives.size; ++i) {
-            getEngine().removeEntity(livesArray[i]);
+            EntityCommandBuffer.removeEntity(getEngine(), livesArray[i]);
         }
         this.lives.end();
         Entity[] bombsArray = this.bombs.begin();
         for (int i = 0; i < bombs.size; ++i) {
-            getEngine().removeEntity(bombsArray[i]);
+            EntityCommandBuffer.removeEntity(getEngine(), bombsArray[i]);
         }
         this.bombs.end();
         ComponentMapperHelper.player.get(player).newCredit();
@@ -109,9 +113,9 @@ public final class PlayerListenerImpl extends EntitySystem implements PlayerList
         } else {
             assets.playSound(SOUND_LOSE_LIFE);
             if (playerComponent.lives > 0) {
-                getEngine().removeEntity(lives.removeIndex(playerComponent.lives - 1));
+                EntityCommandBuffer.removeEntity(getEngine(), lives.removeIndex(playerComponent.lives - 1));
             }
-            ComponentMapperHelper.position.get(player).setXY(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
+            ComponentMapperHelper.position.get(player).teleport(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
             ComponentMapperHelper.sprite.get(player).sprite.setPosition(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
             screen.makeEntityInvulnerable(player);
         }
@@ -138,12 +142,16 @@ public final class PlayerListenerImpl extends EntitySystem implements PlayerList
             assets.playSound(SOUND_NEW_LIFE);
             Entity[] livesArray = lives.begin();
             for (int i = 0; i < lives.size; ++i) {
-                getEngine().removeEntity(livesArray[i]);
+                EntityCommandBuffer.removeEntity(getEngine(), livesArray[i]);
             }
             lives.end();
             this.lives = entityFactory.playerEntityFactory.createEntityPlayerLives(player);
         }
     }
 
-
+    @Override
+    public void declare(SystemAccess access) {
+        // listener of the player events, nothing is done by its update
+        access.phase(SystemPhase.LOGIC);
+    }
 }
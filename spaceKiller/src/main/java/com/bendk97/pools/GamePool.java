@@ -1,11 +1,12 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 30/10/18 22:38
+ * Last modified 18/10/26 05:50
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.pools;
 
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pools;
 import com.badlogic.gdx.utils.StringBuilder;
@@ -21,6 +22,7 @@ public abstract class GamePool<T> {
     private final Pool<T> pool;
     private final Class<T> klass;
     private int alive = 0;
+    private int peakAlive = 0;
 
     public GamePool(Class<T> klass, int max) {
         this.pool = Pools.get(klass, max);
@@ -29,6 +31,7 @@ public abstract class GamePool<T> {
 
     public T obtain() {
         alive++;
+        peakAlive = Math.max(peakAlive, alive);
         return pool.obtain();
     }
 
@@ -41,9 +44,36 @@ public abstract class GamePool<T> {
     public void clear() {
         pool.clear();
         alive = 0;
+        peakAlive = 0;
         pool.peak = 0;
     }
 
+    /**
+     * creates free objects until count of them can be obtained without allocation (within the max of the pool)
+     */
+    public void prewarm(int count) {
+        int missing = Math.min(count - alive, pool.max) - pool.getFree();
+        if (missing <= 0) {
+            return;
+        }
+        Array<T> objects = new Array<>(false, missing);
+        for (int i = 0; i < missing; ++i) {
+            objects.add(pool.obtain());
+        }
+        pool.freeAll(objects);
+    }
+
+    public String getName() {
+        return klass.getSimpleName();
+    }
+
+    /**
+     * @return highest number of objects obtained and not freed since the last clear
+     */
+    public int getPeakAlive() {
+        return peakAlive;
+    }
+
     public abstract void reset(T pooledObject);
 
     public String getPoolStats() {
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 30/10/18 20:22
+ * Last modified 18/10/26 05:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -36,6 +36,25 @@ public class GamePools {
         return sb.toString();
     }
 
+    /**
+     * records the peaks of every pool, to be called before clearPools
+     */
+    public static void recordPeaks(PoolPeaks peaks) {
+        for (GamePool<?> pool : all()) {
+            peaks.record(pool.getName(), pool.getPeakAlive());
+        }
+    }
+
+    public static void prewarm(PoolPeaks peaks) {
+        for (GamePool<?> pool : all()) {
+            pool.prewarm(peaks.get(pool.getName()));
+        }
+    }
+
+    private static GamePool<?>[] all() {
+        return new GamePool<?>[]{poolCircle, poolRectangle, poolVector2, poolSprite, poolVector3, poolColor};
+    }
+
     public static void clearPools() {
         poolSprite.clear();
         poolCircle.clear();
@@ -0,0 +1,167 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 15:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.pools;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Highest numbers of objects alive at the same time during a level: entities, components by type and game pools by name.
+ * The peaks of the last GAMES games are kept in the preferences, so that the pools can be filled before the level starts:
+ * a peak reached once is forgotten after GAMES games below it.
+ */
+public class PoolPeaks {
+    public static final String ENTITIES = "entities";
+    // games whose peaks are kept
+    static final int GAMES = 5;
+    // logic steps between two counts of the components alive
+    static final int SAMPLE_STEPS = 15;
+    private static final String PREFERENCES = "space-killer-pools";
+    private static final String SPLIT_STR = ";";
+    private static final String SPLIT_VALUE = "=";
+    private static final String SPLIT_GAMES = ",";
+
+    private final String name;
+    // peaks of the current game, of the previous ones (the last first) and the highest of both
+    private final ObjectIntMap<String> peaks = new ObjectIntMap<>();
+    private final ObjectMap<String, IntArray> previousGames = new ObjectMap<>();
+    private final ObjectIntMap<String> highest = new ObjectIntMap<>();
+    private final ObjectIntMap<Class<? extends Component>> counts = new ObjectIntMap<>();
+    private int stepsSinceSample = 0;
+
+    public PoolPeaks(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name key of the peaks in the preferences (the level)
+     * @return the peaks saved for this name, none the first time
+     */
+    public static PoolPeaks load(String name) {
+        PoolPeaks poolPeaks = new PoolPeaks(name);
+        poolPeaks.parse(preferences().getString(name, ""));
+        return poolPeaks;
+    }
+
+    public void save() {
+        Preferences preferences = preferences();
+        preferences.putString(name, toString());
+        preferences.flush();
+    }
+
+    private static Preferences preferences() {
+        return Gdx.app.getPreferences(PREFERENCES);
+    }
+
+    /**
+     * records a count of the current game
+     */
+    public void record(String key, int alive) {
+        if (alive > peaks.get(key, 0)) {
+            peaks.put(key, alive);
+        }
+        if (alive > highest.get(key, 0)) {
+            highest.put(key, alive);
+        }
+    }
+
+    /**
+     * @return the highest peak of the current and previous games
+     */
+    public int get(String key) {
+        return highest.get(key, 0);
+    }
+
+    public ObjectIntMap.Keys<String> keys() {
+        return highest.keys();
+    }
+
+    /**
+     * to be called once per logic step: records the entities alive, and their components every SAMPLE_STEPS steps,
+     * so that the sampling follows the game time whatever the frame rate
+     */
+    public void recordStep(Engine engine) {
+        record(ENTITIES, engine.getEntities().size());
+        if (++stepsSinceSample >= SAMPLE_STEPS) {
+            stepsSinceSample = 0;
+            sample(engine);
+        }
+    }
+
+    /**
+     * records the entities of the engine and their components by type
+     */
+    public void sample(Engine engine) {
+        ImmutableArray<Entity> entities = engine.getEntities();
+        record(ENTITIES, entities.size());
+        for (int i = 0; i < entities.size(); ++i) {
+            ImmutableArray<Component> components = entities.get(i).getComponents();
+            for (int j = 0; j < components.size(); ++j) {
+                counts.getAndIncrement(components.get(j).getClass(), 0, 1);
+            }
+        }
+        for (ObjectIntMap.Entry<Class<? extends Component>> count : counts) {
+            record(count.key.getName(), count.value);
+        }
+        counts.clear();
+    }
+
+    /**
+     * reads the peaks of the previous games
+     */
+    void parse(String saved) {
+        for (String peak : saved.split(SPLIT_STR)) {
+            int split = peak.indexOf(SPLIT_VALUE);
+            if (split <= 0) {
+                continue;
+            }
+            String key = peak.substring(0, split);
+            IntArray games = new IntArray(GAMES);
+            try {
+                for (String game : peak.substring(split + 1).split(SPLIT_GAMES)) {
+                    games.add(Integer.parseInt(game));
+                }
+            } catch (NumberFormatException e) {
+                // ignored: the peak will be observed again
+                continue;
+            }
+            previousGames.put(key, games);
+            for (int i = 0; i < games.size; ++i) {
+                if (games.get(i) > highest.get(key, 0)) {
+                    highest.put(key, games.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the peaks of the last GAMES games, the current one first, as saved
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String key : highest.keys()) {
+            if (sb.length() > 0) {
+                sb.append(SPLIT_STR);
+            }
+            sb.append(key).append(SPLIT_VALUE).append(peaks.get(key, 0));
+            IntArray games = previousGames.get(key);
+            for (int i = 0; games != null && i < Math.min(games.size, GAMES - 1); ++i) {
+                sb.append(SPLIT_GAMES).append(games.get(i));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 30/10/18 22:43
+ * Last modified 18/10/26 06:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,8 +8,7 @@ package com.bendk97.pools;
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public class PoolSprite extends GamePool<Sprite> {
 
@@ -34,23 +33,15 @@ public class PoolSprite extends GamePool<Sprite> {
         return sprite;
     }
 
-    public Sprite getSprite(TextureAtlas.AtlasRegion atlasRegion) {
+    public Sprite getSprite(TextureRegion region) {
         Sprite sprite = obtain();
-        sprite.setRegion(atlasRegion);
-        int width = atlasRegion.getRegionWidth();
-        int height = atlasRegion.getRegionHeight();
+        sprite.setRegion(region);
+        int width = region.getRegionWidth();
+        int height = region.getRegionHeight();
         setSpriteChars(sprite, width, height, width / 2f, height / 2f);
         return sprite;
     }
 
-    public Array<Sprite> getSprites(Array<TextureAtlas.AtlasRegion> atlasRegions) {
-        Array<Sprite> sprites = new Array<>(true, atlasRegions.size, Sprite.class);
-        for(TextureAtlas.AtlasRegion region : atlasRegions){
-            sprites.add(getSprite(region));
-        }
-        return sprites;
-    }
-
     private static void setSpriteChars(Sprite sprite, int width, int height, float originX, float originY) {
         sprite.setSize(width, height);
         sprite.setOrigin(originX, originY);
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 08/10/18 08:06
+ * Last modified 18/10/26 16:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -21,7 +21,6 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -38,8 +37,12 @@ import com.bendk97.Settings;
 import com.bendk97.SpaceKillerGame;
 import com.bendk97.assets.GameAssets;
 import com.bendk97.components.*;
+import com.bendk97.components.helpers.Activity;
+import com.bendk97.components.helpers.BoundsEntityListener;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.components.helpers.Families;
 import com.bendk97.components.texts.TextComponent;
+import com.bendk97.entities.BufferedEngine;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.inputs.GameOverTouchInputProcessor;
 import com.bendk97.inputs.GestureHandler;
@@ -52,11 +55,16 @@ import com.bendk97.listeners.impl.InputListenerImpl;
 import com.bendk97.listeners.impl.PlayerListenerImpl;
 import com.bendk97.player.PlayerData;
 import com.bendk97.pools.GamePools;
+import com.bendk97.pools.PoolPeaks;
 import com.bendk97.screens.levels.scripting.LevelScript;
+import com.bendk97.screens.levels.utils.FixedTimestep;
 import com.bendk97.screens.levels.utils.ScreenShake;
 import com.bendk97.screens.menu.MenuScreen;
 import com.bendk97.systems.*;
+import com.bendk97.systems.collision.CollisionMasks;
 import com.bendk97.systems.collision.CollisionSystem;
+import com.bendk97.systems.profiling.SystemProfiler;
+import com.bendk97.systems.schedule.SystemSchedule;
 import com.bendk97.systems.screen.GameOverRenderingSystem;
 import com.bendk97.systems.screen.PauseRenderingSystem;
 import com.bendk97.timer.PausableTimer;
@@ -66,11 +74,13 @@ import com.bitfire.postprocessing.effects.MotionBlur;
 import com.bitfire.utils.ShaderLoader;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
+import static com.bendk97.assets.GameAssets.GFX_LEVEL_COMMON;
 import static com.bendk97.components.helpers.ComponentMapperHelper.*;
 import static com.bendk97.google.Achievement.*;
 import static com.bendk97.pools.GamePools.poolSprite;
 import static com.bendk97.screens.levels.Level.getLevelScript;
 import static com.bendk97.screens.levels.Level.nextLevelAfter;
+import static com.bendk97.screens.levels.utils.FixedTimestep.LOGIC_STEP;
 import static com.bendk97.tweens.SpriteComponentTweenAccessor.ALPHA;
 
 public abstract class LevelScreen extends ScreenAdapter {
@@ -86,7 +96,9 @@ public abstract class LevelScreen extends ScreenAdapter {
     private final OrthographicCamera cameraHUD;
     private SpriteBatch batcherHUD;
     protected final PooledEngine engine;
+    private final PoolPeaks poolPeaks;
     private final EntityFactory entityFactory;
+    private final CollisionMasks collisionMasks;
     private final TweenManager tweenManager;
     private final GameAssets assets;
     private final SpaceKillerGame game;
@@ -97,7 +109,13 @@ public abstract class LevelScreen extends ScreenAdapter {
     private PostProcessor postProcessor;
 
     private PlayerListenerImpl playerListener;
+    private DynamicEntitiesRenderingSystem dynamicEntitiesRenderingSystem;
     private State state = State.RUNNING;
+    // logic runs by fixed steps, the rendering systems once per frame
+    private final FixedTimestep timestep = new FixedTimestep();
+    private final WorldBlackboard blackboard = new WorldBlackboard();
+    private final SystemProfiler profiler;
+    private final SystemSchedule schedule;
 
 
     public enum State {
@@ -129,12 +147,22 @@ public abstract class LevelScreen extends ScreenAdapter {
         this.assets = assets;
         this.tweenManager = new TweenManager();
         ScreenShake screenShake = new ScreenShake(tweenManager, camera);
-        engine = new PooledEngine(POOL_INIT, POOL_MAX, POOL_INIT, POOL_MAX);
+        // pools sized and filled with the peaks of the previous games of this level
+        poolPeaks = PoolPeaks.load(level().name());
+        int poolMax = BufferedEngine.poolMaxSize(poolPeaks, POOL_MAX);
+        BufferedEngine bufferedEngine = new BufferedEngine(POOL_INIT, poolMax, POOL_INIT, poolMax);
+        bufferedEngine.prewarm(poolPeaks);
+        GamePools.prewarm(poolPeaks);
+        engine = bufferedEngine;
+        schedule = bufferedEngine.getSchedule();
+        profiler = PROFILE_SYSTEMS ? new SystemProfiler() : null;
+        schedule.setProfiler(profiler);
         engineListeners();
         if (fxLightEnabled) {
             initRayLightEffects(camera);
         }
         entityFactory = new EntityFactory(game, engine, assets, tweenManager, rayHandler, screenShake, level());
+        collisionMasks = createCollisionMasks();
         player = entityFactory.playerEntityFactory.createEntityPlayer(level());
         SnapshotArray<Entity> lives = entityFactory.playerEntityFactory.createEntityPlayerLives(player);
         SnapshotArray<Entity> bombs = entityFactory.playerEntityFactory.createEntityPlayerBombs(player);
@@ -148,6 +176,7 @@ public abstract class LevelScreen extends ScreenAdapter {
     protected abstract Level level();
 
     private void engineListeners() {
+        BoundsEntityListener.register(engine);
         engine.addEntityListener(new EntityListener() {
             static final String ENTITIES_ADDED = "entity added";
             static final String ENTITY_REMOVED = "entity removed";
@@ -170,23 +199,22 @@ public abstract class LevelScreen extends ScreenAdapter {
                     Gdx.app.log(ENTITY_REMOVED,
                             sb.append(ENTITIES).append(engine.getEntities().size()).toString());
                 }
-                AnimationComponent animationComponent = ComponentMapperHelper.animation.get(entity);
-                if (animationComponent != null) {
-                    for (Animation<Sprite> animation : animationComponent.animations.values()) {
-                        for (int i = 0; i < animation.getKeyFrames().length; ++i) {
-                            poolSprite.free(animation.getKeyFrames()[i]);
-                        }
-                    }
-                } else {
-                    SpriteComponent spriteComponent = sprite.get(entity);
-                    if (spriteComponent != null) {
-                        poolSprite.free(spriteComponent.sprite);
-                    }
+                // animated or not, an entity owns a single sprite (the animation frames are shared)
+                SpriteComponent spriteComponent = sprite.get(entity);
+                if (spriteComponent != null) {
+                    poolSprite.free(spriteComponent.sprite);
                 }
             }
         });
     }
 
+    private CollisionMasks createCollisionMasks() {
+        CollisionMasks masks = new CollisionMasks();
+        masks.addAtlas(assets.get(GFX_LEVEL_COMMON));
+        masks.addAtlas(assets.get(level().sprites));
+        return masks;
+    }
+
     private void initBatchers() {
         this.batcher = new SpriteBatch();
         this.batcherHUD = new SpriteBatch();
@@ -240,7 +268,7 @@ public abstract class LevelScreen extends ScreenAdapter {
         this.time = playerComponent.secondScript;
         this.resumeScripting();
         playerListener.updateLivesAndBombsAfterContinue(player);
-        ComponentMapperHelper.position.get(player).setXY(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
+        ComponentMapperHelper.position.get(player).teleport(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
         sprite.get(player).sprite.setPosition(PLAYER_ORIGIN_X, PLAYER_ORIGIN_Y);
         Gdx.input.setInputProcessor(inputProcessor);
         makeEntityInvulnerable(player);
@@ -292,44 +320,81 @@ public abstract class LevelScreen extends ScreenAdapter {
     protected void createSystems(Entity player, SnapshotArray<Entity> lives, SnapshotArray<Entity> bombs, SpriteBatch batcher,
                                  ScreenShake screenShake) {
         playerListener = new PlayerListenerImpl(assets, entityFactory, lives, bombs, screenShake, this);
-        engine.addSystem(playerListener);
-        engine.addSystem(createInputHandlerSystem(player, playerListener));
+        // the order of the schedule is built from the declarations of the systems: their priorities only order the conflicting ones
+        schedule.add(playerListener);
+        schedule.add(createInputHandlerSystem(player, playerListener));
         CollisionListenerImpl collisionListener = new CollisionListenerImpl(tweenManager, screenShake, assets, entityFactory, playerListener, this);
-        engine.addSystem(collisionListener);
-        engine.addSystem(new AnimationSystem(0));
-        engine.addSystem(new BombExplosionSystem(0, collisionListener, player, tweenManager));
-        engine.addSystem(new StateSystem(1));
-        engine.addSystem(new MovementPlayerSystem(2, camera));
-        engine.addSystem(new MovementSystem(2));
-        engine.addSystem(new ShieldSystem(3, player));
+        schedule.add(collisionListener);
+        schedule.add(new AnimationSystem(0));
+        schedule.add(new BombExplosionSystem(0, collisionListener, player, tweenManager));
+        schedule.add(new StateSystem(1));
+        schedule.add(new MovementPlayerSystem(2, camera));
+        schedule.add(new MovementSystem(2));
+        schedule.add(new ShieldSystem(3, player));
+        // logic: the rotation follows the last logic step
+        schedule.add(new DirectionableSpriteSystem(5));
         // RENDERING
-        engine.addSystem(new BatcherBeginSystem(viewport, batcher, 4));
-        engine.addSystem(new BackgroundRenderingSystem(batcher, 5));
-        engine.addSystem(new DirectionableSpriteSystem(5));
-        engine.addSystem(new DynamicEntitiesRenderingSystem(batcher, 6));
-        engine.addSystem(new ScoreSquadronSystem(6, assets, batcher));
-        engine.addSystem(new BatcherEndSystem(batcher, 7));
-        engine.addSystem(new BatcherHUDBeginSystem(viewportHUD, batcherHUD, 8));
-        engine.addSystem(new StaticEntitiesRenderingSystem(batcherHUD, 9));
-        engine.addSystem(new TextHUDRenderingSystem(batcherHUD, assets, 11));
-        engine.addSystem(new StatusHealthRenderingSystem(batcherHUD, assets, 10));
-        engine.addSystem(new GameOverRenderingSystem(batcherHUD, cameraHUD, assets, 12));
-        engine.addSystem(new PauseRenderingSystem(batcherHUD, cameraHUD, assets, 12));
-        engine.addSystem(new LevelFinishedRenderingSystem(batcherHUD, assets, level(), 10));
+        schedule.add(new BatcherBeginSystem(viewport, batcher, 4));
+        schedule.add(new BackgroundRenderingSystem(batcher, 5));
+        dynamicEntitiesRenderingSystem = new DynamicEntitiesRenderingSystem(batcher, 6);
+        schedule.add(dynamicEntitiesRenderingSystem);
+        schedule.add(new ScoreSquadronSystem(6, assets, batcher));
+        schedule.add(new BatcherEndSystem(batcher, 7));
+        schedule.add(new BatcherHUDBeginSystem(viewportHUD, batcherHUD, 8));
+        schedule.add(new StaticEntitiesRenderingSystem(batcherHUD, 9));
+        schedule.add(new StatusHealthRenderingSystem(batcherHUD, assets, 10));
+        schedule.add(new LevelFinishedRenderingSystem(batcherHUD, assets, level(), 10));
+        schedule.add(new TextHUDRenderingSystem(batcherHUD, assets, 11));
         if (DEBUG) {
-            engine.addSystem(new DebugStatsSystem(this, batcherHUD, 11));
+            schedule.add(new DebugStatsSystem(this, batcherHUD, 11));
         }
-        engine.addSystem(new BatcherHUDEndSystem(batcherHUD, 12));
+        schedule.add(new GameOverRenderingSystem(batcherHUD, cameraHUD, assets, 12));
+        schedule.add(new PauseRenderingSystem(batcherHUD, cameraHUD, assets, 12));
+        schedule.add(new BatcherHUDEndSystem(batcherHUD, 12));
         // END RENDERING
-        engine.addSystem(new CollisionSystem(collisionListener, viewport, batcher, 13));
-        engine.addSystem(new TankAttackSystem(13));
-        engine.addSystem(new EnemyAttackSystem(14, entityFactory));
-        engine.addSystem(new BossAttackSystem(14, entityFactory));
-        engine.addSystem(new SquadronSystem(level(), 15, entityFactory, player, playerListener));
-        engine.addSystem(new RemovableSystem(16, tweenManager));
+        schedule.add(new CollisionSystem(collisionListener, collisionMasks, 13));
+        schedule.add(new TankAttackSystem(13, blackboard));
+        schedule.add(new EnemyAttackSystem(14, entityFactory, blackboard));
+        schedule.add(new BossAttackSystem(14, entityFactory, blackboard));
+        schedule.add(new SquadronSystem(level(), 15, entityFactory, player, playerListener));
+        schedule.add(new RemovableSystem(16, tweenManager));
     }
 
 
+    private void logicStep() {
+        // every positioned entity is drawn between its positions at the start and at the end of the step
+        for (Entity entity : engine.getEntitiesFor(Families.positioned)) {
+            position.get(entity).startStep();
+            Activity.update(entity);
+        }
+        updateScriptLevel(LOGIC_STEP);
+        tweenManager.update(LOGIC_STEP);
+        // the tweens rotate and scale the sprites without their entity
+        for (Entity entity : engine.getEntitiesFor(Families.bounded)) {
+            BoundsComponent boundsComponent = bounds.get(entity);
+            if (boundsComponent != null) {
+                boundsComponent.refresh();
+            }
+        }
+        blackboard.update(engine);
+        schedule.update(LOGIC_STEP);
+        poolPeaks.recordStep(engine);
+    }
+
+    /**
+     * @return the state shared by the systems, updated before each logic step
+     */
+    public WorldBlackboard getBlackboard() {
+        return blackboard;
+    }
+
+    /**
+     * @return null unless PROFILE_SYSTEMS
+     */
+    public SystemProfiler getSystemProfiler() {
+        return profiler;
+    }
+
     private InputListenerImpl createInputHandlerSystem(Entity player, PlayerListener playerListener) {
         // input
         inputProcessor = new InputMultiplexer();
@@ -371,12 +436,19 @@ public abstract class LevelScreen extends ScreenAdapter {
     @Override
     public void render(float delta) {
         float deltaState = state.equals(State.PAUSED) ? 0f : delta;
-        updateScriptLevel(deltaState);
-        tweenManager.update(deltaState);
+        // same logic cost whatever the refresh rate, hitches are caught up by several steps
+        int steps = timestep.advance(deltaState);
+        // only the logic systems, then only the rendering ones
+        schedule.processRendering(false);
+        for (int step = 0; step < steps; ++step) {
+            logicStep();
+        }
+        schedule.processRendering(true);
+        dynamicEntitiesRenderingSystem.setInterpolation(timestep.alpha());
         Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         postProcessor.capture();
-        engine.update(deltaState);
+        schedule.update(deltaState);
         postProcessor.render();
         if (fxLightEnabled) {
             rayHandler.updateAndRender();
@@ -455,16 +527,24 @@ public abstract class LevelScreen extends ScreenAdapter {
     @Override
     public void dispose() {
         PausableTimer.instance().stop();
+        if (profiler != null) {
+            profiler.writeCsv(Gdx.files.local(PROFILE_SYSTEMS_FILE));
+        }
         batcher.dispose();
         batcherHUD.dispose();
         entityFactory.dispose();
+        collisionMasks.dispose();
         if (fxLightEnabled) {
             rayHandler.dispose();
             world.dispose();
         }
+        poolPeaks.sample(engine);
+        GamePools.recordPeaks(poolPeaks);
+        poolPeaks.save();
         engine.removeAllEntities();
         engine.clearPools();
         removeSystemsEngine();
+        SystemWorkers.dispose();
         GamePools.clearPools();
         postProcessor.dispose();
         tweenManager.killAll();
@@ -474,40 +554,7 @@ public abstract class LevelScreen extends ScreenAdapter {
     }
 
     private void removeSystemsEngine() {
-        engine.removeSystem(engine.getSystem(PlayerListenerImpl.class));
-        engine.removeSystem(engine.getSystem(InputListenerImpl.class));
-        engine.removeSystem(engine.getSystem(CollisionListenerImpl.class));
-        engine.removeSystem(engine.getSystem(AnimationSystem.class));
-        engine.removeSystem(engine.getSystem(BombExplosionSystem.class));
-        engine.removeSystem(engine.getSystem(StateSystem.class));
-        engine.removeSystem(engine.getSystem(MovementPlayerSystem.class));
-        engine.removeSystem(engine.getSystem(MovementSystem.class));
-        engine.removeSystem(engine.getSystem(ShieldSystem.class));
-        // RENDERING
-        engine.removeSystem(engine.getSystem(BatcherBeginSystem.class));
-        engine.removeSystem(engine.getSystem(BackgroundRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(DirectionableSpriteSystem.class));
-        engine.removeSystem(engine.getSystem(DynamicEntitiesRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(ScoreSquadronSystem.class));
-        engine.removeSystem(engine.getSystem(BatcherEndSystem.class));
-        engine.removeSystem(engine.getSystem(BatcherHUDBeginSystem.class));
-        engine.removeSystem(engine.getSystem(StaticEntitiesRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(TextHUDRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(StatusHealthRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(GameOverRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(PauseRenderingSystem.class));
-        engine.removeSystem(engine.getSystem(LevelFinishedRenderingSystem.class));
-        if (DEBUG) {
-            engine.removeSystem(engine.getSystem(DebugStatsSystem.class));
-        }
-        engine.removeSystem(engine.getSystem(BatcherHUDEndSystem.class));
-        // END RENDERING
-        engine.removeSystem(engine.getSystem(CollisionSystem.class));
-        engine.removeSystem(engine.getSystem(TankAttackSystem.class));
-        engine.removeSystem(engine.getSystem(EnemyAttackSystem.class));
-        engine.removeSystem(engine.getSystem(BossAttackSystem.class));
-        engine.removeSystem(engine.getSystem(SquadronSystem.class));
-        engine.removeSystem(engine.getSystem(RemovableSystem.class));
+        schedule.removeAll();
     }
 
     public void submitScore(int scoreInt) {
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 01/11/18 14:07
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -27,6 +27,7 @@ import com.bendk97.screens.levels.utils.ScriptItem;
 import com.bendk97.screens.levels.utils.ScriptItemBuilder;
 import com.bendk97.screens.levels.utils.ScriptItemExecutor;
 import com.bendk97.systems.FollowPlayerSystem;
+import com.bendk97.systems.schedule.SystemSchedule;
 import com.bendk97.tweens.ConeLightTweenAccessor;
 import com.bendk97.tweens.VelocityComponentTweenAccessor;
 
@@ -106,7 +107,7 @@ public class Level2Script extends LevelScript {
         backgrounds.add(entityFactory.stageSetEntityFactory.createBackground(assets.get(GFX_BGD_BIG_PLANET), 4, -250f));
         backgrounds.add(entityFactory.stageSetEntityFactory.createBackground(assets.get(GFX_BGD_FAR_PLANETS), 2, -275f));
         backgrounds.add(entityFactory.stageSetEntityFactory.createBackground(assets.get(GFX_BGD_RISING_PLANETS), 3, -325f));
-        engine.addSystem(new FollowPlayerSystem(2));
+        SystemSchedule.addSystem(engine, new FollowPlayerSystem(2, levelScreen.getBlackboard()));
     }
 
 
@@ -246,7 +247,7 @@ public class Level2Script extends LevelScript {
             bossIsComing();
             for (Entity background : new Array.ArrayIterator<>(backgrounds)) {
                 Tween.to(ComponentMapperHelper.velocity.get(background), VelocityComponentTweenAccessor.VELOCITY_Y, 4).ease(Quad.IN)
-                        .target(-ComponentMapperHelper.velocity.get(background).y / 10f).start(tweenManager);
+                        .target(-ComponentMapperHelper.velocity.get(background).y() / 10f).start(tweenManager);
             }
             return;
         }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 01/11/18 14:07
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -19,6 +19,7 @@ import com.bendk97.screens.levels.utils.ScriptItem;
 import com.bendk97.screens.levels.utils.ScriptItemBuilder;
 import com.bendk97.screens.levels.utils.ScriptItemExecutor;
 import com.bendk97.systems.FollowPlayerSystem;
+import com.bendk97.systems.schedule.SystemSchedule;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -56,7 +57,7 @@ public class Level3Script extends LevelScript {
     private void initLevel3(GameAssets assets, EntityFactory entityFactory, PooledEngine engine) {
         Array<Entity> backgrounds = new Array<>();
         backgrounds.add(entityFactory.stageSetEntityFactory.createBackground(assets.get(GFX_BGD_LEVEL3), 0, -BGD_VELOCITY_LEVEL3));
-        engine.addSystem(new FollowPlayerSystem(2));
+        SystemSchedule.addSystem(engine, new FollowPlayerSystem(2, levelScreen.getBlackboard()));
     }
 
 
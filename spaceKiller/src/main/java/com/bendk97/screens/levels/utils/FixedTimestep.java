@@ -0,0 +1,43 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 02:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.screens.levels.utils;
+
+/**
+ * Turns the frame deltas into a whole number of fixed logic steps: the remaining time is kept for the next frames
+ * and gives the interpolation factor of the render pass between the last two steps.
+ */
+public class FixedTimestep {
+
+    public static final float LOGIC_STEP = 1f / 60f;
+    // catch-up steps allowed in one frame, the remaining late time is dropped (slow motion rather than a spiral of death)
+    public static final int MAX_STEPS_PER_FRAME = 5;
+
+    private float accumulator = 0f;
+
+    /**
+     * @return the number of logic steps to run for this frame
+     */
+    public int advance(float delta) {
+        accumulator += delta;
+        int steps = 0;
+        while (accumulator >= LOGIC_STEP && steps < MAX_STEPS_PER_FRAME) {
+            accumulator -= LOGIC_STEP;
+            ++steps;
+        }
+        if (accumulator >= LOGIC_STEP) {
+            accumulator = 0f;
+        }
+        return steps;
+    }
+
+    /**
+     * @return part of the next step already elapsed, in [0, 1[
+     */
+    public float alpha() {
+        return accumulator / LOGIC_STEP;
+    }
+}
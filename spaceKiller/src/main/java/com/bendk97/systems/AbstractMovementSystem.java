@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 21/10/18 12:03
+ * Last modified 18/10/26 01:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -10,6 +10,7 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.LightComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.VelocityComponent;
@@ -25,13 +26,26 @@ public abstract class AbstractMovementSystem extends IteratingSystem {
     protected void processEntity(Entity entity, float deltaTime) {
         PositionComponent position = ComponentMapperHelper.position.get(entity);
         VelocityComponent velocity = ComponentMapperHelper.velocity.get(entity);
-        position.setX(position.x() + velocity.x * deltaTime);
-        position.setY(position.y() + velocity.y * deltaTime);
+        position.setXY(position.x() + velocity.x() * deltaTime, position.y() + velocity.y() * deltaTime);
+        moveLight(entity);
+    }
+
+    /**
+     * keeps the light of the entity, if any, at the center of its sprite
+     */
+    static void moveLight(Entity entity) {
         LightComponent light = ComponentMapperHelper.light.get(entity);
-        if (light != null) {
+        if (light == null) {
+            return;
+        }
+        BoundsComponent bounds = ComponentMapperHelper.bounds.get(entity);
+        if (bounds != null) {
+            light.light.setPosition(bounds.centerX, bounds.centerY);
+        } else {
+            PositionComponent position = ComponentMapperHelper.position.get(entity);
             Sprite sprite = ComponentMapperHelper.sprite.get(entity).sprite;
             light.light.setPosition(position.x() + sprite.getWidth() / 2f,
                     position.y() + sprite.getHeight() / 2f);
         }
     }
-}
\ No newline at end of file
+}
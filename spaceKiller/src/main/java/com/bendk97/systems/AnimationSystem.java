@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 08:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,18 +8,24 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.bendk97.components.AnimationComponent;
+import com.bendk97.components.AnimationDefinition;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.StateComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class AnimationSystem extends IteratingSystem {
+public class AnimationSystem extends ParallelIteratingSystem implements ScheduledSystem {
 
     public AnimationSystem(int priority) {
         super(Family.all(SpriteComponent.class, AnimationComponent.class, StateComponent.class).get(), priority);
+        // the frame shown far from the screen does not matter
+        setActiveOnly(true);
     }
 
     @Override
@@ -28,14 +34,40 @@ public class AnimationSystem extends IteratingSystem {
         AnimationComponent anim = ComponentMapperHelper.animation.get(entity);
         StateComponent state = ComponentMapperHelper.state.get(entity);
 
-        Animation<Sprite> animation = anim.animations.get(state.get());
+        AnimationDefinition animation = anim.animations.get(state.get());
 
         if (animation != null) {
-            if (animation.getPlayMode().equals(Animation.PlayMode.NORMAL) && animation.isAnimationFinished(state.time)) {
-                getEngine().removeEntity(entity);
+            if (animation.isFinished(state.time)) {
+                removeLater(entity);
             } else {
-                sprite.sprite = animation.getKeyFrame(state.time);
+                int frame = animation.frameIndex(state.time);
+                if (animation != anim.shown || frame != anim.shownFrame) {
+                    anim.shown = animation;
+                    anim.shownFrame = frame;
+                    showFrame(sprite.sprite, animation.frame(frame));
+                    refreshBounds(entity);
+                }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * the sprite keeps its position, rotation, scale and color
+     */
+    static void showFrame(Sprite sprite, TextureRegion frame) {
+        sprite.setRegion(frame);
+        int width = frame.getRegionWidth(), height = frame.getRegionHeight();
+        if (sprite.getWidth() != width || sprite.getHeight() != height) {
+            sprite.setSize(width, height);
+            sprite.setOrigin(width / 2f, height / 2f);
+        }
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(StateComponent.class)
+                .writes(AnimationComponent.class, SpriteComponent.class, BoundsComponent.class)
+                .concurrent();
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -13,10 +13,13 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.bendk97.components.BackgroundComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
 
-public class BackgroundRenderingSystem extends SortedIteratingSystem {
+public class BackgroundRenderingSystem extends SortedIteratingSystem implements ScheduledSystem {
 
     private final SpriteBatch batcher;
 
@@ -35,4 +38,11 @@ public class BackgroundRenderingSystem extends SortedIteratingSystem {
                 (int) positionComponent.x(), ((int) positionComponent.y()) % (backgroundComponent.texture.getHeight()),
                 (int) (WORLD_WIDTH), (int) (SCREEN_HEIGHT * 1.05f));
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.RENDER)
+                .reads(BackgroundComponent.class, PositionComponent.class)
+                .writes(batcher);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,8 +9,11 @@ package com.bendk97.systems;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class BatcherBeginSystem extends EntitySystem {
+public class BatcherBeginSystem extends EntitySystem implements ScheduledSystem {
 
     private final SpriteBatch batcher;
     private final Viewport viewport;
@@ -28,4 +31,9 @@ public class BatcherBeginSystem extends EntitySystem {
         batcher.setProjectionMatrix(viewport.getCamera().combined);
 
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.RENDER).writes(batcher);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,8 +8,11 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class BatcherEndSystem extends EntitySystem {
+public class BatcherEndSystem extends EntitySystem implements ScheduledSystem {
 
     private final SpriteBatch batcher;
     public BatcherEndSystem(SpriteBatch batcher, int priority) {
@@ -22,4 +25,9 @@ public class BatcherEndSystem extends EntitySystem {
         batcher.end();
 
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.RENDER).writes(batcher);
+    }
 }
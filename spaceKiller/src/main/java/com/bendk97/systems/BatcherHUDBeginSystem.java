@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,6 +8,8 @@ package com.bendk97.systems;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 public class BatcherHUDBeginSystem extends BatcherBeginSystem {
 
@@ -15,4 +17,9 @@ public class BatcherHUDBeginSystem extends BatcherBeginSystem {
         super(viewport, batcher, priority);
     }
 
+    @Override
+    public void declare(SystemAccess access) {
+        super.declare(access);
+        access.phase(SystemPhase.HUD);
+    }
 }
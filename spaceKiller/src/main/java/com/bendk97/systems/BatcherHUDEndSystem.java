@@ -1,12 +1,14 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.systems;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 public class BatcherHUDEndSystem extends BatcherEndSystem {
 
@@ -14,4 +16,10 @@ public class BatcherHUDEndSystem extends BatcherEndSystem {
     public BatcherHUDEndSystem(SpriteBatch batcher, int priority) {
         super(batcher, priority);
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        super.declare(access);
+        access.phase(SystemPhase.HUD);
+    }
 }
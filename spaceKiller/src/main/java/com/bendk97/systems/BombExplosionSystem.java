@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 09:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -10,17 +10,26 @@ import aurelienribon.tweenengine.TweenManager;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.Array;
 import com.bendk97.components.BombExplosionComponent;
+import com.bendk97.components.BoundsComponent;
+import com.bendk97.components.PositionComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.components.helpers.Families;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.listeners.CollisionListener;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 
-public class BombExplosionSystem extends IteratingSystem {
+public class BombExplosionSystem extends IteratingSystem implements ScheduledSystem {
 
     private final CollisionListener collisionListener;
     private final Entity player;
     private final TweenManager tweenManager;
+    private final Array<Entity> targets = new Array<>(false, 32, Entity.class);
 
     public BombExplosionSystem(int priority, CollisionListener collisionListener, Entity player, TweenManager tweenManager) {
         super(Family.all(BombExplosionComponent.class).get(), priority);
@@ -32,14 +41,52 @@ public class BombExplosionSystem extends IteratingSystem {
 
     @Override
     protected void processEntity(final Entity entity, float deltaTime) {
-        for(Entity bullet : getEngine().getEntitiesFor(Families.enemyBullet)){
-            getEngine().removeEntity(bullet);
+        float radius = ComponentMapperHelper.bombExplosion.get(entity).radius;
+        PositionComponent position = ComponentMapperHelper.position.get(entity);
+        Sprite sprite = ComponentMapperHelper.sprite.get(entity).sprite;
+        float centerX = position.x() + sprite.getWidth() / 2f, centerY = position.y() + sprite.getHeight() / 2f;
+        // every bullet and enemy of the families, dormant or not collidable yet
+        for (Entity bullet : reached(centerX, centerY, radius, Families.enemyBullet)) {
+            EntityCommandBuffer.removeEntity(getEngine(), bullet);
             tweenManager.killTarget(ComponentMapperHelper.sprite.get(bullet));
-
         }
-        for (Entity enemy : getEngine().getEntitiesFor(Families.enemies)) {
+        for (Entity enemy : reached(centerX, centerY, radius, Families.enemies)) {
             collisionListener.enemyShootByExplosion(enemy, player);
         }
-        getEngine().removeEntity(entity);
+        targets.clear();
+        EntityCommandBuffer.removeEntity(getEngine(), entity);
+    }
+
+    /**
+     * entities of the family whose bounding circle, at their logic position, is in the circle
+     */
+    private Array<Entity> reached(float centerX, float centerY, float radius, Family family) {
+        targets.clear();
+        for (Entity target : getEngine().getEntitiesFor(family)) {
+            BoundsComponent bounds = ComponentMapperHelper.bounds.get(target);
+            float x, y, reach = radius;
+            if (bounds != null) {
+                x = bounds.centerX;
+                y = bounds.centerY;
+                reach += bounds.radius;
+            } else {
+                PositionComponent position = ComponentMapperHelper.position.get(target);
+                if (position == null) {
+                    continue;
+                }
+                x = position.x();
+                y = position.y();
+            }
+            float dx = x - centerX, dy = y - centerY;
+            if (dx * dx + dy * dy <= reach * reach) {
+                targets.add(target);
+            }
+        }
+        return targets;
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC).exclusive();
     }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,32 +9,33 @@ package com.bendk97.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.math.RandomXS128;
 import com.bendk97.components.BossComponent;
-import com.bendk97.components.PauseComponent;
-import com.bendk97.components.PlayerComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.entities.EntityFactory;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import java.util.Random;
 
-public class BossAttackSystem extends IteratingSystem {
+public class BossAttackSystem extends IteratingSystem implements ScheduledSystem {
 
     private final EntityFactory entityFactory;
-    private final Family player = Family.one(PlayerComponent.class).exclude(PauseComponent.class).get();
+    private final WorldBlackboard blackboard;
     private final Random random = new RandomXS128();
 
-    public BossAttackSystem(int priority, EntityFactory entityFactory) {
+    public BossAttackSystem(int priority, EntityFactory entityFactory, WorldBlackboard blackboard) {
         super(Family.all(BossComponent.class).get(), priority);
         this.entityFactory = entityFactory;
+        this.blackboard = blackboard;
     }
 
 
     @Override
     protected void processEntity(final Entity entity, float deltaTime) {
-        ImmutableArray<Entity> playerEntity = getEngine().getEntitiesFor(player);
-        if (playerEntity.size() == 0) {
+        Entity player = blackboard.target();
+        if (player == null) {
             return;
         }
         final BossComponent boss = ComponentMapperHelper.boss.get(entity);
@@ -42,7 +43,7 @@ public class BossAttackSystem extends IteratingSystem {
             if (ComponentMapperHelper.enemy.get(entity).isDead()) {
                 return;
             }
-            entityFactory.enemyActionEntityFactory.createBossFire(entity, playerEntity.first());
+            entityFactory.enemyActionEntityFactory.createBossFire(entity, player);
             boss.pleaseFire1 = false;
             com.bendk97.timer.PausableTimer.schedule(new com.bendk97.timer.PausableTimer.Task() {
                 @Override
@@ -69,4 +70,9 @@ public class BossAttackSystem extends IteratingSystem {
             }, boss.minTriggerFire2 + random.nextFloat() * 2f);
         }
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC).exclusive();
+    }
 }
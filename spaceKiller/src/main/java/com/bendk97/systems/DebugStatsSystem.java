@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -12,14 +12,22 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.StringBuilder;
 import com.bendk97.pools.BitmapFontHelper;
 import com.bendk97.screens.levels.LevelScreen;
+import com.bendk97.systems.collision.CollisionStats;
+import com.bendk97.systems.collision.CollisionSystem;
+import com.bendk97.systems.profiling.SystemProfiler;
+import com.bendk97.systems.profiling.SystemSamples;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
 import static com.bendk97.pools.GamePools.getPoolStats;
 
-public class DebugStatsSystem extends EntitySystem {
+public class DebugStatsSystem extends EntitySystem implements ScheduledSystem {
 
     private static final int FREQUENCY_POOL_STATS_MS = 5000;
     private static final int FREQUENCY_MEM_STATS_MS = 5000;
@@ -35,10 +43,29 @@ public class DebugStatsSystem extends EntitySystem {
     private static final int BYTES_TO_MB = 1024 * 1024;
     private static final String MB = "MB";
     private static final String EMPTY = "??";
+    private static final String COLLISIONS = "Collisions: ";
+    private static final String ENTITIES = " entities ";
+    private static final String PAIRS = " pairs ";
+    private static final String SHAPES = " shapes ";
+    private static final String PIXELS = " pixels ";
+    private static final String CACHED = " cached ";
+    private static final String HITS = " hits";
+    private static final String COLLISION_TIME = "Collision time: ";
+    private static final String SLASH = "/";
+    private static final String MICROSECONDS = " us";
+    private static final int NANOS_TO_MICROS = 1000;
+    private static final int TOP_SYSTEMS = 3;
+    private static final String TOP = "Top: ";
+    private static final String SPACE = " ";
+    private static final String SEPARATOR = ", ";
+    private static final String BYTES = " B";
+    private static final String SLICES = "Slices: ";
+    private static final String MICROSECONDS_LEFT = " us left";
     private final SpriteBatch batcher;
     private final BitmapFontCache bitmapFont;
     private final LevelScreen screen;
     private final StringBuilder sb = new StringBuilder();
+    private final Array<SystemSamples> topSystems = new Array<>(false, TOP_SYSTEMS, SystemSamples.class);
 
     private int minFps = 999;
     private int maxFps = 0;
@@ -79,9 +106,62 @@ public class DebugStatsSystem extends EntitySystem {
         sb.append(MAX).append(maxFps).append(FPS).append(NEWLINE);
         sb.append(JAVA_HEAP).append(javaHeap / BYTES_TO_MB).append(MB).append(NEWLINE);
         sb.append(NATIVE_HEAP).append(nativeHeap /BYTES_TO_MB).append(MB).append(NEWLINE);
+        appendCollisionStats();
+        appendTopSystems();
+        appendTimeSlices();
         drawText(165f, SCREEN_HEIGHT - 70f);
     }
 
+    private void appendCollisionStats() {
+        CollisionSystem collisionSystem = getEngine().getSystem(CollisionSystem.class);
+        if (collisionSystem == null) {
+            return;
+        }
+        CollisionStats stats = collisionSystem.getStats();
+        sb.append(COLLISIONS).append(stats.entities).append(ENTITIES).append(stats.pairs).append(PAIRS)
+                .append(stats.shapeTests).append(SHAPES).append(stats.pixelTests).append(PIXELS).append(stats.pixelCacheHits).append(CACHED)
+                .append(stats.hits).append(HITS).append(NEWLINE);
+        sb.append(COLLISION_TIME).append(stats.snapshotNanos / NANOS_TO_MICROS).append(SLASH)
+                .append(stats.broadPhaseNanos / NANOS_TO_MICROS).append(SLASH)
+                .append(stats.narrowPhaseNanos / NANOS_TO_MICROS).append(SLASH)
+                .append(stats.dispatchNanos / NANOS_TO_MICROS).append(MICROSECONDS).append(NEWLINE);
+    }
+
+    private void appendTopSystems() {
+        SystemProfiler profiler = screen.getSystemProfiler();
+        if (profiler == null) {
+            return;
+        }
+        sb.append(TOP);
+        for (int i = 0; i < profiler.top(TOP_SYSTEMS, topSystems).size; ++i) {
+            SystemSamples samples = topSystems.get(i);
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(samples.name).append(SPACE).append(samples.averageNanos() / NANOS_TO_MICROS).append(MICROSECONDS);
+            if (profiler.isCountingAllocations()) {
+                sb.append(SPACE).append(samples.averageBytes()).append(BYTES);
+            }
+        }
+        sb.append(NEWLINE);
+    }
+
+    private void appendTimeSlices() {
+        boolean first = true;
+        for (EntitySystem system : getEngine().getSystems()) {
+            if (system instanceof TimeSlicedIteratingSystem) {
+                TimeSlicedIteratingSystem sliced = (TimeSlicedIteratingSystem) system;
+                sb.append(first ? SLICES : SEPARATOR).append(sliced.getClass().getSimpleName()).append(SPACE)
+                        .append(sliced.getCursor()).append(SLASH).append(sliced.getEntities().size()).append(SPACE)
+                        .append(sliced.getRemainingMicros()).append(MICROSECONDS_LEFT);
+                first = false;
+            }
+        }
+        if (!first) {
+            sb.append(NEWLINE);
+        }
+    }
+
     private void updateMemoryStats(float deltaTime) {
         memoryStatsTimeCounter += deltaTime * 1000f;
         if (memoryStatsTimeCounter >= FREQUENCY_MEM_STATS_MS) {
@@ -108,4 +188,9 @@ public class DebugStatsSystem extends EntitySystem {
         super.removedFromEngine(engine);
         bitmapFont.getFont().dispose();
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD).writes(batcher);
+    }
 }
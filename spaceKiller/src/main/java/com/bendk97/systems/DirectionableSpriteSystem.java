@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 02/11/18 09:32
+ * Last modified 18/10/26 08:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,30 +8,39 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.MathUtils;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.DirectionableComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-import static com.bendk97.pools.GamePools.poolVector2;
-
-public class DirectionableSpriteSystem extends IteratingSystem {
+public class DirectionableSpriteSystem extends ParallelIteratingSystem implements ScheduledSystem {
 
     public DirectionableSpriteSystem(int priority) {
         super(Family.all(DirectionableComponent.class).get(),priority);
+        setActiveOnly(true);
     }
 
     @Override
     protected void processEntity(Entity entity, float deltaTime) {
         PositionComponent positionComponent = ComponentMapperHelper.position.get(entity);
         SpriteComponent spriteComponent = ComponentMapperHelper.sprite.get(entity);
-        Vector2 origin = poolVector2.getVector2(0, -1);
-        Vector2 direction =  poolVector2.getVector2(positionComponent.x()-positionComponent.previousX(),
-                positionComponent.y()-positionComponent.previousY());
-        spriteComponent.sprite.setRotation(-direction.angle(origin));
-        poolVector2.free(origin);
-        poolVector2.free(direction);
+        // angle of the last move from the bottom direction (0, -1), without the pools which are not thread safe
+        float directionX = positionComponent.x() - positionComponent.previousX();
+        float directionY = positionComponent.y() - positionComponent.previousY();
+        spriteComponent.sprite.setRotation(-(float) Math.atan2(-directionX, -directionY) * MathUtils.radiansToDegrees);
+        refreshBounds(entity);
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(DirectionableComponent.class, PositionComponent.class)
+                .writes(SpriteComponent.class, BoundsComponent.class)
+                .concurrent();
     }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -11,16 +11,22 @@ import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.SortedIteratingSystem;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.GameOverComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.shaders.Shaders.HIGHLIGHT;
 
-public class DynamicEntitiesRenderingSystem extends SortedIteratingSystem {
+public class DynamicEntitiesRenderingSystem extends SortedIteratingSystem implements ScheduledSystem {
     private final SpriteBatch batcher;
+    // part of the next logic step already elapsed, the sprites are drawn between their last two logic positions
+    private float interpolation = 1f;
 
     public DynamicEntitiesRenderingSystem(SpriteBatch batcher, int priority) {
         super(Family.all(SpriteComponent.class, PositionComponent.class).exclude(GameOverComponent.class).get(),
@@ -34,8 +40,13 @@ public class DynamicEntitiesRenderingSystem extends SortedIteratingSystem {
         PositionComponent position = ComponentMapperHelper.position.get(entity);
         SpriteComponent spriteComponent = ComponentMapperHelper.sprite.get(entity);
         Sprite sprite = spriteComponent.sprite;
-        sprite.setPosition(position.x(), position.y());
-        if ((sprite.getX() + sprite.getWidth() < -OFFSET_WIDTH)
+        sprite.setPosition(position.interpolatedX(interpolation), position.interpolatedY(interpolation));
+        BoundsComponent bounds = ComponentMapperHelper.bounds.get(entity);
+        if (bounds != null) {
+            if (bounds.isOffScreen()) {
+                return;
+            }
+        } else if ((sprite.getX() + sprite.getWidth() < -OFFSET_WIDTH)
                 || sprite.getX() > SCREEN_WIDTH + OFFSET_WIDTH
                 || sprite.getY() > SCREEN_HEIGHT
                 || sprite.getY() + sprite.getHeight() < 0) {
@@ -46,6 +57,10 @@ public class DynamicEntitiesRenderingSystem extends SortedIteratingSystem {
         postBatching(spriteComponent);
     }
 
+    public void setInterpolation(float interpolation) {
+        this.interpolation = interpolation;
+    }
+
     private void preBatching(SpriteComponent spriteComponent) {
         if (spriteComponent.flashing && HIGHLIGHT.isCompiled()) {
             batcher.setShader(HIGHLIGHT);
@@ -58,4 +73,11 @@ public class DynamicEntitiesRenderingSystem extends SortedIteratingSystem {
             spriteComponent.flashing = false;
         }
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.RENDER)
+                .reads(SpriteComponent.class, PositionComponent.class)
+                .writes(batcher);
+    }
 }
@@ -1,50 +1,134 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.systems;
 
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.ashley.core.*;
 import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.entities.EntityFactory;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import java.util.Random;
 
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_WIDTH;
+import static com.bendk97.screens.levels.utils.FixedTimestep.LOGIC_STEP;
 
-public class EnemyAttackSystem extends IteratingSystem {
+/**
+ * Enemies fire at random times: the next fire time of each enemy is drawn from an exponential distribution
+ * and the enemies wait in a min-heap on that time, so that only the due ones are visited.
+ * The rate gives the former odds of 1 in probabilityAttack per logic step, whatever the frame rate.
+ * A due enemy that cannot fire (hidden, no more attack capacity, no target) draws its next time again:
+ * the distribution has no memory, the odds are the same as testing it on every step.
+ */
+public class EnemyAttackSystem extends EntitySystem implements EntityListener, ScheduledSystem {
 
+    private final Family family = Family.all(EnemyComponent.class).exclude(BossComponent.class).get();
     private final EntityFactory entityFactory;
+    private final WorldBlackboard blackboard;
     private final Random random = new RandomXS128();
-    private final Family player = Family.one(PlayerComponent.class).exclude(PauseComponent.class).get();
+    private final BinaryHeap<FireTime> fireTimes = new BinaryHeap<>();
+    private final ObjectMap<Entity, FireTime> scheduled = new ObjectMap<>();
+    private final Array<FireTime> freeFireTimes = new Array<>(false, 16, FireTime.class);
+    private final Array<FireTime> due = new Array<>(false, 16, FireTime.class);
+    private float time = 0f;
 
-    public EnemyAttackSystem(int priority, EntityFactory entityFactory) {
-        super(Family.all(EnemyComponent.class).exclude(BossComponent.class).get(), priority);
+    public EnemyAttackSystem(int priority, EntityFactory entityFactory, WorldBlackboard blackboard) {
+        super(priority);
         this.entityFactory = entityFactory;
+        this.blackboard = blackboard;
     }
 
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(family, this);
+        for (Entity entity : engine.getEntitiesFor(family)) {
+            entityAdded(entity);
+        }
+    }
 
     @Override
-    protected void processEntity(Entity entity, float deltaTime) {
-        ImmutableArray<Entity> playerEntity = getEngine().getEntitiesFor(player);
-        if (playerEntity.size() == 0) {
-            return;
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        for (FireTime fireTime : scheduled.values()) {
+            free(fireTime);
         }
-        EnemyComponent enemy = ComponentMapperHelper.enemy.get(entity);
-        if (enemy.canAttack() && isVisible(entity) && random.nextInt() % enemy.probabilityAttack == 0) {
-            entityFactory.enemyActionEntityFactory.createEnemyFire(entity, playerEntity.first());
-            enemy.attackCapacity--;
+        scheduled.clear();
+        fireTimes.clear();
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        time += deltaTime;
+        Entity player = blackboard.target();
+        while (fireTimes.notEmpty() && fireTimes.peek().getValue() <= time) {
+            FireTime fireTime = fireTimes.pop();
+            Entity entity = fireTime.entity;
+            EnemyComponent enemy = ComponentMapperHelper.enemy.get(entity);
+            if (player != null && enemy.canAttack() && isVisible(entity)) {
+                entityFactory.enemyActionEntityFactory.createEnemyFire(entity, player);
+                enemy.attackCapacity--;
+            }
+            due.add(fireTime);
+        }
+        // rescheduled after the loop: an enemy fires once per update at most, as with a test per step
+        for (FireTime fireTime : due) {
+            schedule(fireTime);
+        }
+        due.clear();
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        FireTime fireTime = freeFireTimes.size > 0 ? freeFireTimes.pop() : new FireTime();
+        fireTime.entity = entity;
+        scheduled.put(entity, fireTime);
+        schedule(fireTime);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        FireTime fireTime = scheduled.remove(entity);
+        if (fireTime != null) {
+            if (!due.contains(fireTime, true)) {
+                fireTimes.remove(fireTime);
+            }
+            due.removeValue(fireTime, true);
+            free(fireTime);
         }
     }
 
+    private void schedule(FireTime fireTime) {
+        fireTimes.add(fireTime, time + nextFireDelay(ComponentMapperHelper.enemy.get(fireTime.entity).probabilityAttack));
+    }
+
+    /**
+     * @return seconds before the next fire, exponentially distributed with a rate such that the odds to fire
+     * during one logic step are 1 in probabilityAttack
+     */
+    float nextFireDelay(int probabilityAttack) {
+        if (probabilityAttack <= 1) {
+            return 0f;
+        }
+        double ratePerStep = -Math.log1p(-1.0 / probabilityAttack);
+        return (float) (-Math.log1p(-random.nextDouble()) / ratePerStep * LOGIC_STEP);
+    }
+
+    private void free(FireTime fireTime) {
+        fireTime.entity = null;
+        freeFireTimes.add(fireTime);
+    }
+
     private boolean isVisible(Entity entity) {
         PositionComponent position = ComponentMapperHelper.position.get(entity);
         EnemyComponent enemy = ComponentMapperHelper.enemy.get(entity);
@@ -54,4 +138,24 @@ public class EnemyAttackSystem extends IteratingSystem {
                 && position.y() <= SCREEN_HEIGHT - sprite.sprite.getHeight()
                 && (position.y() >= 150f || (position.y() >= 0 && enemy.isTank)));
     }
+
+    /**
+     * @return enemies waiting for their next fire time
+     */
+    public int getScheduledCount() {
+        return scheduled.size;
+    }
+
+    private static class FireTime extends BinaryHeap.Node {
+        Entity entity;
+
+        FireTime() {
+            super(0f);
+        }
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC).exclusive();
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 08:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,19 +8,22 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.MathUtils;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-import static com.bendk97.pools.GamePools.poolVector2;
+public class FollowPlayerSystem extends ParallelIteratingSystem implements ScheduledSystem {
 
-public class FollowPlayerSystem extends IteratingSystem {
+    private final WorldBlackboard blackboard;
 
-    private final Family player = Family.one(PlayerComponent.class).get();
-
-    public FollowPlayerSystem(int priority) {
+    public FollowPlayerSystem(int priority, WorldBlackboard blackboard) {
         super(Family.all(FollowPlayerComponent.class).get(), priority);
+        this.blackboard = blackboard;
+        // the enemies start following the player when they come near the screen
+        setActiveOnly(true);
     }
 
     @Override
@@ -32,14 +35,13 @@ public class FollowPlayerSystem extends IteratingSystem {
             followPlayerComponent.lastMove += deltaTime;
             if (followPlayerComponent.lastMove > 0.5) {
                 followPlayerComponent.lastMove = 0;
-                PositionComponent playerPosition = ComponentMapperHelper.position.get(getEngine().getEntitiesFor(player).first());
                 PositionComponent entityPosition = ComponentMapperHelper.position.get(entity);
                 VelocityComponent velocityComponent = ComponentMapperHelper.velocity.get(entity);
-                float diff = entityPosition.x() - playerPosition.x();
+                float diff = entityPosition.x() - blackboard.playerX;
                 if (Math.abs(diff) < 1) {
-                    velocityComponent.x = 0;
+                    velocityComponent.setX(0);
                 } else {
-                    velocityComponent.x = -Math.signum(diff) * ComponentMapperHelper.follow.get(entity).velocity;
+                    velocityComponent.setX(-Math.signum(diff) * ComponentMapperHelper.follow.get(entity).velocity);
                 }
             }
         }
@@ -48,12 +50,18 @@ public class FollowPlayerSystem extends IteratingSystem {
     private void followByRotation(Entity entity) {
         SpriteComponent spriteComponent = ComponentMapperHelper.sprite.get(entity);
         PositionComponent positionComponent = ComponentMapperHelper.position.get(entity);
-        PositionComponent playerPosition = ComponentMapperHelper.position.get(getEngine().getEntitiesFor(player).first());
-        Vector2 v1 = poolVector2.getVector2(0,-1);
-        Vector2 v2 = poolVector2.getVector2(playerPosition.x()-positionComponent.x(), playerPosition.y()-positionComponent.y());
-        float angle = v2.angle(v1);
-        poolVector2.free(v1, v2);
-        spriteComponent.sprite.setRotation(-angle);
+        // angle from the bottom direction (0, -1) to the player, without the pools which are not thread safe
+        float directionX = blackboard.playerX - positionComponent.x();
+        float directionY = blackboard.playerY - positionComponent.y();
+        spriteComponent.sprite.setRotation(-(float) Math.atan2(-directionX, -directionY) * MathUtils.radiansToDegrees);
+        refreshBounds(entity);
     }
 
-}
\ No newline at end of file
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(PositionComponent.class, blackboard)
+                .writes(FollowPlayerComponent.class, VelocityComponent.class, SpriteComponent.class, BoundsComponent.class)
+                .concurrent();
+    }
+}
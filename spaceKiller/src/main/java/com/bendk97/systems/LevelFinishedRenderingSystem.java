@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -18,6 +18,9 @@ import com.bendk97.components.PauseComponent;
 import com.bendk97.components.PlayerComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.screens.levels.Level;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
 import static com.bendk97.assets.GameAssets.FONT_SPACE_KILLER_SMALLEST;
@@ -25,7 +28,7 @@ import static com.bendk97.pools.BitmapFontHelper.drawText;
 import static com.bendk97.screens.levels.Level.Level2;
 import static com.bendk97.screens.levels.Level.Level3;
 
-public class LevelFinishedRenderingSystem extends IteratingSystem {
+public class LevelFinishedRenderingSystem extends IteratingSystem implements ScheduledSystem {
     private static final String LEVEL_1_FINISHED = "lvl 1 completed";
     private static final String LEVEL_2_FINISHED = "lvl 2 completed";
     private static final String LEVEL_3_FINISHED = "lvl 3 completed";
@@ -61,4 +64,11 @@ public class LevelFinishedRenderingSystem extends IteratingSystem {
 
         }
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD)
+                .reads(PlayerComponent.class, LevelFinishedComponent.class)
+                .writes(batcher);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 21/10/18 11:50
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -11,11 +11,14 @@ import com.badlogic.ashley.core.Family;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.bendk97.components.*;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_WIDTH;
 
-public class MovementPlayerSystem extends AbstractMovementSystem {
+public class MovementPlayerSystem extends AbstractMovementSystem implements ScheduledSystem {
 
     private final OrthographicCamera camera;
 
@@ -61,4 +64,12 @@ public class MovementPlayerSystem extends AbstractMovementSystem {
         }
         camera.update();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(VelocityComponent.class, SpriteComponent.class)
+                .writes(PositionComponent.class, BoundsComponent.class, LightComponent.class, camera)
+                .concurrent();
+    }
+}
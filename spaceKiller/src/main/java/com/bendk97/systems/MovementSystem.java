@@ -1,21 +1,81 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
 package com.bendk97.systems;
 
-import com.badlogic.ashley.core.Family;
-import com.bendk97.components.PlayerComponent;
-import com.bendk97.components.PositionComponent;
-import com.bendk97.components.VelocityComponent;
+import com.badlogic.ashley.core.*;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.bendk97.components.*;
+import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class MovementSystem extends AbstractMovementSystem {
+/**
+ * Moves every entity but the player in a single pass over a TransformStore, by chunks on several threads for large counts:
+ * the positions and velocities of the entities of the family live in the store while they are in the engine.
+ */
+public class MovementSystem extends EntitySystem implements EntityListener, ScheduledSystem {
+
+    private final Family family = Family.all(PositionComponent.class, VelocityComponent.class)
+            .exclude(PlayerComponent.class).get();
+    private final TransformStore store = new TransformStore();
+    private final ParallelChunks chunks = new ParallelChunks(store::integrate);
+    private ImmutableArray<Entity> lightedEntities;
 
     public MovementSystem(int priority) {
-        super(Family.all(PositionComponent.class, VelocityComponent.class)
-                .exclude(PlayerComponent.class)
-                .get(), priority);
+        super(priority);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(family, this);
+        for (Entity entity : engine.getEntitiesFor(family)) {
+            entityAdded(entity);
+        }
+        lightedEntities = engine.getEntitiesFor(Family.all(PositionComponent.class, VelocityComponent.class, LightComponent.class)
+                .exclude(PlayerComponent.class).get());
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        while (store.size() > 0) {
+            store.detach(store.entity(store.size() - 1));
+        }
+        lightedEntities = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        chunks.process(store.size(), deltaTime);
+        for (int i = 0; i < lightedEntities.size(); ++i) {
+            AbstractMovementSystem.moveLight(lightedEntities.get(i));
+        }
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        store.attach(entity, ComponentMapperHelper.position.get(entity), ComponentMapperHelper.velocity.get(entity));
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        store.detach(entity);
+    }
+
+    public TransformStore getStore() {
+        return store;
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(VelocityComponent.class, SpriteComponent.class)
+                .writes(PositionComponent.class, BoundsComponent.class, LightComponent.class)
+                .concurrent();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 16:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/**
+ * Splits a range of indices into chunks processed at the same time: the calling thread takes the first chunk,
+ * the workers shared by every system (see SystemWorkers) the others. Small ranges, and the ranges of a system
+ * already updated by a worker, are processed on the calling thread only.
+ */
+class ParallelChunks {
+
+    // smallest number of indices worth a task
+    static final int CHUNK_SIZE = 64;
+    private static final int WORKERS = SystemWorkers.WORKERS;
+
+    interface Range {
+        void process(int from, int to, float deltaTime);
+    }
+
+    private final Range range;
+    private final Array<Chunk> chunks = new Array<>(false, WORKERS, Chunk.class);
+    private final Array<AsyncResult<Void>> results = new Array<>(false, WORKERS);
+
+    ParallelChunks(Range range) {
+        this.range = range;
+    }
+
+    void process(int size, float deltaTime) {
+        int count = Math.min(WORKERS + 1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (count <= 1 || SystemWorkers.isWorkerThread()) {
+            range.process(0, size, deltaTime);
+            return;
+        }
+        int chunkSize = (size + count - 1) / count;
+        AsyncExecutor executor = SystemWorkers.executor();
+        for (int i = 1; i < count; ++i) {
+            if (chunks.size < i) {
+                chunks.add(new Chunk());
+            }
+            Chunk chunk = chunks.get(i - 1);
+            chunk.from = i * chunkSize;
+            chunk.to = Math.min(size, chunk.from + chunkSize);
+            chunk.deltaTime = deltaTime;
+            results.add(executor.submit(chunk));
+        }
+        try {
+            range.process(0, chunkSize, deltaTime);
+        } finally {
+            // every chunk is done before the entities can change again
+            for (AsyncResult<Void> result : results) {
+                result.get();
+            }
+            results.clear();
+        }
+    }
+
+    private class Chunk implements AsyncTask<Void> {
+        int from, to;
+        float deltaTime;
+
+        @Override
+        public Void call() {
+            SystemWorkers.enter();
+            try {
+                range.process(from, to, deltaTime);
+            } finally {
+                SystemWorkers.leave();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 08:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.bendk97.components.BoundsComponent;
+import com.bendk97.components.helpers.Activity;
+import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * IteratingSystem whose entities are processed by chunks on several threads.
+ * processEntity must only read and write the components of its own entity:
+ * the engine, the pools and the tweens must not be used from it, structural changes are queued
+ * (removeLater, defer) and run on the calling thread once every entity has been processed.
+ */
+public abstract class ParallelIteratingSystem extends EntitySystem {
+
+    private final Family family;
+    private ImmutableArray<Entity> entities;
+    private final ParallelChunks chunks = new ParallelChunks(this::processEntities);
+    private final ConcurrentLinkedQueue<Entity> removals = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private boolean activeOnly = false;
+
+    public ParallelIteratingSystem(Family family, int priority) {
+        super(priority);
+        this.family = family;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        chunks.process(entities.size(), deltaTime);
+        Entity entity;
+        while ((entity = removals.poll()) != null) {
+            removeEntity(entity);
+        }
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    public ImmutableArray<Entity> getEntities() {
+        return entities;
+    }
+
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * @param activeOnly true to skip the dormant entities (see Activity)
+     */
+    public void setActiveOnly(boolean activeOnly) {
+        this.activeOnly = activeOnly;
+    }
+
+    /**
+     * called from any thread, for its own entity only
+     */
+    protected abstract void processEntity(Entity entity, float deltaTime);
+
+    /**
+     * the entity will be given to removeEntity once every entity has been processed
+     */
+    protected void removeLater(Entity entity) {
+        removals.add(entity);
+    }
+
+    /**
+     * the command will be run on the calling thread once every entity has been processed
+     */
+    protected void defer(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * removal of an entity given to removeLater, on the calling thread (through the command buffer of the engine, if any)
+     */
+    protected void removeEntity(Entity entity) {
+        EntityCommandBuffer.removeEntity(getEngine(), entity);
+    }
+
+    /**
+     * updates the bounds of the entity after its sprite was resized, rotated or scaled
+     */
+    protected static void refreshBounds(Entity entity) {
+        BoundsComponent bounds = ComponentMapperHelper.bounds.get(entity);
+        if (bounds != null) {
+            bounds.refresh();
+        }
+    }
+
+    private void processEntities(int from, int to, float deltaTime) {
+        for (int i = from; i < to; ++i) {
+            Entity entity = entities.get(i);
+            if (!activeOnly || !Activity.isDormant(entity)) {
+                processEntity(entity, deltaTime);
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,21 +9,27 @@ package com.bendk97.systems;
 import aurelienribon.tweenengine.TweenManager;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.RemovableComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.VelocityComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
 
-public class RemovableSystem extends IteratingSystem {
+public class RemovableSystem extends TimeSlicedIteratingSystem implements ScheduledSystem {
 
+    // the entities out of the screen or out of time can wait for a few steps before their removal
+    private static final long BUDGET_MICROS = 200L;
     private final TweenManager tweenManager;
 
     public RemovableSystem(int priority, TweenManager tweenManager) {
-        super(Family.all(RemovableComponent.class, PositionComponent.class, VelocityComponent.class).get(), priority);
+        super(Family.all(RemovableComponent.class, PositionComponent.class, VelocityComponent.class).get(), BUDGET_MICROS, priority);
         this.tweenManager = tweenManager;
     }
 
@@ -34,23 +40,40 @@ public class RemovableSystem extends IteratingSystem {
         if (removableComponent.hasDuration) {
             checkIfDurationIsOver(entity, deltaTime, removableComponent);
         } else {
-            PositionComponent position = ComponentMapperHelper.position.get(entity);
             SpriteComponent sprite = ComponentMapperHelper.sprite.get(entity);
-            if (position.x() + sprite.sprite.getWidth() < -OFFSET_WIDTH
-                    || position.x() > SCREEN_WIDTH + OFFSET_WIDTH
-                    || position.y() > SCREEN_HEIGHT
-                    || position.y() + sprite.sprite.getHeight() < 0) {
-                getEngine().removeEntity(entity);
-                tweenManager.killTarget(sprite);
+            if (isOffScreen(entity, sprite)) {
+                remove(entity);
             }
         }
     }
 
+    private boolean isOffScreen(Entity entity, SpriteComponent sprite) {
+        BoundsComponent bounds = ComponentMapperHelper.bounds.get(entity);
+        if (bounds != null) {
+            return bounds.isOffScreen();
+        }
+        PositionComponent position = ComponentMapperHelper.position.get(entity);
+        return position.x() + sprite.sprite.getWidth() < -OFFSET_WIDTH
+                || position.x() > SCREEN_WIDTH + OFFSET_WIDTH
+                || position.y() > SCREEN_HEIGHT
+                || position.y() + sprite.sprite.getHeight() < 0;
+    }
+
     private void checkIfDurationIsOver(Entity entity, float deltaTime, RemovableComponent removableComponent) {
         removableComponent.elapseTime += deltaTime;
         if (removableComponent.elapseTime > removableComponent.duration) {
-            getEngine().removeEntity(entity);
-            tweenManager.killTarget(ComponentMapperHelper.sprite.get(entity));
+            remove(entity);
         }
     }
+
+    private void remove(Entity entity) {
+        EntityCommandBuffer.removeEntity(getEngine(), entity);
+        tweenManager.killTarget(ComponentMapperHelper.sprite.get(entity));
+    }
+
+    @Override
+    public void declare(SystemAccess access) {
+        // the entities out of the screen or out of time are removed at the end of the step
+        access.phase(SystemPhase.POST).exclusive();
+    }
 }
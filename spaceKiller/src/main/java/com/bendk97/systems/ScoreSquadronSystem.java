@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -16,11 +16,14 @@ import com.bendk97.assets.GameAssets;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.ScoreSquadronComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.assets.GameAssets.FONT_SPACE_KILLER;
 import static com.bendk97.pools.BitmapFontHelper.drawText;
 
-public class ScoreSquadronSystem extends IteratingSystem {
+public class ScoreSquadronSystem extends IteratingSystem implements ScheduledSystem {
 
     private final BitmapFontCache font;
     private final SpriteBatch batcher;
@@ -38,4 +41,11 @@ public class ScoreSquadronSystem extends IteratingSystem {
         font.setColor(Color.YELLOW);
         drawText(batcher, font, 0.85f, squadron.score.toString(), position.x(), position.y());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.RENDER)
+                .reads(ScoreSquadronComponent.class)
+                .writes(batcher);
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,13 +9,17 @@ package com.bendk97.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
+import com.bendk97.components.BoundsComponent;
 import com.bendk97.components.GameOverComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.ShieldComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class ShieldSystem extends IteratingSystem {
+public class ShieldSystem extends IteratingSystem implements ScheduledSystem {
 
     private final Entity player;
 
@@ -34,4 +38,11 @@ public class ShieldSystem extends IteratingSystem {
                 playerPosition.y() - (spriteComponent.sprite.getHeight() - playerSprite.sprite.getHeight()) / 2f);
     }
 
-}
\ No newline at end of file
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .reads(ShieldComponent.class, SpriteComponent.class)
+                .writes(PositionComponent.class, BoundsComponent.class)
+                .concurrent();
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,21 +8,26 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
 import com.badlogic.gdx.math.RandomXS128;
 import com.bendk97.components.SquadronComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.entities.EntityFactory;
 import com.bendk97.listeners.PlayerListener;
 import com.bendk97.screens.levels.Level;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 import com.bendk97.timer.PausableTimer;
 
 import java.util.Random;
 
 import static com.bendk97.screens.levels.Level.Level3;
 
-public class SquadronSystem extends IteratingSystem {
+public class SquadronSystem extends TimeSlicedIteratingSystem implements ScheduledSystem {
 
+    // a destroyed squadron can wait for a few steps before its bonus
+    private static final long BUDGET_MICROS = 100L;
     private static final int THRESHOLD_POWER_UP_DEFAULT = 17;
     private static final int THRESHOLD_SHIELD_DEFAULT = 21;
     private int threshold_power_up = THRESHOLD_POWER_UP_DEFAULT;
@@ -34,7 +39,7 @@ public class SquadronSystem extends IteratingSystem {
     private final Random random = new RandomXS128();
 
     public SquadronSystem(Level level, int priority, EntityFactory entityFactory, Entity player, PlayerListener playerListener) {
-        super(Family.all(SquadronComponent.class).get(), priority);
+        super(Family.all(SquadronComponent.class).get(), BUDGET_MICROS, priority);
         this.entityFactory = entityFactory;
         this.player = player;
         this.playerListener = playerListener;
@@ -48,7 +53,7 @@ public class SquadronSystem extends IteratingSystem {
     public void processEntity(final Entity entity, float deltaTime) {
         SquadronComponent squadron = ComponentMapperHelper.squadron.get(entity);
         if (squadron.ships.size == 0) {
-            getEngine().removeEntity(entity);
+            EntityCommandBuffer.removeEntity(getEngine(), entity);
             if (squadron.toShoot == 0) {
                 if (squadron.powerUpAfterDestruction) {
                     int type = random.nextInt(22);
@@ -66,11 +71,16 @@ public class SquadronSystem extends IteratingSystem {
                     PausableTimer.schedule(new PausableTimer.Task() {
                         @Override
                         public void run() {
-                            getEngine().removeEntity(score);
+                            EntityCommandBuffer.removeEntity(getEngine(), score);
                         }
                     }, 1.5f);
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC).exclusive();
+    }
+}
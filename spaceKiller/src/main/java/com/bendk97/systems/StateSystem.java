@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,11 +8,13 @@ package com.bendk97.systems;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.systems.IteratingSystem;
 import com.bendk97.components.StateComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class StateSystem extends IteratingSystem {
+public class StateSystem extends ParallelIteratingSystem implements ScheduledSystem {
 
     public StateSystem(int priority) {
         super(Family.all(StateComponent.class).get(), priority);
@@ -22,4 +24,11 @@ public class StateSystem extends IteratingSystem {
     public void processEntity(Entity entity, float deltaTime) {
         ComponentMapperHelper.state.get(entity).time += deltaTime;
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC)
+                .writes(StateComponent.class)
+                .concurrent();
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -13,8 +13,11 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class StaticEntitiesRenderingSystem extends IteratingSystem {
+public class StaticEntitiesRenderingSystem extends IteratingSystem implements ScheduledSystem {
     private final SpriteBatch batcher;
 
     public StaticEntitiesRenderingSystem(SpriteBatch batcher, int priority) {
@@ -27,4 +30,11 @@ public class StaticEntitiesRenderingSystem extends IteratingSystem {
         SpriteComponent staticSpriteComponent = ComponentMapperHelper.sprite.get(entity);
         staticSpriteComponent.sprite.draw(batcher, staticSpriteComponent.alpha);
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD)
+                .reads(SpriteComponent.class)
+                .writes(batcher);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 14/10/18 11:12
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -14,11 +14,14 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.bendk97.assets.GameAssets;
 import com.bendk97.components.StatusHealthComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.assets.GameAssets.FONT_SPACE_KILLER;
 import static com.bendk97.pools.BitmapFontHelper.drawText;
 
-public class StatusHealthRenderingSystem extends IteratingSystem {
+public class StatusHealthRenderingSystem extends IteratingSystem implements ScheduledSystem {
     private static final float ALPHA = 0.4f;
     public static final String BOSS = "BOSS";
     private final SpriteBatch batcher;
@@ -37,4 +40,11 @@ public class StatusHealthRenderingSystem extends IteratingSystem {
         bitmapFont.setColor(1f, 1f, 1f, ALPHA);
         drawText(batcher, bitmapFont, BOSS, statusHealth.healthBar.getX() - 65, statusHealth.healthBar.getY() + 6);
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD)
+                .reads(StatusHealthComponent.class)
+                .writes(batcher);
+    }
 }
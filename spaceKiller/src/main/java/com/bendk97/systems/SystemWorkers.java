@@ -0,0 +1,60 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 16:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/**
+ * Worker threads shared by the systems updated on several threads (the concurrent waves of the schedule
+ * and the chunks of the parallel systems), created with the first task and shut down with the level (see LevelScreen.dispose).
+ */
+public final class SystemWorkers {
+
+    public static final int WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // set while a task runs on a worker
+    private static final ThreadLocal<Boolean> WORKING = new ThreadLocal<>();
+    private static AsyncExecutor executor;
+
+    private SystemWorkers() {
+    }
+
+    public static synchronized AsyncExecutor executor() {
+        if (executor == null) {
+            executor = new AsyncExecutor(WORKERS, "systems");
+        }
+        return executor;
+    }
+
+    /**
+     * to be called by each task submitted to the workers when it starts, then leave when it ends
+     */
+    public static void enter() {
+        WORKING.set(Boolean.TRUE);
+    }
+
+    public static void leave() {
+        WORKING.remove();
+    }
+
+    /**
+     * @return true within a task run by a worker: waiting there for other tasks could wait for itself,
+     * the task does their work instead
+     */
+    public static boolean isWorkerThread() {
+        return WORKING.get() != null;
+    }
+
+    /**
+     * waits for the running tasks and stops the threads, the next task creates new ones
+     */
+    public static synchronized void dispose() {
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+    }
+}
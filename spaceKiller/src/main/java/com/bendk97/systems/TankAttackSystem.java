@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,26 +9,27 @@ package com.bendk97.systems;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.utils.TimeUtils;
-import com.bendk97.components.PauseComponent;
-import com.bendk97.components.PlayerComponent;
+import com.bendk97.components.EnemyComponent;
 import com.bendk97.components.TankComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-public class TankAttackSystem extends IteratingSystem {
+public class TankAttackSystem extends IteratingSystem implements ScheduledSystem {
 
-    private final Family player = Family.one(PlayerComponent.class).exclude(PauseComponent.class).get();
+    private final WorldBlackboard blackboard;
 
-    public TankAttackSystem(int priority) {
+    public TankAttackSystem(int priority, WorldBlackboard blackboard) {
         super(Family.all(TankComponent.class).get(), priority);
+        this.blackboard = blackboard;
     }
 
 
     @Override
     protected void processEntity(final Entity entity, float deltaTime) {
-        ImmutableArray<Entity> playerEntity = getEngine().getEntitiesFor(player);
-        if (playerEntity.size() == 0) {
+        if (blackboard.target() == null) {
             return;
         }
         final TankComponent tank = ComponentMapperHelper.tank.get(entity);
@@ -44,4 +45,12 @@ public class TankAttackSystem extends IteratingSystem {
         }
 
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        // not concurrent: the random generator of MathUtils is shared
+        access.phase(SystemPhase.LOGIC)
+                .reads(blackboard)
+                .writes(TankComponent.class, EnemyComponent.class);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -16,12 +16,15 @@ import com.bendk97.assets.GameAssets;
 import com.bendk97.components.PlayerComponent;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.components.texts.BossAlertComponent;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.*;
 import static com.bendk97.assets.GameAssets.FONT_SPACE_KILLER;
 import static com.bendk97.pools.BitmapFontHelper.drawText;
 
-public class TextHUDRenderingSystem extends IteratingSystem {
+public class TextHUDRenderingSystem extends IteratingSystem implements ScheduledSystem {
     private static final String SCORE = "SCORE";
     private static final String LIVES = "LIVES";
     private static final String HIGH = "HIGH";
@@ -52,4 +55,11 @@ public class TextHUDRenderingSystem extends IteratingSystem {
             drawText(batcher, bossAlertComponent.font, bossAlertComponent.text, bossAlertComponent.posX, bossAlertComponent.posY);
         }
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD)
+                .reads(PlayerComponent.class)
+                .writes(batcher);
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 14:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.*;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.bendk97.entities.EntityCommandBuffer;
+
+/**
+ * IteratingSystem for the work which does not need to be done at every update: each update processes the next slice
+ * of the entities, from a cursor, until its budget is spent. A pass over the family can last several updates:
+ * processEntity is given the time elapsed since the entity was processed by the previous pass, or since it was added.
+ * A pass goes through the entities of the family when it started: those removed since are skipped,
+ * those added since wait for the next pass. At least MIN_SLICE entities are processed per update, so that every pass ends.
+ */
+public abstract class TimeSlicedIteratingSystem extends EntitySystem {
+
+    // entities processed between two reads of the clock, and at least per update
+    static final int MIN_SLICE = 8;
+    private static final int NANOS_TO_MICROS = 1000;
+
+    private final Family family;
+    private ImmutableArray<Entity> entities;
+    // the entities of the current pass
+    private final Array<Entity> pass = new Array<>(false, 64, Entity.class);
+    // time of the updates, and when each entity of the family was last processed (or added)
+    private float time = 0f;
+    private final ObjectFloatMap<Entity> processedAt = new ObjectFloatMap<>(64);
+    private final EntityListener listener = new EntityListener() {
+        @Override
+        public void entityAdded(Entity entity) {
+            processedAt.put(entity, time);
+        }
+
+        @Override
+        public void entityRemoved(Entity entity) {
+            processedAt.remove(entity, 0f);
+        }
+    };
+    private long budgetMicros;
+    private int cursor = 0;
+    private int lastSlice = 0;
+    private long remainingMicros = 0L;
+
+    public TimeSlicedIteratingSystem(Family family, long budgetMicros, int priority) {
+        super(priority);
+        this.family = family;
+        this.budgetMicros = budgetMicros;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+        engine.addEntityListener(family, listener);
+        for (int i = 0; i < entities.size(); ++i) {
+            listener.entityAdded(entities.get(i));
+        }
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(listener);
+        entities = null;
+        pass.clear();
+        processedAt.clear();
+        cursor = 0;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        long start = System.nanoTime();
+        long budgetNanos = budgetMicros * NANOS_TO_MICROS;
+        time += deltaTime;
+        if (cursor == 0) {
+            pass.clear();
+            for (int i = 0; i < entities.size(); ++i) {
+                pass.add(entities.get(i));
+            }
+        }
+        int processed = 0;
+        while (cursor < pass.size) {
+            Entity entity = pass.get(cursor++);
+            if (!processedAt.containsKey(entity) || EntityCommandBuffer.isRemoved(getEngine(), entity)) {
+                // removed since the pass started
+                continue;
+            }
+            float entityDelta = time - processedAt.get(entity, time);
+            processedAt.put(entity, time);
+            processEntity(entity, entityDelta);
+            if (++processed % MIN_SLICE == 0 && System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        if (cursor >= pass.size) {
+            // the pass is done, the next update starts another one
+            cursor = 0;
+        }
+        lastSlice = processed;
+        remainingMicros = (budgetNanos - (System.nanoTime() - start)) / NANOS_TO_MICROS;
+    }
+
+    public ImmutableArray<Entity> getEntities() {
+        return entities;
+    }
+
+    public Family getFamily() {
+        return family;
+    }
+
+    public long getBudgetMicros() {
+        return budgetMicros;
+    }
+
+    public void setBudgetMicros(long budgetMicros) {
+        this.budgetMicros = budgetMicros;
+    }
+
+    /**
+     * @return index of the next entity to process, 0 when the next update starts a pass
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return entities processed by the last update
+     */
+    public int getLastSlice() {
+        return lastSlice;
+    }
+
+    /**
+     * @return budget left by the last update, negative when it was overrun
+     */
+    public long getRemainingMicros() {
+        return remainingMicros;
+    }
+
+    /**
+     * @param deltaTime time elapsed since the entity was processed by the previous pass, or since it was added
+     */
+    protected abstract void processEntity(Entity entity, float deltaTime);
+}
@@ -0,0 +1,55 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 04:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.helpers.ComponentMapperHelper;
+import com.bendk97.components.helpers.Families;
+
+/**
+ * State of the world shared by the systems, read once at the start of each logic step
+ * instead of being looked for by every entity of every system.
+ */
+public class WorldBlackboard {
+
+    // any entity with a player component, null before the player is created
+    public Entity player;
+    // position of the player at the start of the step
+    public float playerX, playerY;
+    public boolean playerPaused;
+    public boolean playerVulnerable;
+    public boolean gameOver;
+    // null when no boss is on screen
+    public Entity boss;
+
+    public void update(Engine engine) {
+        ImmutableArray<Entity> players = engine.getEntitiesFor(Families.anyPlayer);
+        player = players.size() > 0 ? players.first() : null;
+        if (player != null) {
+            PositionComponent position = ComponentMapperHelper.position.get(player);
+            playerX = position.x();
+            playerY = position.y();
+            playerPaused = ComponentMapperHelper.pause.get(player) != null;
+            playerVulnerable = Families.playerVulnerable.matches(player);
+            gameOver = ComponentMapperHelper.gameOver.get(player) != null;
+        } else {
+            playerPaused = playerVulnerable = gameOver = false;
+        }
+        ImmutableArray<Entity> bosses = engine.getEntitiesFor(Families.boss);
+        boss = bosses.size() > 0 ? bosses.first() : null;
+    }
+
+    /**
+     * @return the player when the enemies may fire at it, null otherwise
+     */
+    public Entity target() {
+        return playerPaused ? null : player;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 10:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+
+import static com.bendk97.systems.collision.CollisionSnapshot.*;
+
+/**
+ * Broadphase and narrow phase run on a snapshot: only the snapshot and the collision masks are read,
+ * never the entities, so that it can run on a worker thread.
+ * A detector is not thread safe (scratch buffers), the masks must not be used by two detectors at the same time:
+ * a detector on another thread is given its own, see CollisionMasks.forAnotherThread.
+ */
+class CollisionDetector {
+
+    private final CollisionMasks collisionMasks;
+    private final IntArray candidates = new IntArray(false, 16);
+    private final float[] circles1 = new float[CollisionShape.MAX_CIRCLES * 3];
+    private final float[] circles2 = new float[CollisionShape.MAX_CIRCLES * 3];
+    private final PixelTestCache pixelTestCache = new PixelTestCache();
+
+    CollisionDetector(CollisionMasks collisionMasks) {
+        this.collisionMasks = collisionMasks;
+    }
+
+    void detect(CollisionSnapshot snapshot) {
+        long start = System.nanoTime();
+        buildGrid(snapshot);
+        long broadPhaseEnd = System.nanoTime();
+        detectContacts(snapshot);
+        snapshot.broadPhaseNanos = broadPhaseEnd - start;
+        snapshot.narrowPhaseNanos = System.nanoTime() - broadPhaseEnd;
+    }
+
+    private void buildGrid(CollisionSnapshot snapshot) {
+        CollisionGrid grid = snapshot.grid;
+        grid.clear();
+        for (int slot = 0; slot < snapshot.size(); ++slot) {
+            float moveX = snapshot.moveX[slot], moveY = snapshot.moveY[slot];
+            float minX = snapshot.minX[slot] - Math.max(moveX, 0f), minY = snapshot.minY[slot] - Math.max(moveY, 0f);
+            float maxX = snapshot.maxX[slot] - Math.min(moveX, 0f), maxY = snapshot.maxY[slot] - Math.min(moveY, 0f);
+            grid.insert(snapshot.entities.get(slot), snapshot.categories[slot], minX, minY, maxX - minX, maxY - minY);
+        }
+    }
+
+    /**
+     * single walk over the entities looking for other layers: each pair is tested once, from the seeker side
+     */
+    private void detectContacts(CollisionSnapshot snapshot) {
+        for (int i = 0; i < snapshot.seekers.size; ++i) {
+            int seeker = snapshot.seekers.get(i);
+            float moveX = snapshot.moveX[seeker], moveY = snapshot.moveY[seeker];
+            float minX = snapshot.minX[seeker] - Math.max(moveX, 0f), minY = snapshot.minY[seeker] - Math.max(moveY, 0f);
+            float maxX = snapshot.maxX[seeker] - Math.min(moveX, 0f), maxY = snapshot.maxY[seeker] - Math.min(moveY, 0f);
+            snapshot.grid.query(minX, minY, maxX - minX, maxY - minY, snapshot.masks[seeker], candidates);
+            for (int j = 0; j < candidates.size; ++j) {
+                int other = candidates.get(j);
+                ++snapshot.pairs;
+                ContactBuffer.Type contact = CollisionLayers.contactBetween(snapshot.categories[seeker], snapshot.categories[other]);
+                if (other != seeker && contact != null
+                        && canHappen(contact, snapshot.hasPlayer, snapshot.states[seeker], snapshot.states[other])
+                        && isCollisionBetween(snapshot, other, seeker)) {
+                    snapshot.contacts.add(contact.ordinal(), seeker, other);
+                }
+            }
+        }
+    }
+
+    /**
+     * state filters of the layer matrix (see CollisionSnapshot states), checked before the narrow phase
+     */
+    static boolean canHappen(ContactBuffer.Type contact, boolean hasPlayer, int seekerState, int otherState) {
+        switch (contact) {
+            case ENEMY_SHOT:
+                return hasPlayer && (otherState & STATE_ENEMY_ALIVE) != 0;
+            case PLAYER_POWER_UP:
+            case PLAYER_SHIELD_UP:
+            case PLAYER_BOMB_UP:
+                return (seekerState & STATE_PLAYER) != 0;
+            case PLAYER_HIT_BY_ENEMY_BODY:
+                return (seekerState & STATE_PLAYER_VULNERABLE) != 0 && (otherState & STATE_ENEMY_BODY) != 0;
+            case PLAYER_HIT_BY_ENEMY_BULLET:
+                return (seekerState & STATE_PLAYER_VULNERABLE) != 0;
+            case ENEMY_SHOT_BY_SHIELD:
+                return (otherState & STATE_KILLABLE_BY_SHIELD) != 0;
+            case BULLET_STOPPED_BY_SHIELD:
+            default:
+                return true;
+        }
+    }
+
+    private boolean isCollisionBetween(CollisionSnapshot snapshot, int slot1, int slot2) {
+        ++snapshot.boundsTests;
+        // move of slot1 relatively to slot2
+        float dx = snapshot.moveX[slot1] - snapshot.moveX[slot2];
+        float dy = snapshot.moveY[slot1] - snapshot.moveY[slot2];
+        float minY1 = snapshot.minY[slot1] - Math.max(dy, 0f), maxY1 = snapshot.maxY[slot1] - Math.min(dy, 0f);
+        if (maxY1 < snapshot.minY[slot2] || snapshot.maxY[slot2] < minY1) {
+            return false;
+        }
+        // the compound shapes cover every solid pixel: when they don't meet, the pixel path cannot find a contact
+        ++snapshot.shapeTests;
+        if (!isShapeCollisionBetween(snapshot, slot1, slot2, dx, dy)) {
+            return false;
+        }
+        if (snapshot.pixelPerfect[slot1] || snapshot.pixelPerfect[slot2]) {
+            return isPixelPerfectCollisionBetween(snapshot, snapshot.sprites.get(slot1), snapshot.sprites.get(slot2), dx, dy);
+        }
+        return true;
+    }
+
+    private boolean isPixelPerfectCollisionBetween(CollisionSnapshot snapshot, Sprite sprite1, Sprite sprite2, float dx, float dy) {
+        CollisionMask mask1 = collisionMasks.get(sprite1), mask2 = collisionMasks.get(sprite2);
+        // only the discrete tests: the swept ones place the sprites at sub-pixel steps
+        boolean cacheable = dx == 0f && dy == 0f
+                && PixelTestCache.isCacheable(sprite1, mask1) && PixelTestCache.isCacheable(sprite2, mask2);
+        if (cacheable) {
+            int cached = pixelTestCache.get(sprite1, mask1, sprite2, mask2);
+            if (cached != PixelTestCache.MISS) {
+                ++snapshot.pixelCacheHits;
+                return cached == 1;
+            }
+        }
+        boolean collision = isSweptPixelPerfectCollisionBetween(snapshot, sprite1, sprite2, dx, dy);
+        if (cacheable) {
+            pixelTestCache.put(collision);
+        }
+        return collision;
+    }
+
+    /**
+     * sprite1 is tested from its current position back to where it was before its relative move (dx, dy),
+     * by steps of half the smallest sprite dimension
+     */
+    private boolean isSweptPixelPerfectCollisionBetween(CollisionSnapshot snapshot, Sprite sprite1, Sprite sprite2, float dx, float dy) {
+        ++snapshot.pixelTests;
+        if (collisionMasks.overlaps(sprite1, sprite2)) {
+            return true;
+        }
+        float stepLength = Math.max(1f, Math.min(Math.min(sprite1.getWidth(), sprite1.getHeight()),
+                Math.min(sprite2.getWidth(), sprite2.getHeight())) / 2f);
+        int steps = MathUtils.ceil((float) Math.sqrt(dx * dx + dy * dy) / stepLength);
+        if (steps == 0) {
+            return false;
+        }
+        float x = sprite1.getX(), y = sprite1.getY();
+        try {
+            for (int step = 1; step <= steps; ++step) {
+                sprite1.setPosition(x - dx * step / steps, y - dy * step / steps);
+                ++snapshot.pixelTests;
+                if (collisionMasks.overlaps(sprite1, sprite2)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            sprite1.setPosition(x, y);
+        }
+    }
+
+    /**
+     * circles of slot1 swept along its relative move (dx, dy) against the circles of slot2.
+     * A sprite without compound shape (no mask for its region) uses its bounding circle.
+     */
+    private boolean isShapeCollisionBetween(CollisionSnapshot snapshot, int slot1, int slot2, float dx, float dy) {
+        int count1 = worldCircles(snapshot, slot1, circles1);
+        int count2 = worldCircles(snapshot, slot2, circles2);
+        for (int i = 0; i < count1 * 3; i += 3) {
+            for (int j = 0; j < count2 * 3; j += 3) {
+                float radius = circles1[i + 2] + circles2[j + 2];
+                if (dx == 0f && dy == 0f) {
+                    if (Vector2.dst2(circles1[i], circles1[i + 1], circles2[j], circles2[j + 1]) < radius * radius) {
+                        return true;
+                    }
+                } else if (Intersector.distanceSegmentPoint(circles1[i] - dx, circles1[i + 1] - dy,
+                        circles1[i], circles1[i + 1], circles2[j], circles2[j + 1]) < radius) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int worldCircles(CollisionSnapshot snapshot, int slot, float[] circles) {
+        Sprite sprite = snapshot.sprites.get(slot);
+        CollisionShape shape = collisionMasks.getShape(sprite);
+        if (shape != null) {
+            return shape.toWorld(sprite, circles);
+        }
+        circles[0] = snapshot.centerX[slot];
+        circles[1] = snapshot.centerY[slot];
+        circles[2] = snapshot.radius[slot];
+        return 1;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 00:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import static com.bendk97.SpaceKillerGameConstants.*;
+
+/**
+ * Uniform grid broadphase over the playfield (screen plus OFFSET_WIDTH margins).
+ * Entities are inserted with their bounding box; anything outside the playfield is clamped
+ * into the border cells so that overlapping boxes always share at least one cell.
+ * Cells are stored as linked lists in primitive arrays: clearing and rebuilding every tick does not allocate.
+ */
+public class CollisionGrid {
+
+    public static final float CELL_SIZE = 50f;
+    private static final float MIN_X = -OFFSET_WIDTH;
+    private static final float MIN_Y = 0f;
+    private static final int COLUMNS = (int) Math.ceil(WORLD_WIDTH / CELL_SIZE);
+    private static final int ROWS = (int) Math.ceil(SCREEN_HEIGHT / CELL_SIZE);
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 128;
+    private static final int ALL_CATEGORIES = -1;
+
+    // per cell: first entry of the linked list
+    private final int[] cellHead = new int[COLUMNS * ROWS];
+    // per entry (an entity inserted in one cell): slot of the entity and next entry in the same cell
+    private int[] entrySlot = new int[INITIAL_CAPACITY * 4];
+    private int[] entryNext = new int[INITIAL_CAPACITY * 4];
+    private int entries = 0;
+    // per slot (an entity inserted in the grid): entity, category, bounds and query mark
+    private final Array<Entity> entities = new Array<>(false, INITIAL_CAPACITY, Entity.class);
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private float[] minX = new float[INITIAL_CAPACITY];
+    private float[] minY = new float[INITIAL_CAPACITY];
+    private float[] maxX = new float[INITIAL_CAPACITY];
+    private float[] maxY = new float[INITIAL_CAPACITY];
+    private int[] marks = new int[INITIAL_CAPACITY];
+    private int queryMark = 0;
+
+    public CollisionGrid() {
+        clear();
+    }
+
+    public void clear() {
+        for (int i = 0; i < cellHead.length; ++i) {
+            cellHead[i] = NONE;
+        }
+        entities.clear();
+        entries = 0;
+    }
+
+    public int size() {
+        return entities.size;
+    }
+
+    public void insert(Entity entity, float x, float y, float width, float height) {
+        insert(entity, ALL_CATEGORIES, x, y, width, height);
+    }
+
+    /**
+     * @param category collision category of the entity (see CollisionLayers), used to filter queries
+     */
+    public void insert(Entity entity, int category, float x, float y, float width, float height) {
+        int slot = entities.size;
+        ensureSlotCapacity(slot + 1);
+        entities.add(entity);
+        categories[slot] = category;
+        minX[slot] = x;
+        minY[slot] = y;
+        maxX[slot] = x + width;
+        maxY[slot] = y + height;
+        marks[slot] = queryMark;
+        int column0 = column(x), column1 = column(x + width);
+        int row0 = row(y), row1 = row(y + height);
+        for (int row = row0; row <= row1; ++row) {
+            for (int column = column0; column <= column1; ++column) {
+                int cell = row * COLUMNS + column;
+                ensureEntryCapacity(entries + 1);
+                entrySlot[entries] = slot;
+                entryNext[entries] = cellHead[cell];
+                cellHead[cell] = entries++;
+            }
+        }
+    }
+
+    /**
+     * Collects every inserted entity matching the family whose bounds overlap the given box.
+     * Each entity is reported once, even if it spans several cells.
+     */
+    public Array<Entity> query(float x, float y, float width, float height, Family family, Array<Entity> result) {
+        return query(x, y, width, height, ALL_CATEGORIES, family, result);
+    }
+
+    /**
+     * Same as above, only entities whose category is in the given categories are reported.
+     */
+    public Array<Entity> query(float x, float y, float width, float height, int categories, Array<Entity> result) {
+        return query(x, y, width, height, categories, null, result);
+    }
+
+    /**
+     * Same as above, reporting the insertion index of the entities instead of the entities themselves.
+     */
+    public IntArray query(float x, float y, float width, float height, int categories, IntArray result) {
+        result.clear();
+        float x1 = x + width, y1 = y + height;
+        int column0 = column(x), column1 = column(x1);
+        int row0 = row(y), row1 = row(y1);
+        int mark = ++queryMark;
+        for (int row = row0; row <= row1; ++row) {
+            for (int column = column0; column <= column1; ++column) {
+                for (int entry = cellHead[row * COLUMNS + column]; entry != NONE; entry = entryNext[entry]) {
+                    int slot = entrySlot[entry];
+                    if (marks[slot] != mark) {
+                        marks[slot] = mark;
+                        if ((this.categories[slot] & categories) != 0 && overlaps(slot, x, y, x1, y1)) {
+                            result.add(slot);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Array<Entity> query(float x, float y, float width, float height, int categoryMask, Family family, Array<Entity> result) {
+        result.clear();
+        float x1 = x + width, y1 = y + height;
+        int column0 = column(x), column1 = column(x1);
+        int row0 = row(y), row1 = row(y1);
+        int mark = ++queryMark;
+        for (int row = row0; row <= row1; ++row) {
+            for (int column = column0; column <= column1; ++column) {
+                for (int entry = cellHead[row * COLUMNS + column]; entry != NONE; entry = entryNext[entry]) {
+                    int slot = entrySlot[entry];
+                    if (marks[slot] == mark) {
+                        continue;
+                    }
+                    marks[slot] = mark;
+                    if ((categories[slot] & categoryMask) == 0) {
+                        continue;
+                    }
+                    if (!overlaps(slot, x, y, x1, y1)) {
+                        continue;
+                    }
+                    Entity entity = entities.get(slot);
+                    if (family == null || family.matches(entity)) {
+                        result.add(entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean overlaps(int slot, float x0, float y0, float x1, float y1) {
+        return minX[slot] <= x1 && maxX[slot] >= x0 && minY[slot] <= y1 && maxY[slot] >= y0;
+    }
+
+    private static int column(float x) {
+        int column = (int) ((x - MIN_X) / CELL_SIZE);
+        return column < 0 ? 0 : (column >= COLUMNS ? COLUMNS - 1 : column);
+    }
+
+    private static int row(float y) {
+        int row = (int) ((y - MIN_Y) / CELL_SIZE);
+        return row < 0 ? 0 : (row >= ROWS ? ROWS - 1 : row);
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity <= minX.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, minX.length * 2);
+        minX = copyOf(minX, newCapacity);
+        minY = copyOf(minY, newCapacity);
+        maxX = copyOf(maxX, newCapacity);
+        maxY = copyOf(maxY, newCapacity);
+        marks = copyOf(marks, newCapacity);
+        categories = copyOf(categories, newCapacity);
+    }
+
+    private void ensureEntryCapacity(int capacity) {
+        if (capacity <= entrySlot.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, entrySlot.length * 2);
+        int[] newEntrySlot = new int[newCapacity];
+        int[] newEntryNext = new int[newCapacity];
+        System.arraycopy(entrySlot, 0, newEntrySlot, 0, entries);
+        System.arraycopy(entryNext, 0, newEntryNext, 0, entries);
+        entrySlot = newEntrySlot;
+        entryNext = newEntryNext;
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
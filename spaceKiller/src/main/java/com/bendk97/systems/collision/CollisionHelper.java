@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 28/10/18 21:28
+ * Last modified 17/10/26 23:20
  * Copyright (c) 2018. All rights reserved.
  */
 
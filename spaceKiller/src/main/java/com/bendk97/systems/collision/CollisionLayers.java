@@ -0,0 +1,68 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 22:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.bendk97.systems.collision.ContactBuffer.Type;
+
+import static com.bendk97.systems.collision.ContactBuffer.Type.*;
+
+/**
+ * Collision categories (one bit per layer) and the layer matrix giving the contact raised
+ * when an entity of one layer meets an entity of another one.
+ * The matrix is one-way: only the entity whose mask contains the category of the other one looks for it.
+ */
+public class CollisionLayers {
+
+    public static final int PLAYER = 1;
+    public static final int SHIELD = 1 << 1;
+    public static final int PLAYER_BULLET = 1 << 2;
+    public static final int ENEMY = 1 << 3;
+    public static final int GROUND_ENEMY = 1 << 4;
+    public static final int ENEMY_BULLET = 1 << 5;
+    public static final int POWER_UP = 1 << 6;
+    public static final int SHIELD_UP = 1 << 7;
+    public static final int BOMB_UP = 1 << 8;
+    private static final int LAYERS = 9;
+
+    private static final Type[][] contacts = new Type[LAYERS][LAYERS];
+    private static final int[] masks = new int[LAYERS];
+
+    static {
+        layers(PLAYER_BULLET, ENEMY, ENEMY_SHOT);
+        layers(PLAYER_BULLET, GROUND_ENEMY, ENEMY_SHOT);
+        layers(PLAYER, POWER_UP, PLAYER_POWER_UP);
+        layers(PLAYER, SHIELD_UP, PLAYER_SHIELD_UP);
+        layers(PLAYER, BOMB_UP, PLAYER_BOMB_UP);
+        layers(PLAYER, ENEMY, PLAYER_HIT_BY_ENEMY_BODY);
+        layers(PLAYER, ENEMY_BULLET, PLAYER_HIT_BY_ENEMY_BULLET);
+        layers(SHIELD, ENEMY_BULLET, BULLET_STOPPED_BY_SHIELD);
+        layers(SHIELD, ENEMY, ENEMY_SHOT_BY_SHIELD);
+    }
+
+    private static void layers(int category, int otherCategory, Type contact) {
+        contacts[layer(category)][layer(otherCategory)] = contact;
+        masks[layer(category)] |= otherCategory;
+    }
+
+    private static int layer(int category) {
+        return Integer.numberOfTrailingZeros(category);
+    }
+
+    /**
+     * @return the categories an entity of the given category collides with
+     */
+    public static int maskOf(int category) {
+        return category == 0 ? 0 : masks[layer(category)];
+    }
+
+    /**
+     * @return the contact raised when an entity of the category meets an entity of the other category, null if none
+     */
+    public static Type contactBetween(int category, int otherCategory) {
+        return contacts[layer(category)][layer(otherCategory)];
+    }
+}
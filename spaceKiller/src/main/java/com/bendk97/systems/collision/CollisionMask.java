@@ -0,0 +1,138 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 22:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packed bitset of the opaque pixels of a sprite region.
+ * Row 0 is the bottom row of the sprite (world y goes up), column c of a row is bit (c % 64) of word (c / 64).
+ */
+public class CollisionMask {
+
+    public static final int ALPHA_THRESHOLD = 0x10;
+    private static int ids = 0;
+
+    // identifies the mask in the rotated masks cache
+    final int id = ++ids;
+    public final int width;
+    public final int height;
+    // circles fitted to the mask, computed once the mask is registered (see CollisionMasks)
+    CollisionShape shape;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    public CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * builds the mask of a region of a pixmap: a pixel is solid when its alpha is above ALPHA_THRESHOLD
+     */
+    public static CollisionMask fromPixmap(Pixmap pixmap, int regionX, int regionY, int width, int height) {
+        CollisionMask mask = new CollisionMask(width, height);
+        boolean rgba8888 = pixmap.getFormat() == Pixmap.Format.RGBA8888;
+        ByteBuffer pixels = rgba8888 ? pixmap.getPixels() : null;
+        for (int y = 0; y < height; ++y) {
+            int row = height - 1 - y;
+            for (int x = 0; x < width; ++x) {
+                int alpha = rgba8888 ?
+                        pixels.get(((regionY + y) * pixmap.getWidth() + regionX + x) * 4 + 3) & 0xff
+                        : pixmap.getPixel(regionX + x, regionY + y) & 0xff;
+                if (alpha > ALPHA_THRESHOLD) {
+                    mask.set(x, row);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public void set(int x, int y) {
+        bits[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+    }
+
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * @return true if this mask placed at (x, y) and the other mask placed at (otherX, otherY)
+     * share at least one solid pixel
+     */
+    public boolean overlaps(int x, int y, CollisionMask other, int otherX, int otherY) {
+        int x0 = Math.max(x, otherX);
+        int x1 = Math.min(x + width, otherX + other.width);
+        int y0 = Math.max(y, otherY);
+        int y1 = Math.min(y + height, otherY + other.height);
+        if (x0 >= x1 || y0 >= y1) {
+            return false;
+        }
+        int length = x1 - x0;
+        for (int worldY = y0; worldY < y1; ++worldY) {
+            int row = worldY - y;
+            int otherRow = worldY - otherY;
+            for (int offset = 0; offset < length; offset += 64) {
+                long word = bits(row, x0 - x + offset) & other.bits(otherRow, x0 - otherX + offset);
+                if (length - offset < 64) {
+                    word &= (1L << (length - offset)) - 1;
+                }
+                if (word != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if this mask placed at (x, y) has at least one solid pixel in the given rectangle
+     */
+    public boolean overlapsRectangle(int x, int y, int rectX, int rectY, int rectWidth, int rectHeight) {
+        int x0 = Math.max(x, rectX);
+        int x1 = Math.min(x + width, rectX + rectWidth);
+        int y0 = Math.max(y, rectY);
+        int y1 = Math.min(y + height, rectY + rectHeight);
+        if (x0 >= x1 || y0 >= y1) {
+            return false;
+        }
+        int length = x1 - x0;
+        for (int worldY = y0; worldY < y1; ++worldY) {
+            int row = worldY - y;
+            for (int offset = 0; offset < length; offset += 64) {
+                long word = bits(row, x0 - x + offset);
+                if (length - offset < 64) {
+                    word &= (1L << (length - offset)) - 1;
+                }
+                if (word != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * reads 64 bits of a row starting at any column (bits beyond the row width are 0)
+     */
+    private long bits(int row, int column) {
+        int index = row * wordsPerRow + (column >>> 6);
+        int shift = column & 63;
+        long word = bits[index] >>> shift;
+        if (shift != 0 && (column >>> 6) + 1 < wordsPerRow) {
+            word |= bits[index + 1] << (64 - shift);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 09:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.bendk97.systems.collision.RotatedCollisionMasks.RotatedMask;
+
+/**
+ * CPU-side pixel perfect collision: the masks of every region of the given atlases are computed once, at load time,
+ * from the alpha channel of the atlas pages. Overlap tests never touch the GPU:
+ * rotated and flipped sprites use masks computed on demand and cached by RotatedCollisionMasks.
+ * Each mask also gets a compound shape (a few circles, see CollisionShape) resolving most pairs without the pixel path.
+ */
+public class CollisionMasks implements Disposable {
+
+    private static final String TAG = "Collision masks";
+    private final ObjectMap<Texture, IntMap<CollisionMask>> masksByTexture;
+    // null for the masks loading the atlases, the masks read by the copies for other threads
+    private final CollisionMasks shared;
+    private final RotatedCollisionMasks rotatedMasks = new RotatedCollisionMasks();
+    private final GridPoint2 position1 = new GridPoint2();
+    private final GridPoint2 position2 = new GridPoint2();
+
+    public CollisionMasks() {
+        this.masksByTexture = new ObjectMap<>();
+        this.shared = null;
+    }
+
+    private CollisionMasks(CollisionMasks shared) {
+        this.masksByTexture = shared.masksByTexture;
+        this.shared = shared;
+    }
+
+    /**
+     * @return masks reading the same atlas masks, with their own scratch buffers and rotated masks cache,
+     * to be used by another thread (the atlases must not be added while it runs)
+     */
+    public CollisionMasks forAnotherThread() {
+        return new CollisionMasks(shared == null ? this : shared);
+    }
+
+    public void addAtlas(TextureAtlas atlas) {
+        if (atlas == null || atlas.getRegions() == null) {
+            return;
+        }
+        ObjectMap<Texture, Array<AtlasRegion>> regionsByTexture = new ObjectMap<>();
+        for (AtlasRegion region : atlas.getRegions()) {
+            if (region.getTexture() == null) {
+                continue;
+            }
+            if (!regionsByTexture.containsKey(region.getTexture())) {
+                regionsByTexture.put(region.getTexture(), new Array<>());
+            }
+            regionsByTexture.get(region.getTexture()).add(region);
+        }
+        for (ObjectMap.Entry<Texture, Array<AtlasRegion>> entry : regionsByTexture) {
+            addRegions(entry.key, entry.value);
+        }
+    }
+
+    private void addRegions(Texture texture, Array<AtlasRegion> regions) {
+        TextureData textureData = texture.getTextureData();
+        if (textureData == null) {
+            return;
+        }
+        Pixmap pixmap;
+        try {
+            if (!textureData.isPrepared()) {
+                textureData.prepare();
+            }
+            pixmap = textureData.consumePixmap();
+        } catch (Exception e) {
+            Gdx.app.log(TAG, "Unable to read texture data: " + e.getMessage());
+            return;
+        }
+        if (pixmap == null) {
+            return;
+        }
+        try {
+            for (AtlasRegion region : regions) {
+                add(region, CollisionMask.fromPixmap(pixmap, region.getRegionX(), region.getRegionY(),
+                        region.getRegionWidth(), region.getRegionHeight()));
+            }
+        } finally {
+            if (textureData.disposePixmap()) {
+                pixmap.dispose();
+            }
+        }
+    }
+
+    public void add(AtlasRegion region, CollisionMask mask) {
+        mask.shape = CollisionShape.fit(mask);
+        if (!masksByTexture.containsKey(region.getTexture())) {
+            masksByTexture.put(region.getTexture(), new IntMap<>());
+        }
+        masksByTexture.get(region.getTexture()).put(key(region.getRegionX(), region.getRegionY()), mask);
+    }
+
+    public CollisionMask get(Sprite sprite) {
+        if (sprite.getTexture() == null) {
+            return null;
+        }
+        IntMap<CollisionMask> masks = masksByTexture.get(sprite.getTexture());
+        if (masks == null) {
+            return null;
+        }
+        // a flipped region has its u/v swapped: region x/y are the smallest ones
+        int regionX = Math.round(Math.min(sprite.getU(), sprite.getU2()) * sprite.getTexture().getWidth());
+        int regionY = Math.round(Math.min(sprite.getV(), sprite.getV2()) * sprite.getTexture().getHeight());
+        return masks.get(key(regionX, regionY));
+    }
+
+    /**
+     * @return the circles fitted to the region of the sprite, null if the region has no mask
+     */
+    public CollisionShape getShape(Sprite sprite) {
+        CollisionMask mask = get(sprite);
+        return mask == null ? null : mask.shape;
+    }
+
+    private static int key(int regionX, int regionY) {
+        return regionX << 16 | regionY & 0xffff;
+    }
+
+    /**
+     * pixel perfect test between two sprites.
+     * A sprite without mask (texture not coming from a loaded atlas) is considered as fully solid.
+     */
+    public boolean overlaps(Sprite sprite1, Sprite sprite2) {
+        CollisionMask mask1 = get(sprite1);
+        CollisionMask mask2 = get(sprite2);
+        if (canBePlaced(sprite1, mask1) && canBePlaced(sprite2, mask2)) {
+            if (mask1 == null && mask2 == null) {
+                return true;
+            } else if (mask1 == null) {
+                mask2 = place(sprite2, mask2, position2);
+                return mask2.overlapsRectangle(position2.x, position2.y, Math.round(sprite1.getX()), Math.round(sprite1.getY()),
+                        Math.round(sprite1.getWidth()), Math.round(sprite1.getHeight()));
+            } else if (mask2 == null) {
+                mask1 = place(sprite1, mask1, position1);
+                return mask1.overlapsRectangle(position1.x, position1.y, Math.round(sprite2.getX()), Math.round(sprite2.getY()),
+                        Math.round(sprite2.getWidth()), Math.round(sprite2.getHeight()));
+            }
+            mask1 = place(sprite1, mask1, position1);
+            mask2 = place(sprite2, mask2, position2);
+            return mask1.overlaps(position1.x, position1.y, mask2, position2.x, position2.y);
+        }
+        return overlapsBySampling(sprite1, mask1, sprite2, mask2);
+    }
+
+    /**
+     * unscaled sprites are tested with their mask (rotated and flipped masks coming from the cache),
+     * a sprite without mask must not be rotated
+     */
+    private static boolean canBePlaced(Sprite sprite, CollisionMask mask) {
+        return sprite.getScaleX() == 1f && sprite.getScaleY() == 1f
+                && (mask == null ? sprite.getRotation() % 360f == 0f
+                : sprite.getWidth() == mask.width && sprite.getHeight() == mask.height);
+    }
+
+    /**
+     * @return the mask to use for the sprite, its world position is stored in the given position
+     */
+    private CollisionMask place(Sprite sprite, CollisionMask mask, GridPoint2 position) {
+        int bucket = RotatedCollisionMasks.angleBucket(sprite.getRotation());
+        if (bucket == 0 && !sprite.isFlipX() && !sprite.isFlipY()) {
+            position.set(Math.round(sprite.getX()), Math.round(sprite.getY()));
+            return mask;
+        }
+        int originX = Math.round(sprite.getOriginX()), originY = Math.round(sprite.getOriginY());
+        RotatedMask rotated = rotatedMasks.get(mask.id, mask, bucket, sprite.isFlipX(), sprite.isFlipY(), originX, originY);
+        position.set(Math.round(sprite.getX()) + originX + rotated.offsetX,
+                Math.round(sprite.getY()) + originY + rotated.offsetY);
+        return rotated.mask;
+    }
+
+    /**
+     * fallback for scaled sprites: each pixel of the intersection of the bounding rectangles
+     * is transformed back into the local space of both sprites
+     */
+    private boolean overlapsBySampling(Sprite sprite1, CollisionMask mask1, Sprite sprite2, CollisionMask mask2) {
+        Rectangle bounds1 = sprite1.getBoundingRectangle();
+        float x0 = bounds1.x, y0 = bounds1.y, x1 = bounds1.x + bounds1.width, y1 = bounds1.y + bounds1.height;
+        Rectangle bounds2 = sprite2.getBoundingRectangle();
+        x0 = Math.max(x0, bounds2.x);
+        y0 = Math.max(y0, bounds2.y);
+        x1 = Math.min(x1, bounds2.x + bounds2.width);
+        y1 = Math.min(y1, bounds2.y + bounds2.height);
+        for (int y = MathUtils.floor(y0); y < y1; ++y) {
+            for (int x = MathUtils.floor(x0); x < x1; ++x) {
+                if (isSolidAt(sprite1, mask1, x + 0.5f, y + 0.5f) && isSolidAt(sprite2, mask2, x + 0.5f, y + 0.5f)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSolidAt(Sprite sprite, CollisionMask mask, float worldX, float worldY) {
+        float originX = sprite.getOriginX(), originY = sprite.getOriginY();
+        float dx = worldX - sprite.getX() - originX;
+        float dy = worldY - sprite.getY() - originY;
+        float cos = MathUtils.cosDeg(-sprite.getRotation());
+        float sin = MathUtils.sinDeg(-sprite.getRotation());
+        float localX = (dx * cos - dy * sin) / sprite.getScaleX() + originX;
+        float localY = (dx * sin + dy * cos) / sprite.getScaleY() + originY;
+        if (localX < 0 || localY < 0 || localX >= sprite.getWidth() || localY >= sprite.getHeight()) {
+            return false;
+        }
+        if (mask == null) {
+            return true;
+        }
+        int column = (int) (localX * mask.width / sprite.getWidth());
+        int row = (int) (localY * mask.height / sprite.getHeight());
+        if (sprite.isFlipX()) {
+            column = mask.width - 1 - column;
+        }
+        if (sprite.isFlipY()) {
+            row = mask.height - 1 - row;
+        }
+        return mask.isSolid(column, row);
+    }
+
+    @Override
+    public void dispose() {
+        if (shared == null) {
+            masksByTexture.clear();
+        }
+        rotatedMasks.clear();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 22:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * A few circles covering every solid pixel of a collision mask.
+ * The region is cut into slices along its longest side, each slice with solid pixels gets the smallest circle
+ * centered on their bounding box that covers them: far tighter than one bounding circle for elongated sprites
+ * (lasers, houses, bosses) and never missing a pixel perfect contact.
+ */
+public class CollisionShape {
+
+    public static final int MAX_CIRCLES = 4;
+
+    private final int width;
+    private final int height;
+    // x, y and radius of each circle, in pixels of the region (y goes up)
+    private final float[] circles;
+    private final int count;
+
+    private CollisionShape(int width, int height, float[] circles, int count) {
+        this.width = width;
+        this.height = height;
+        this.circles = circles;
+        this.count = count;
+    }
+
+    public static CollisionShape fit(CollisionMask mask) {
+        boolean horizontal = mask.width >= mask.height;
+        int length = horizontal ? mask.width : mask.height;
+        int thickness = Math.max(1, horizontal ? mask.height : mask.width);
+        int slices = MathUtils.clamp(Math.round((float) length / thickness), 1, MAX_CIRCLES);
+        float[] circles = new float[slices * 3];
+        int count = 0;
+        for (int slice = 0; slice < slices; ++slice) {
+            int from = length * slice / slices, to = length * (slice + 1) / slices;
+            int x0 = horizontal ? from : 0, x1 = horizontal ? to : mask.width;
+            int y0 = horizontal ? 0 : from, y1 = horizontal ? mask.height : to;
+            if (fitSlice(mask, x0, y0, x1, y1, circles, count * 3)) {
+                ++count;
+            }
+        }
+        return new CollisionShape(mask.width, mask.height, circles, count);
+    }
+
+    private static boolean fitSlice(CollisionMask mask, int x0, int y0, int x1, int y1, float[] circles, int offset) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        for (int y = y0; y < y1; ++y) {
+            for (int x = x0; x < x1; ++x) {
+                if (mask.isSolid(x, y)) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        if (maxX < 0) {
+            return false;
+        }
+        float centerX = (minX + maxX + 1) / 2f, centerY = (minY + maxY + 1) / 2f;
+        float radius2 = 0f;
+        for (int y = minY; y <= maxY; ++y) {
+            for (int x = minX; x <= maxX; ++x) {
+                if (mask.isSolid(x, y)) {
+                    // farthest corner of the pixel
+                    float dx = Math.max(Math.abs(x - centerX), Math.abs(x + 1 - centerX));
+                    float dy = Math.max(Math.abs(y - centerY), Math.abs(y + 1 - centerY));
+                    radius2 = Math.max(radius2, dx * dx + dy * dy);
+                }
+            }
+        }
+        circles[offset] = centerX;
+        circles[offset + 1] = centerY;
+        circles[offset + 2] = (float) Math.sqrt(radius2);
+        return true;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * writes the circles of the shape placed like the sprite (position, size, origin, rotation, scale and flip)
+     * as x, y, radius triplets
+     *
+     * @return number of circles written
+     */
+    public int toWorld(Sprite sprite, float[] out) {
+        float sizeX = sprite.getWidth() / width, sizeY = sprite.getHeight() / height;
+        float scaleX = sprite.getScaleX(), scaleY = sprite.getScaleY();
+        float originX = sprite.getOriginX(), originY = sprite.getOriginY();
+        float cos = MathUtils.cosDeg(sprite.getRotation()), sin = MathUtils.sinDeg(sprite.getRotation());
+        float radiusScale = Math.max(Math.abs(sizeX * scaleX), Math.abs(sizeY * scaleY));
+        for (int i = 0; i < count; ++i) {
+            float x = circles[i * 3], y = circles[i * 3 + 1];
+            if (sprite.isFlipX()) {
+                x = width - x;
+            }
+            if (sprite.isFlipY()) {
+                y = height - y;
+            }
+            float dx = (x * sizeX - originX) * scaleX;
+            float dy = (y * sizeY - originY) * scaleY;
+            out[i * 3] = sprite.getX() + originX + dx * cos - dy * sin;
+            out[i * 3 + 1] = sprite.getY() + originY + dx * sin + dy * cos;
+            out[i * 3 + 2] = circles[i * 3 + 2] * radiusScale;
+        }
+        return count;
+    }
+}
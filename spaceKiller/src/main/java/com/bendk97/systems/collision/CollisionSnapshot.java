@@ -0,0 +1,124 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 09:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Everything the narrow phase reads from the collidable entities of one tick, in primitive arrays
+ * (one slot per entity), and the contacts found from it.
+ * The sprites are copies placed at the logic positions: the detection never moves the rendered sprites,
+ * and the contacts can be computed on another thread while the entities keep moving.
+ */
+class CollisionSnapshot {
+
+    // state of the entities checked by the layer matrix filters
+    static final int STATE_PLAYER = 1;
+    static final int STATE_PLAYER_VULNERABLE = 1 << 1;
+    static final int STATE_ENEMY_ALIVE = 1 << 2;
+    static final int STATE_ENEMY_BODY = 1 << 3;
+    static final int STATE_KILLABLE_BY_SHIELD = 1 << 4;
+    private static final int INITIAL_CAPACITY = 128;
+
+    final Array<Entity> entities = new Array<>(true, INITIAL_CAPACITY, Entity.class);
+    final Array<Sprite> sprites = new Array<>(true, INITIAL_CAPACITY, Sprite.class);
+    int[] categories = new int[INITIAL_CAPACITY];
+    int[] masks = new int[INITIAL_CAPACITY];
+    int[] states = new int[INITIAL_CAPACITY];
+    boolean[] pixelPerfect = new boolean[INITIAL_CAPACITY];
+    // last move, bounding box (including the bounding circle) and bounding circle
+    float[] moveX = new float[INITIAL_CAPACITY];
+    float[] moveY = new float[INITIAL_CAPACITY];
+    float[] minX = new float[INITIAL_CAPACITY];
+    float[] minY = new float[INITIAL_CAPACITY];
+    float[] maxX = new float[INITIAL_CAPACITY];
+    float[] maxY = new float[INITIAL_CAPACITY];
+    float[] centerX = new float[INITIAL_CAPACITY];
+    float[] centerY = new float[INITIAL_CAPACITY];
+    float[] radius = new float[INITIAL_CAPACITY];
+    final IntArray seekers = new IntArray(true, 64);
+    boolean hasPlayer = false;
+    final CollisionGrid grid = new CollisionGrid();
+
+    // detection results: contact type (ordinal), seeker slot and other slot
+    final IntArray contacts = new IntArray(true, 48);
+    int pairs, boundsTests, shapeTests, pixelTests, pixelCacheHits;
+    long broadPhaseNanos, narrowPhaseNanos;
+
+    // sprites owned by the snapshot
+    private final Array<Sprite> copies = new Array<>(false, INITIAL_CAPACITY, Sprite.class);
+
+    int size() {
+        return entities.size;
+    }
+
+    void clear() {
+        entities.clear();
+        sprites.clear();
+        seekers.clear();
+        hasPlayer = false;
+        contacts.clear();
+        pairs = boundsTests = shapeTests = pixelTests = pixelCacheHits = 0;
+        broadPhaseNanos = narrowPhaseNanos = 0;
+    }
+
+    /**
+     * snapshots a copy of the sprite (transform and region) placed at (x, y)
+     *
+     * @return the slot of the entity, whose arrays are to be filled by the caller
+     */
+    int add(Entity entity, Sprite sprite, float x, float y) {
+        int slot = entities.size;
+        ensureCapacity(slot + 1);
+        entities.add(entity);
+        if (copies.size <= slot) {
+            copies.add(new Sprite());
+        }
+        Sprite copied = copies.get(slot);
+        copied.set(sprite);
+        copied.setPosition(x, y);
+        sprites.add(copied);
+        return slot;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= categories.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, categories.length * 2);
+        categories = copyOf(categories, newCapacity);
+        masks = copyOf(masks, newCapacity);
+        states = copyOf(states, newCapacity);
+        boolean[] newPixelPerfect = new boolean[newCapacity];
+        System.arraycopy(pixelPerfect, 0, newPixelPerfect, 0, pixelPerfect.length);
+        pixelPerfect = newPixelPerfect;
+        moveX = copyOf(moveX, newCapacity);
+        moveY = copyOf(moveY, newCapacity);
+        minX = copyOf(minX, newCapacity);
+        minY = copyOf(minY, newCapacity);
+        maxX = copyOf(maxX, newCapacity);
+        maxY = copyOf(maxY, newCapacity);
+        centerX = copyOf(centerX, newCapacity);
+        centerY = copyOf(centerY, newCapacity);
+        radius = copyOf(radius, newCapacity);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 01:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+/**
+ * Counters and timings of the last collision tick (ticks skipped by the throttled mode keep the previous ones).
+ */
+public class CollisionStats {
+
+    // ticks run since the collision system was created
+    public long ticks = 0;
+    // entities inserted in the broadphase grid
+    public int entities = 0;
+    // seeker/candidate pairs returned by the broadphase
+    public int pairs = 0;
+    // pairs allowed by the layer matrix and the state of the entities, tested on their bounds
+    public int boundsTests = 0;
+    // pairs tested on their compound circles
+    public int shapeTests = 0;
+    // alpha mask overlap tests (each sub-step of a swept test counts)
+    public int pixelTests = 0;
+    // pixel perfect tests answered by the cache of the previous results
+    public int pixelCacheHits = 0;
+    // contacts found
+    public int hits = 0;
+    // spatial queries since the start of the last tick
+    public int queries = 0;
+    // copy of the entities into the snapshot read by the detection
+    public long snapshotNanos = 0;
+    public long broadPhaseNanos = 0;
+    public long narrowPhaseNanos = 0;
+    public long dispatchNanos = 0;
+
+    void startTick() {
+        ++ticks;
+        entities = pairs = boundsTests = shapeTests = pixelTests = pixelCacheHits = hits = queries = 0;
+        snapshotNanos = broadPhaseNanos = narrowPhaseNanos = dispatchNanos = 0;
+    }
+
+    public long totalNanos() {
+        return snapshotNanos + broadPhaseNanos + narrowPhaseNanos + dispatchNanos;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 28/10/18 21:28
+ * Last modified 18/10/26 17:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -8,225 +8,533 @@ package com.bendk97.systems.collision;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
 import com.badlogic.ashley.core.EntitySystem;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.FrameBuffer;
-import com.badlogic.gdx.math.Circle;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.ScreenUtils;
-import com.badlogic.gdx.utils.viewport.Viewport;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.bendk97.components.BoundsComponent;
+import com.bendk97.components.CollisionComponent;
+import com.bendk97.components.EnemyComponent;
 import com.bendk97.components.PositionComponent;
 import com.bendk97.components.SpriteComponent;
+import com.bendk97.components.helpers.Activity;
 import com.bendk97.components.helpers.ComponentMapperHelper;
 import com.bendk97.components.helpers.Families;
+import com.bendk97.entities.EntityCommandBuffer;
 import com.bendk97.listeners.CollisionListener;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
-import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
-import static com.bendk97.SpaceKillerGameConstants.SCREEN_WIDTH;
+import static com.bendk97.components.helpers.ComponentMapperHelper.bounds;
+import static com.bendk97.components.helpers.ComponentMapperHelper.collision;
 import static com.bendk97.components.helpers.ComponentMapperHelper.position;
 import static com.bendk97.components.helpers.ComponentMapperHelper.sprite;
-import static com.bendk97.pools.GamePools.poolCircle;
-import static com.bendk97.pools.GamePools.poolRectangle;
+import static com.bendk97.systems.collision.CollisionSnapshot.*;
 
-public class CollisionSystem extends EntitySystem {
+public class CollisionSystem extends EntitySystem implements ScheduledSystem {
 
-    private static final int FREQUENCY_MS = 50;
+    public enum Mode {
+        /**
+         * every frame: each entity is swept along its last move so that fast bullets cannot tunnel through ships
+         */
+        SWEPT,
+        /**
+         * every THROTTLE_MS only, with discrete tests at current positions
+         */
+        THROTTLED,
+        /**
+         * every frame, swept: contacts are computed by a worker thread from a snapshot of the entities
+         * while the frame goes on, and dispatched at the next update
+         */
+        ASYNC
+    }
+
+    public static final int THROTTLE_MS = 50;
+    private static final ContactBuffer.Type[] CONTACT_TYPES = ContactBuffer.Type.values();
+    private Mode mode;
+    // dormant entities (see Activity) are left out of the detection
+    private boolean activeOnly = true;
     private final CollisionListener collisionListener;
-    private final CollisionHelper collisionHelper = new CollisionHelper();
-    private final SpriteBatch spriteBatch;
-    private FrameBuffer fbo;
-    private final Viewport viewport;
+    private final CollisionMasks collisionMasks;
+    private final ContactBuffer contacts = new ContactBuffer();
+    // structural changes of the systems, null with an engine without command buffer
+    private EntityCommandBuffer commands;
+    private Entity player;
+    private final CollisionStats stats = new CollisionStats();
+    private final Vector2 move = new Vector2();
+    private final Rectangle bounds1 = new Rectangle();
+    // bounds of an entity not linked to its BoundsComponent yet
+    private final BoundsComponent unlinkedBounds = new BoundsComponent();
+    private final Rectangle bounds2 = new Rectangle();
+    // detection on the main thread
+    private final CollisionSnapshot snapshot = new CollisionSnapshot();
+    private final CollisionDetector detector;
+    // detection on the worker thread: one snapshot is filled while the other one is processed
+    private final CollisionSnapshot[] asyncSnapshots = {new CollisionSnapshot(), new CollisionSnapshot()};
+    private int nextAsyncSnapshot = 0;
+    private CollisionDetector asyncDetector;
+    private AsyncExecutor executor;
+    private AsyncResult<Void> pending;
+    private CollisionSnapshot pendingSnapshot;
+    // entities removed since the pending snapshot was taken: the pool may have given them to new entities
+    private final ObjectSet<Entity> removedSinceSnapshot = new ObjectSet<>();
+    // spatial index for queries, rebuilt on demand
+    private final CollisionGrid index = new CollisionGrid();
+    private final Array<Entity> queryCandidates = new Array<>(false, 16, Entity.class);
+    // the index no longer matches the entities (moves or entities added/removed since it was built)
+    private boolean indexStale = true;
+    // the index queried between two ticks may be one move late: candidates are looked for as far as the longest move indexed
+    private float queryMargin = 0f;
+    private final EntityListener collidableListener = new EntityListener() {
+        @Override
+        public void entityAdded(Entity entity) {
+            indexStale = true;
+        }
+
+        @Override
+        public void entityRemoved(Entity entity) {
+            indexStale = true;
+            if (pending != null) {
+                removedSinceSnapshot.add(entity);
+            }
+        }
+    };
     private float deltaCount = 0;
 
-    public CollisionSystem(CollisionListener collisionListener, Viewport viewport, SpriteBatch spriteBatch, int priority) {
+    public CollisionSystem(CollisionListener collisionListener, CollisionMasks collisionMasks, int priority) {
+        this(collisionListener, collisionMasks, Mode.SWEPT, priority);
+    }
+
+    public CollisionSystem(CollisionListener collisionListener, CollisionMasks collisionMasks, Mode mode, int priority) {
         super(priority);
-        try {
-            this.fbo = new FrameBuffer(Pixmap.Format.RGBA4444, (int) SCREEN_WIDTH, (int) SCREEN_HEIGHT, false);
-        } catch (Exception e) {
-            Gdx.app.log("Pixel Perfect Collision", "Unable on this device");
-            this.fbo = null;
-        }
-        this.viewport = viewport;
-        this.spriteBatch = spriteBatch;
-        this.spriteBatch.enableBlending();
+        this.collisionMasks = collisionMasks;
         this.collisionListener = collisionListener;
+        this.detector = new CollisionDetector(collisionMasks);
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setActiveOnly(boolean activeOnly) {
+        this.activeOnly = activeOnly;
     }
 
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        this.deltaCount = 0f;
+    }
 
     @Override
-    public void update(float delta) {
-        deltaCount += delta * 1000f;
-        if (deltaCount < FREQUENCY_MS) {
-            return;
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        engine.addEntityListener(Families.collidable, collidableListener);
+        commands = EntityCommandBuffer.of(engine);
+        contacts.setCommands(commands);
+        indexStale = true;
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+        engine.removeEntityListener(collidableListener);
+        if (pending != null) {
+            pending.get();
+            pending = null;
+            pendingSnapshot = null;
+            removedSinceSnapshot.clear();
+        }
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
         }
-        deltaCount = 0f;
+    }
+
+    @Override
+    public void update(float delta) {
+        // sync points: the removals asked by the previous systems are skipped by the tick,
+        // the changes asked by them and by the collision listener are made by the engine right after this system
+        flushCommands();
+        tick(delta);
+        flushCommands();
+    }
 
-        detectCollisionWithPlayer();
-        detectCollisionWithShields();
-        detectCollisionWithPlayerVulnerable();
+    private void flushCommands() {
+        if (commands != null) {
+            commands.flush();
+        }
     }
 
-    private void detectCollisionWithPlayer() {
-        for (Entity player : getEngine().getEntitiesFor(Families.player)) {
-            for (Entity bullet : getEngine().getEntitiesFor(Families.playerBullet)) {
-                for (Entity enemy : getEngine().getEntitiesFor(Families.enemies)) {
-                    if (!ComponentMapperHelper.enemy.get(enemy).isDead()
-                            && isCollisionBetween(enemy, bullet)) {
-                        collisionListener.enemyShoot(enemy, player, bullet);
-                        return;
-                    }
-                }
+    private void tick(float delta) {
+        if (mode == Mode.ASYNC) {
+            detectAsync();
+        } else {
+            if (pending != null) {
+                // left by the asynchronous mode
+                applyPending();
             }
-
-            for (Entity powerUp : getEngine().getEntitiesFor(Families.powerUp)) {
-                if (isCollisionBetween(player, powerUp)) {
-                    collisionListener.playerPowerUp(player, powerUp);
+            if (mode == Mode.THROTTLED) {
+                deltaCount += delta * 1000f;
+                if (deltaCount < THROTTLE_MS) {
+                    indexStale = true;
                     return;
                 }
+                deltaCount = 0f;
             }
-            for (Entity shieldUp : getEngine().getEntitiesFor(Families.shieldUp)) {
-                if (isCollisionBetween(player, shieldUp)) {
-                    collisionListener.playerShieldUp(player, shieldUp);
-                    return;
-                }
+            detect();
+        }
+        // entities move before the next tick
+        indexStale = true;
+    }
+
+    private void detect() {
+        stats.startTick();
+        long start = System.nanoTime();
+        takeSnapshot(snapshot);
+        stats.snapshotNanos = System.nanoTime() - start;
+        detector.detect(snapshot);
+        apply(snapshot);
+    }
+
+    /**
+     * the snapshot of this frame is taken, then the contacts found by the worker in the snapshot of the previous frame
+     * are dispatched before the worker is given the new one
+     */
+    private void detectAsync() {
+        final CollisionSnapshot next = asyncSnapshots[nextAsyncSnapshot];
+        nextAsyncSnapshot = 1 - nextAsyncSnapshot;
+        long start = System.nanoTime();
+        takeSnapshot(next);
+        long snapshotNanos = System.nanoTime() - start;
+        if (pending != null) {
+            applyPending();
+        }
+        stats.snapshotNanos = snapshotNanos;
+        if (executor == null) {
+            executor = new AsyncExecutor(1, "collisions");
+            // the masks scratch buffers and rotated masks cache are not shared with the detector of this thread
+            asyncDetector = new CollisionDetector(collisionMasks.forAnotherThread());
+        }
+        pendingSnapshot = next;
+        pending = executor.submit(() -> {
+            asyncDetector.detect(next);
+            return null;
+        });
+    }
+
+    private void applyPending() {
+        // waits for the worker if it has not finished yet
+        pending.get();
+        CollisionSnapshot done = pendingSnapshot;
+        pending = null;
+        pendingSnapshot = null;
+        stats.startTick();
+        apply(done);
+        removedSinceSnapshot.clear();
+    }
+
+    /**
+     * copies the state of the collidable entities into the snapshot, at their logic positions
+     * (the sprites are drawn at interpolated ones and are left untouched)
+     */
+    private void takeSnapshot(CollisionSnapshot target) {
+        target.clear();
+        ImmutableArray<Entity> players = getEngine().getEntitiesFor(Families.player);
+        target.hasPlayer = players.size() > 0;
+        for (Entity entity : getEngine().getEntitiesFor(Families.collidable)) {
+            SpriteComponent spriteComponent = sprite.get(entity);
+            if (spriteComponent.sprite == null || entity.isScheduledForRemoval() || activeOnly && Activity.isDormant(entity)) {
+                continue;
             }
-            for (Entity bombUp : getEngine().getEntitiesFor(Families.bombUp)) {
-                if (isCollisionBetween(player, bombUp)) {
-                    collisionListener.playerBombUp(player, bombUp);
-                    return;
-                }
+            PositionComponent positionComponent = position.get(entity);
+            CollisionComponent collisionComponent = collision.get(entity);
+            int slot = target.add(entity, spriteComponent.sprite, positionComponent.x(), positionComponent.y());
+            target.categories[slot] = collisionComponent.category;
+            target.masks[slot] = collisionComponent.mask;
+            target.states[slot] = stateOf(entity);
+            target.pixelPerfect[slot] = spriteComponent.pixelPerfectCollision;
+            Vector2 lastMove = lastMove(entity, move);
+            target.moveX[slot] = lastMove.x;
+            target.moveY[slot] = lastMove.y;
+            Rectangle bounds = sweptBounds(entity, Vector2.Zero, bounds1);
+            target.minX[slot] = bounds.x;
+            target.minY[slot] = bounds.y;
+            target.maxX[slot] = bounds.x + bounds.width;
+            target.maxY[slot] = bounds.y + bounds.height;
+            writeBoundingCircle(entity, target, slot);
+            if (collisionComponent.mask != 0) {
+                target.seekers.add(slot);
             }
         }
     }
 
-    private void detectCollisionWithPlayerVulnerable() {
-        for (Entity player : getEngine().getEntitiesFor(Families.playerVulnerable)) {
-            for (Entity enemy : getEngine().getEntitiesFor(Families.enemyBodies)) {
-                if (isCollisionBetween(enemy, player)) {
-                    collisionListener.playerHitByEnemyBody(player);
-                    return;
-                }
+    private void writeBoundingCircle(Entity entity, CollisionSnapshot target, int slot) {
+        BoundsComponent boundsComponent = boundsOf(entity);
+        target.centerX[slot] = boundsComponent.centerX;
+        target.centerY[slot] = boundsComponent.centerY;
+        target.radius[slot] = boundsComponent.radius;
+    }
 
+    /**
+     * state of the entity checked by the layer matrix filters
+     */
+    private static int stateOf(Entity entity) {
+        int state = 0;
+        if (Families.player.matches(entity)) {
+            state |= STATE_PLAYER;
+        }
+        if (Families.playerVulnerable.matches(entity)) {
+            state |= STATE_PLAYER_VULNERABLE;
+        }
+        EnemyComponent enemy = ComponentMapperHelper.enemy.get(entity);
+        if (Families.enemies.matches(entity) && !enemy.isDead()) {
+            state |= STATE_ENEMY_ALIVE;
+        }
+        if (Families.enemyBodies.matches(entity)) {
+            state |= STATE_ENEMY_BODY;
+            if (ComponentMapperHelper.boss.get(entity) == null && !enemy.isLaserShip) {
+                state |= STATE_KILLABLE_BY_SHIELD;
             }
-            for (Entity bullet : getEngine().getEntitiesFor(Families.enemyBullet)) {
-                if (isCollisionBetween(bullet, player)) {
-                    collisionListener.playerHitByEnemyBullet(player, bullet);
-                    return;
-                }
+        }
+        return state;
+    }
+
+    /**
+     * contacts of the snapshot are checked again against the current state of the entities, then dispatched
+     */
+    private void apply(CollisionSnapshot done) {
+        long start = System.nanoTime();
+        ImmutableArray<Entity> players = getEngine().getEntitiesFor(Families.player);
+        player = players.size() > 0 ? players.first() : null;
+        IntArray found = done.contacts;
+        for (int i = 0; i < found.size; i += 3) {
+            ContactBuffer.Type contact = CONTACT_TYPES[found.get(i)];
+            Entity seeker = done.entities.get(found.get(i + 1));
+            Entity other = done.entities.get(found.get(i + 2));
+            if (!isGone(seeker) && !isGone(other)
+                    && CollisionDetector.canHappen(contact, player != null, stateOf(seeker), stateOf(other))) {
+                addContact(contact, seeker, other);
             }
         }
+        dispatchContacts();
+        player = null;
+        stats.entities = done.size();
+        stats.pairs = done.pairs;
+        stats.boundsTests = done.boundsTests;
+        stats.shapeTests = done.shapeTests;
+        stats.pixelTests = done.pixelTests;
+        stats.pixelCacheHits = done.pixelCacheHits;
+        stats.hits = found.size / 3;
+        stats.broadPhaseNanos = done.broadPhaseNanos;
+        stats.narrowPhaseNanos = done.narrowPhaseNanos;
+        stats.dispatchNanos = System.nanoTime() - start;
     }
 
-    private void detectCollisionWithShields() {
-        for (Entity shield : getEngine().getEntitiesFor(Families.shield)) {
-            for (Entity bullet : getEngine().getEntitiesFor(Families.enemyBullet)) {
-                if (isCollisionBetween(bullet, shield)) {
-                    collisionListener.bulletStoppedByShield(bullet);
-                    return;
-                }
+    private boolean isGone(Entity entity) {
+        return contacts.isRemoved(entity) || removedSinceSnapshot.contains(entity);
+    }
+
+    /**
+     * @return counters and timings of the last tick
+     */
+    public CollisionStats getStats() {
+        return stats;
+    }
+
+    /**
+     * collects the collidable entities of the family whose bounds overlap the rectangle
+     */
+    public Array<Entity> queryRect(float x, float y, float width, float height, Family family, Array<Entity> result) {
+        result.clear();
+        for (Entity entity : candidatesIn(x, y, x + width, y + height, family)) {
+            Rectangle bounds = sweptBounds(entity, Vector2.Zero, bounds2);
+            if (bounds.x <= x + width && bounds.x + bounds.width >= x
+                    && bounds.y <= y + height && bounds.y + bounds.height >= y) {
+                result.add(entity);
             }
-            for (Entity enemy : getEngine().getEntitiesFor(Families.enemyBodies)) {
-                if (ComponentMapperHelper.boss.get(enemy) != null || ComponentMapperHelper.enemy.get(enemy).isLaserShip) {
-                    break;
-                }
-                if (isCollisionBetween(enemy, shield)) {
-                    collisionListener.enemyShootByShield(enemy);
-                    return;
-                }
+        }
+        return result;
+    }
+
+    /**
+     * collects the collidable entities of the family whose bounds overlap the circle
+     */
+    public Array<Entity> queryCircle(float centerX, float centerY, float radius, Family family, Array<Entity> result) {
+        result.clear();
+        for (Entity entity : candidatesIn(centerX - radius, centerY - radius, centerX + radius, centerY + radius, family)) {
+            Rectangle bounds = sweptBounds(entity, Vector2.Zero, bounds2);
+            float dx = centerX - MathUtils.clamp(centerX, bounds.x, bounds.x + bounds.width);
+            float dy = centerY - MathUtils.clamp(centerY, bounds.y, bounds.y + bounds.height);
+            if (dx * dx + dy * dy <= radius * radius) {
+                result.add(entity);
             }
         }
+        return result;
     }
 
-    private boolean isCollisionBetween(Entity entity1, Entity entity2) {
-        PositionComponent positionComponent1 = position.get(entity1);
-        PositionComponent positionComponent2 = position.get(entity2);
-        SpriteComponent spriteComponent1 = sprite.get(entity1);
-        SpriteComponent spriteComponent2 = sprite.get(entity2);
-        if((positionComponent1.y() + spriteComponent1.sprite.getHeight()) < positionComponent2.y()
-        || (positionComponent2.y() + spriteComponent2.sprite.getHeight() < positionComponent1.y())){
-            return false;
+    /**
+     * collects the collidable entities of the family whose bounds are crossed by the segment from (x1, y1) to (x2, y2)
+     */
+    public Array<Entity> queryRay(float x1, float y1, float x2, float y2, Family family, Array<Entity> result) {
+        result.clear();
+        for (Entity entity : candidatesIn(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2), family)) {
+            if (Intersector.intersectSegmentRectangle(x1, y1, x2, y2, sweptBounds(entity, Vector2.Zero, bounds2))) {
+                result.add(entity);
+            }
         }
-        if (fbo != null && (spriteComponent1.pixelPerfectCollision || spriteComponent2.pixelPerfectCollision)) {
-            return isPerfectPixelCollisionBetween(spriteComponent1.sprite, spriteComponent2.sprite);
-        } else {
-            return isBoundingCircleCollisionBetween(spriteComponent1.sprite, spriteComponent2.sprite);
+        return result;
+    }
+
+    private Array<Entity> candidatesIn(float minX, float minY, float maxX, float maxY, Family family) {
+        ++stats.queries;
+        if (indexStale) {
+            buildIndex();
+        }
+        index.query(minX - queryMargin, minY - queryMargin, maxX - minX + queryMargin * 2f, maxY - minY + queryMargin * 2f,
+                family, queryCandidates);
+        for (int i = queryCandidates.size - 1; i >= 0; --i) {
+            if (contacts.isRemoved(queryCandidates.get(i))) {
+                queryCandidates.removeIndex(i);
+            }
         }
+        return queryCandidates;
     }
 
-    private boolean isBoundingCircleCollisionBetween(Sprite sprite1, Sprite sprite2) {
-        Circle boundingCircle1 = collisionHelper.getBoundingCircle(sprite1);
-        Circle boundingCircle2 = collisionHelper.getBoundingCircle(sprite2);
-        try {
-            return Intersector.overlaps(boundingCircle1, boundingCircle2);
-        } finally {
-            poolCircle.free(boundingCircle1);
-            poolCircle.free(boundingCircle2);
+    private void buildIndex() {
+        index.clear();
+        queryMargin = 0f;
+        for (Entity entity : getEngine().getEntitiesFor(Families.collidable)) {
+            if (sprite.get(entity).sprite != null) {
+                Vector2 lastMove = lastMove(entity, move);
+                queryMargin = Math.max(queryMargin, Math.max(Math.abs(lastMove.x), Math.abs(lastMove.y)));
+                Rectangle bounds = sweptBounds(entity, lastMove, bounds1);
+                index.insert(entity, collision.get(entity).category, bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+        }
+        indexStale = false;
+    }
+
+    /**
+     * bounds of the entity extended backwards along its move: they contain both its bounding box and
+     * its bounding circle
+     */
+    private Rectangle sweptBounds(Entity entity, Vector2 move, Rectangle out) {
+        BoundsComponent boundsComponent = boundsOf(entity);
+        float minX = Math.min(boundsComponent.minX, boundsComponent.centerX - boundsComponent.radius);
+        float minY = Math.min(boundsComponent.minY, boundsComponent.centerY - boundsComponent.radius);
+        float maxX = Math.max(boundsComponent.maxX, boundsComponent.centerX + boundsComponent.radius);
+        float maxY = Math.max(boundsComponent.maxY, boundsComponent.centerY + boundsComponent.radius);
+        minX -= Math.max(move.x, 0f);
+        minY -= Math.max(move.y, 0f);
+        maxX -= Math.min(move.x, 0f);
+        maxY -= Math.min(move.y, 0f);
+        return out.set(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * bounds of the entity at its logic position: its BoundsComponent, or bounds computed from its position
+     * when it has not got one yet (never from its sprite, drawn at an interpolated position)
+     */
+    private BoundsComponent boundsOf(Entity entity) {
+        BoundsComponent boundsComponent = bounds.get(entity);
+        if (boundsComponent != null) {
+            return boundsComponent;
+        }
+        PositionComponent positionComponent = position.get(entity);
+        unlinkedBounds.compute(sprite.get(entity).sprite, positionComponent.x(), positionComponent.y());
+        return unlinkedBounds;
+    }
+
+    private void addContact(ContactBuffer.Type contact, Entity seeker, Entity other) {
+        switch (contact) {
+            case ENEMY_SHOT:
+                contacts.add(contact, other, player, seeker);
+                break;
+            case PLAYER_HIT_BY_ENEMY_BODY:
+                contacts.add(contact, seeker, null, null);
+                break;
+            case BULLET_STOPPED_BY_SHIELD:
+            case ENEMY_SHOT_BY_SHIELD:
+                contacts.add(contact, other, null, null);
+                break;
+            default:
+                contacts.add(contact, seeker, other, null);
+                break;
         }
     }
 
-    private boolean isPerfectPixelCollisionBetween(Sprite sprite1, Sprite sprite2) {
-        Rectangle collision = poolRectangle.obtain();
+    /**
+     * every contact of the tick, by type then in detection order; contacts involving an entity removed by an earlier one are skipped
+     */
+    private void dispatchContacts() {
         try {
-            viewport.apply();
-            spriteBatch.setProjectionMatrix(viewport.getCamera().combined);
-            if (Intersector.intersectRectangles(sprite1.getBoundingRectangle(), sprite2.getBoundingRectangle(), collision)) {
-                Pixmap pix1 = null;
-                Pixmap pix2 = null;
-                try {
-                    pix1 = transformToPixels(sprite1, collision);
-                    pix2 = transformToPixels(sprite2, collision);
-                    for (int i = 0; i < pix1.getWidth(); ++i) {
-                        for (int j = 0; j < pix1.getHeight(); ++j) {
-                            if (pix1.getPixel(i, j) != 255 && pix2.getPixel(i, j) != 255) {
-                                return true;
-                            }
-                        }
-                    }
-                } finally {
-                    if (pix1 != null) {
-                        pix1.dispose();
-                    }
-                    if (pix2 != null) {
-                        pix2.dispose();
+            for (ContactBuffer.Type type : CONTACT_TYPES) {
+                for (int i = 0; i < contacts.size(); ++i) {
+                    if (contacts.type(i) == type && !contacts.isObsolete(i) && contacts.consume(i)) {
+                        dispatch(type, contacts.first(i), contacts.second(i), contacts.third(i));
                     }
                 }
             }
-            return false;
         } finally {
-            poolRectangle.free(collision);
+            contacts.clear();
         }
     }
 
-    private Pixmap transformToPixels(Sprite sprite, Rectangle collision) {
-        fbo.begin();
-        Gdx.gl.glClearColor(0f, 0f, 0f, 1);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-        spriteBatch.begin();
-        sprite.draw(spriteBatch);
-        spriteBatch.end();
-        fbo.end();
-        fbo.bind();
-        Pixmap pixmap = ScreenUtils.getFrameBufferPixmap(
-                (int) Math.floor(collision.x),
-                (int) Math.floor(collision.y),
-                (int) Math.ceil(collision.width),
-                (int) Math.ceil(collision.height)
-        );
-        FrameBuffer.unbind();
-        return pixmap;
+    private void dispatch(ContactBuffer.Type type, Entity first, Entity second, Entity third) {
+        switch (type) {
+            case ENEMY_SHOT:
+                collisionListener.enemyShoot(first, second, third);
+                break;
+            case PLAYER_HIT_BY_ENEMY_BODY:
+                collisionListener.playerHitByEnemyBody(first);
+                break;
+            case PLAYER_HIT_BY_ENEMY_BULLET:
+                collisionListener.playerHitByEnemyBullet(first, second);
+                break;
+            case PLAYER_POWER_UP:
+                collisionListener.playerPowerUp(first, second);
+                break;
+            case PLAYER_SHIELD_UP:
+                collisionListener.playerShieldUp(first, second);
+                break;
+            case PLAYER_BOMB_UP:
+                collisionListener.playerBombUp(first, second);
+                break;
+            case BULLET_STOPPED_BY_SHIELD:
+                collisionListener.bulletStoppedByShield(first);
+                break;
+            case ENEMY_SHOT_BY_SHIELD:
+                collisionListener.enemyShootByShield(first);
+                break;
+        }
     }
 
-    @Override
-    public void removedFromEngine(Engine engine) {
-        super.removedFromEngine(engine);
-        if (fbo != null) {
-            fbo.dispose();
+    /**
+     * move of the entity since the start of the logic step, whatever moved it
+     * (zero when not sweeping, for an entity created during the step or teleported, see PositionComponent.teleport)
+     */
+    private Vector2 lastMove(Entity entity, Vector2 move) {
+        PositionComponent positionComponent = position.get(entity);
+        move.set(0f, 0f);
+        if (mode != Mode.THROTTLED && positionComponent != null) {
+            move.set(positionComponent.stepMoveX(), positionComponent.stepMoveY());
         }
+        return move;
     }
-}
 
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.LOGIC).exclusive();
+    }
+}
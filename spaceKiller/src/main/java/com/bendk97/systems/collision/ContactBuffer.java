@@ -0,0 +1,161 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 04:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.bendk97.entities.EntityCommandBuffer;
+
+/**
+ * Contacts found during one collision tick, dispatched all together once detection is over.
+ * An entity consumed by a contact (a bullet, a bonus, a player losing a life...) takes part in the first dispatched one only.
+ */
+public class ContactBuffer {
+
+    /**
+     * contacts are dispatched in this order
+     */
+    public enum Type {
+        // enemy, player, bullet
+        ENEMY_SHOT(false, false, true),
+        // player, power up
+        PLAYER_POWER_UP(false, true, false),
+        // player, shield up
+        PLAYER_SHIELD_UP(false, true, false),
+        // player, bomb up
+        PLAYER_BOMB_UP(false, true, false),
+        // bullet
+        BULLET_STOPPED_BY_SHIELD(true, false, false),
+        // enemy
+        ENEMY_SHOT_BY_SHIELD(true, false, false),
+        // player
+        PLAYER_HIT_BY_ENEMY_BODY(true, false, false),
+        // player, bullet
+        PLAYER_HIT_BY_ENEMY_BULLET(true, true, false);
+
+        private final boolean firstConsumed, secondConsumed, thirdConsumed;
+
+        Type(boolean firstConsumed, boolean secondConsumed, boolean thirdConsumed) {
+            this.firstConsumed = firstConsumed;
+            this.secondConsumed = secondConsumed;
+            this.thirdConsumed = thirdConsumed;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Type[] types = new Type[INITIAL_CAPACITY];
+    private Entity[] firsts = new Entity[INITIAL_CAPACITY];
+    private Entity[] seconds = new Entity[INITIAL_CAPACITY];
+    private Entity[] thirds = new Entity[INITIAL_CAPACITY];
+    private int size = 0;
+    private final ObjectSet<Entity> consumed = new ObjectSet<>(INITIAL_CAPACITY);
+    private EntityCommandBuffer commands;
+
+    public void add(Type type, Entity first, Entity second, Entity third) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        firsts[size] = first;
+        seconds[size] = second;
+        thirds[size] = third;
+        ++size;
+    }
+
+    /**
+     * marks the entities consumed by the contact
+     *
+     * @return false if one of them is already consumed by a contact dispatched before
+     */
+    public boolean consume(int index) {
+        Type type = types[index];
+        if (isConsumed(type.firstConsumed, firsts[index]) || isConsumed(type.secondConsumed, seconds[index])
+                || isConsumed(type.thirdConsumed, thirds[index])) {
+            return false;
+        }
+        consume(type.firstConsumed, firsts[index]);
+        consume(type.secondConsumed, seconds[index]);
+        consume(type.thirdConsumed, thirds[index]);
+        return true;
+    }
+
+    private boolean isConsumed(boolean consumedByType, Entity entity) {
+        return consumedByType && entity != null && consumed.contains(entity);
+    }
+
+    private void consume(boolean consumedByType, Entity entity) {
+        if (consumedByType && entity != null) {
+            consumed.add(entity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Type type(int index) {
+        return types[index];
+    }
+
+    public Entity first(int index) {
+        return firsts[index];
+    }
+
+    public Entity second(int index) {
+        return seconds[index];
+    }
+
+    public Entity third(int index) {
+        return thirds[index];
+    }
+
+    /**
+     * @return true if one of the entities of the contact has been removed from the engine (by an earlier contact) or is about to be
+     */
+    public boolean isObsolete(int index) {
+        return isRemoved(firsts[index]) || isRemoved(seconds[index]) || isRemoved(thirds[index]);
+    }
+
+    /**
+     * @return true if the entity has been removed from the engine or will be at the next flush of the command buffer
+     */
+    boolean isRemoved(Entity entity) {
+        // an entity removed outside of an engine update is freed at once by the pooled engine: no more components
+        return entity != null && (entity.isScheduledForRemoval() || entity.getComponents().size() == 0
+                || commands != null && commands.isRemoved(entity));
+    }
+
+    void setCommands(EntityCommandBuffer commands) {
+        this.commands = commands;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            types[i] = null;
+            firsts[i] = seconds[i] = thirds[i] = null;
+        }
+        size = 0;
+        consumed.clear(INITIAL_CAPACITY);
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        Type[] newTypes = new Type[capacity];
+        Entity[] newFirsts = new Entity[capacity];
+        Entity[] newSeconds = new Entity[capacity];
+        Entity[] newThirds = new Entity[capacity];
+        System.arraycopy(types, 0, newTypes, 0, size);
+        System.arraycopy(firsts, 0, newFirsts, 0, size);
+        System.arraycopy(seconds, 0, newSeconds, 0, size);
+        System.arraycopy(thirds, 0, newThirds, 0, size);
+        types = newTypes;
+        firsts = newFirsts;
+        seconds = newSeconds;
+        thirds = newThirds;
+    }
+}
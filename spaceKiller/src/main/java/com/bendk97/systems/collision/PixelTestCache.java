@@ -0,0 +1,126 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 10:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Direct-mapped cache of the results of discrete pixel perfect tests (swept tests are run at sub-pixel steps and are not cached).
+ * A result only depends on the placement of both sprites: the key is made of their masks (so their animation frames),
+ * sizes, rotation buckets, flips and origins, and of their offset, rounded to the pixel like the masks are placed.
+ * Pairs keeping the same relative placement from one tick to another (lasers following their ship,
+ * bosses and the player standing still) are tested once; a new animation frame is a new mask, so a new key.
+ */
+public class PixelTestCache {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int MISS = -1;
+    private static final int KEY_SIZE = 8;
+
+    private final int indexMask;
+    private final int[] keys;
+    private final boolean[] used;
+    private final boolean[] results;
+    private final int[] key = new int[KEY_SIZE];
+    private int hits = 0;
+    private int misses = 0;
+
+    public PixelTestCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PixelTestCache(int capacity) {
+        int size = MathUtils.nextPowerOfTwo(capacity);
+        this.indexMask = size - 1;
+        this.keys = new int[size * KEY_SIZE];
+        this.used = new boolean[size];
+        this.results = new boolean[size];
+    }
+
+    /**
+     * @param mask1 mask of sprite1, null if it has not got any
+     * @return the cached result (1 for a contact, 0 for none), MISS if unknown
+     */
+    public int get(Sprite sprite1, CollisionMask mask1, Sprite sprite2, CollisionMask mask2) {
+        prepare(sprite1, mask1, sprite2, mask2);
+        int index = hash() & indexMask;
+        if (used[index] && matches(index)) {
+            ++hits;
+            return results[index] ? 1 : 0;
+        }
+        ++misses;
+        return MISS;
+    }
+
+    /**
+     * stores the result of the last key given to get
+     */
+    public void put(boolean result) {
+        int index = hash() & indexMask;
+        System.arraycopy(key, 0, keys, index * KEY_SIZE, KEY_SIZE);
+        used[index] = true;
+        results[index] = result;
+    }
+
+    /**
+     * scaled sprites, and rotated sprites without mask, are tested by sampling at sub-pixel positions: their results are not cached
+     */
+    public static boolean isCacheable(Sprite sprite, CollisionMask mask) {
+        return sprite.getScaleX() == 1f && sprite.getScaleY() == 1f && (mask != null || sprite.getRotation() % 360f == 0f);
+    }
+
+    public int hits() {
+        return hits;
+    }
+
+    public int misses() {
+        return misses;
+    }
+
+    public void clear() {
+        for (int i = 0; i < used.length; ++i) {
+            used[i] = false;
+        }
+    }
+
+    private void prepare(Sprite sprite1, CollisionMask mask1, Sprite sprite2, CollisionMask mask2) {
+        key[0] = mask1 == null ? 0 : mask1.id;
+        key[1] = mask2 == null ? 0 : mask2.id;
+        key[2] = Math.round(sprite1.getWidth()) << 16 | Math.round(sprite1.getHeight()) & 0xffff;
+        key[3] = Math.round(sprite2.getWidth()) << 16 | Math.round(sprite2.getHeight()) & 0xffff;
+        key[4] = pose(sprite1) << 16 | pose(sprite2) & 0xffff;
+        key[5] = Math.round(sprite1.getX()) - Math.round(sprite2.getX()) << 16
+                | Math.round(sprite1.getY()) - Math.round(sprite2.getY()) & 0xffff;
+        // the rotated masks are placed around the rounded origins
+        key[6] = Math.round(sprite1.getOriginX()) << 16 | Math.round(sprite1.getOriginY()) & 0xffff;
+        key[7] = Math.round(sprite2.getOriginX()) << 16 | Math.round(sprite2.getOriginY()) & 0xffff;
+    }
+
+    private static int pose(Sprite sprite) {
+        return RotatedCollisionMasks.angleBucket(sprite.getRotation()) << 2
+                | (sprite.isFlipX() ? 2 : 0) | (sprite.isFlipY() ? 1 : 0);
+    }
+
+    private int hash() {
+        int hash = 17;
+        for (int value : key) {
+            hash = hash * 31 + value;
+        }
+        return hash ^ hash >>> 16;
+    }
+
+    private boolean matches(int index) {
+        int offset = index * KEY_SIZE;
+        for (int i = 0; i < KEY_SIZE; ++i) {
+            if (keys[offset + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
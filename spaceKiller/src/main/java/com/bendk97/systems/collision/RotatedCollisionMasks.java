@@ -0,0 +1,167 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 20:40
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Lazily computed masks of rotated and/or flipped regions.
+ * Angles are quantized into ANGLE_STEPS buckets, the least recently used masks are evicted once the cache is full.
+ */
+public class RotatedCollisionMasks {
+
+    public static final int ANGLE_STEPS = 64;
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * a rotated mask, placed relatively to the rotation origin of the sprite
+     */
+    public static class RotatedMask {
+        public CollisionMask mask;
+        public int offsetX;
+        public int offsetY;
+        private long key;
+        private RotatedMask previous;
+        private RotatedMask next;
+    }
+
+    private final int capacity;
+    private final LongMap<RotatedMask> masks;
+    // most recently used first
+    private RotatedMask head;
+    private RotatedMask tail;
+    private int misses = 0;
+
+    public RotatedCollisionMasks() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RotatedCollisionMasks(int capacity) {
+        this.capacity = capacity;
+        this.masks = new LongMap<>(capacity);
+    }
+
+    public static int angleBucket(float rotation) {
+        return Math.round(rotation * ANGLE_STEPS / 360f) & (ANGLE_STEPS - 1);
+    }
+
+    /**
+     * @param maskId  id of the source mask (see CollisionMasks)
+     * @param originX rotation origin, in pixels of the source mask
+     * @param originY rotation origin, in pixels of the source mask
+     */
+    public RotatedMask get(int maskId, CollisionMask source, int bucket, boolean flipX, boolean flipY,
+                           int originX, int originY) {
+        long key = (long) maskId << 32 | (long) (originX & 0xfff) << 20 | (long) (originY & 0xfff) << 8
+                | bucket << 2 | (flipX ? 2 : 0) | (flipY ? 1 : 0);
+        RotatedMask rotated = masks.get(key);
+        if (rotated != null) {
+            moveToHead(rotated);
+            return rotated;
+        }
+        ++misses;
+        if (masks.size >= capacity) {
+            rotated = tail;
+            unlink(rotated);
+            masks.remove(rotated.key);
+        } else {
+            rotated = new RotatedMask();
+        }
+        rotate(source, bucket, flipX, flipY, originX, originY, rotated);
+        rotated.key = key;
+        masks.put(key, rotated);
+        moveToHead(rotated);
+        return rotated;
+    }
+
+    public int size() {
+        return masks.size;
+    }
+
+    public int misses() {
+        return misses;
+    }
+
+    public void clear() {
+        masks.clear();
+        head = tail = null;
+    }
+
+    private static void rotate(CollisionMask source, int bucket, boolean flipX, boolean flipY,
+                               int originX, int originY, RotatedMask rotated) {
+        float angle = bucket * 360f / ANGLE_STEPS;
+        float cos = MathUtils.cosDeg(angle), sin = MathUtils.sinDeg(angle);
+        // bounding box of the rotated region, relatively to the origin
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int corner = 0; corner < 4; ++corner) {
+            float x = (corner & 1) == 0 ? -originX : source.width - originX;
+            float y = (corner & 2) == 0 ? -originY : source.height - originY;
+            float rotatedX = x * cos - y * sin;
+            float rotatedY = x * sin + y * cos;
+            minX = Math.min(minX, rotatedX);
+            minY = Math.min(minY, rotatedY);
+            maxX = Math.max(maxX, rotatedX);
+            maxY = Math.max(maxY, rotatedY);
+        }
+        int offsetX = MathUtils.floor(minX + 0.001f), offsetY = MathUtils.floor(minY + 0.001f);
+        int width = MathUtils.ceil(maxX - 0.001f) - offsetX, height = MathUtils.ceil(maxY - 0.001f) - offsetY;
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int row = 0; row < height; ++row) {
+            float y = offsetY + row + 0.5f;
+            for (int column = 0; column < width; ++column) {
+                float x = offsetX + column + 0.5f;
+                // inverse rotation back into the source region
+                int sourceColumn = MathUtils.floor(x * cos + y * sin + originX);
+                int sourceRow = MathUtils.floor(-x * sin + y * cos + originY);
+                if (flipX) {
+                    sourceColumn = source.width - 1 - sourceColumn;
+                }
+                if (flipY) {
+                    sourceRow = source.height - 1 - sourceRow;
+                }
+                if (source.isSolid(sourceColumn, sourceRow)) {
+                    mask.set(column, row);
+                }
+            }
+        }
+        rotated.mask = mask;
+        rotated.offsetX = offsetX;
+        rotated.offsetY = offsetY;
+    }
+
+    private void moveToHead(RotatedMask rotated) {
+        if (head == rotated) {
+            return;
+        }
+        unlink(rotated);
+        rotated.next = head;
+        if (head != null) {
+            head.previous = rotated;
+        }
+        head = rotated;
+        if (tail == null) {
+            tail = rotated;
+        }
+    }
+
+    private void unlink(RotatedMask rotated) {
+        if (rotated.previous != null) {
+            rotated.previous.next = rotated.next;
+        }
+        if (rotated.next != null) {
+            rotated.next.previous = rotated.previous;
+        }
+        if (head == rotated) {
+            head = rotated.next;
+        }
+        if (tail == rotated) {
+            tail = rotated.previous;
+        }
+        rotated.previous = rotated.next = null;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 03:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.profiling;
+
+import java.lang.reflect.Method;
+
+/**
+ * Bytes allocated by the current thread, read from the HotSpot thread bean through reflection
+ * (java.lang.management does not exist on Android).
+ */
+class AllocationCounter {
+
+    private final Object threadBean;
+    private final Method allocatedBytes;
+    // bytes allocated by a read itself (boxing of the reflective call)
+    private final long overhead;
+
+    private AllocationCounter(Object threadBean, Method allocatedBytes) {
+        this.threadBean = threadBean;
+        this.allocatedBytes = allocatedBytes;
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 4; ++i) {
+            long before = read();
+            overhead = Math.min(overhead, read() - before);
+        }
+        this.overhead = overhead;
+    }
+
+    /**
+     * @return null if the JVM cannot count the allocations
+     */
+    static AllocationCounter create() {
+        try {
+            Object threadBean = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean").invoke(null);
+            Class<?> hotSpotBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!hotSpotBean.isInstance(threadBean)
+                    || !(Boolean) hotSpotBean.getMethod("isThreadAllocatedMemorySupported").invoke(threadBean)
+                    || !(Boolean) hotSpotBean.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadBean)) {
+                return null;
+            }
+            return new AllocationCounter(threadBean, hotSpotBean.getMethod("getThreadAllocatedBytes", long.class));
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    long read() {
+        try {
+            return (Long) allocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * @return bytes allocated since before was read
+     */
+    long since(long before) {
+        return Math.max(0L, read() - before - overhead);
+    }
+}
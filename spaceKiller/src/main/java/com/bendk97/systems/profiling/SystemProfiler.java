@@ -0,0 +1,137 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 15:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.profiling;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.systems.SortedIteratingSystem;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.bendk97.systems.EnemyAttackSystem;
+import com.bendk97.systems.MovementSystem;
+import com.bendk97.systems.ParallelIteratingSystem;
+import com.bendk97.systems.TimeSlicedIteratingSystem;
+
+/**
+ * Samples of the time spent by each system, measured by the schedule where the system runs (see SystemSchedule.setProfiler):
+ * the concurrent systems on their thread, the others each by an engine update of their own
+ * (the pending entity operations of a system are part of its time, the buffered structural changes are part of the last one).
+ * Allocations are those of the thread running the system, on JVMs able to count them.
+ */
+public class SystemProfiler {
+
+    // updates kept per system
+    public static final int WINDOW = 120;
+    private static final String CSV_HEADER = "system,updates,average_us,max_us,average_entities,average_bytes\n";
+    private static final char COMMA = ',';
+    private static final char NEWLINE = '\n';
+    private static final int NANOS_TO_MICROS = 1000;
+
+    private final ObjectMap<EntitySystem, SystemSamples> samplesBySystem = new ObjectMap<>();
+    private final Array<SystemSamples> samples = new Array<>(false, 32, SystemSamples.class);
+    private final AllocationCounter allocationCounter = AllocationCounter.create();
+
+    /**
+     * @return bytes allocated by the current thread so far, 0 if the allocations are not counted
+     */
+    public long allocatedBytes() {
+        return allocationCounter == null ? 0L : allocationCounter.read();
+    }
+
+    /**
+     * @return bytes allocated by the current thread since before was read by allocatedBytes
+     */
+    public long allocatedSince(long before) {
+        return allocationCounter == null ? 0L : allocationCounter.since(before);
+    }
+
+    /**
+     * adds the sample of an update of the system, on the thread updating the engine
+     */
+    public void record(EntitySystem system, long nanos, long bytes) {
+        samplesOf(system).add(nanos, entitiesOf(system), bytes);
+    }
+
+    public boolean isCountingAllocations() {
+        return allocationCounter != null;
+    }
+
+    public SystemSamples getSamples(EntitySystem system) {
+        return samplesBySystem.get(system);
+    }
+
+    /**
+     * @return the samples of the systems with the highest average time, first the slowest
+     */
+    public Array<SystemSamples> top(int count, Array<SystemSamples> result) {
+        result.clear();
+        for (SystemSamples candidate : samples) {
+            int index = result.size;
+            while (index > 0 && result.get(index - 1).averageNanos() < candidate.averageNanos()) {
+                --index;
+            }
+            if (index < count) {
+                result.insert(index, candidate);
+                if (result.size > count) {
+                    result.pop();
+                }
+            }
+        }
+        return result;
+    }
+
+    public StringBuilder exportCsv(StringBuilder sb) {
+        sb.append(CSV_HEADER);
+        for (SystemSamples systemSamples : samples) {
+            sb.append(systemSamples.name).append(COMMA)
+                    .append(systemSamples.count()).append(COMMA)
+                    .append(systemSamples.averageNanos() / NANOS_TO_MICROS).append(COMMA)
+                    .append(systemSamples.maxNanos() / NANOS_TO_MICROS).append(COMMA)
+                    .append(systemSamples.averageEntities()).append(COMMA)
+                    .append(systemSamples.averageBytes()).append(NEWLINE);
+        }
+        return sb;
+    }
+
+    public void writeCsv(FileHandle file) {
+        file.writeString(exportCsv(new StringBuilder()).toString(), false);
+    }
+
+    private SystemSamples samplesOf(EntitySystem system) {
+        SystemSamples systemSamples = samplesBySystem.get(system);
+        if (systemSamples == null) {
+            systemSamples = new SystemSamples(system.getClass().getSimpleName(), WINDOW);
+            samplesBySystem.put(system, systemSamples);
+            samples.add(systemSamples);
+        }
+        return systemSamples;
+    }
+
+    private static int entitiesOf(EntitySystem system) {
+        if (system instanceof IteratingSystem) {
+            return ((IteratingSystem) system).getEntities().size();
+        }
+        if (system instanceof SortedIteratingSystem) {
+            return ((SortedIteratingSystem) system).getEntities().size();
+        }
+        if (system instanceof ParallelIteratingSystem) {
+            return ((ParallelIteratingSystem) system).getEntities().size();
+        }
+        if (system instanceof TimeSlicedIteratingSystem) {
+            return ((TimeSlicedIteratingSystem) system).getEntities().size();
+        }
+        if (system instanceof EnemyAttackSystem) {
+            return ((EnemyAttackSystem) system).getScheduledCount();
+        }
+        if (system instanceof MovementSystem) {
+            return ((MovementSystem) system).getStore().size();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 03:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.profiling;
+
+/**
+ * Last updates of one system in a rolling window: duration, entities processed and bytes allocated.
+ */
+public class SystemSamples {
+
+    public final String name;
+    private final long[] nanos;
+    private final int[] entities;
+    private final long[] bytes;
+    private int index = 0;
+    private int count = 0;
+    private long totalNanos = 0;
+    private long totalEntities = 0;
+    private long totalBytes = 0;
+
+    SystemSamples(String name, int window) {
+        this.name = name;
+        this.nanos = new long[window];
+        this.entities = new int[window];
+        this.bytes = new long[window];
+    }
+
+    void add(long nanos, int entities, long bytes) {
+        if (count == this.nanos.length) {
+            totalNanos -= this.nanos[index];
+            totalEntities -= this.entities[index];
+            totalBytes -= this.bytes[index];
+        } else {
+            ++count;
+        }
+        this.nanos[index] = nanos;
+        this.entities[index] = entities;
+        this.bytes[index] = bytes;
+        totalNanos += nanos;
+        totalEntities += entities;
+        totalBytes += bytes;
+        index = (index + 1) % this.nanos.length;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long averageNanos() {
+        return count == 0 ? 0L : totalNanos / count;
+    }
+
+    public long maxNanos() {
+        long max = 0L;
+        for (int i = 0; i < count; ++i) {
+            max = Math.max(max, nanos[i]);
+        }
+        return max;
+    }
+
+    public int averageEntities() {
+        return count == 0 ? 0 : (int) (totalEntities / count);
+    }
+
+    public long averageBytes() {
+        return count == 0 ? 0L : totalBytes / count;
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 07:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.schedule;
+
+/**
+ * System which can be added to a SystemSchedule.
+ */
+public interface ScheduledSystem {
+
+    /**
+     * declares the phase of the system and what it reads and writes, called once when it is added to the schedule
+     */
+    void declare(SystemAccess access);
+}
@@ -0,0 +1,96 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 07:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.schedule;
+
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Declaration of a system: its phase, the components and other resources (batcher, camera, blackboard...)
+ * it reads and writes, and how it can run.
+ * Two systems of the same phase conflict when one writes what the other reads or writes, or when one is exclusive.
+ */
+public class SystemAccess {
+
+    private SystemPhase phase;
+    private final ObjectSet<Object> reads = new ObjectSet<>(8);
+    private final ObjectSet<Object> writes = new ObjectSet<>(8);
+    private boolean concurrent = false;
+    private boolean exclusive = false;
+
+    public SystemAccess phase(SystemPhase phase) {
+        this.phase = phase;
+        return this;
+    }
+
+    /**
+     * @param resources component classes or any other shared object
+     */
+    public SystemAccess reads(Object... resources) {
+        for (Object resource : resources) {
+            reads.add(resource);
+        }
+        return this;
+    }
+
+    /**
+     * @param resources component classes or any other shared object
+     */
+    public SystemAccess writes(Object... resources) {
+        for (Object resource : resources) {
+            writes.add(resource);
+        }
+        return this;
+    }
+
+    /**
+     * the system can be updated on a worker thread, at the same time as the other systems of its wave:
+     * it makes its structural changes through the command buffer only, and uses neither the pools, the tweens nor GL
+     */
+    public SystemAccess concurrent() {
+        this.concurrent = true;
+        return this;
+    }
+
+    /**
+     * the system creates or removes entities, or uses the tweens: it conflicts with every system of its phase
+     */
+    public SystemAccess exclusive() {
+        this.exclusive = true;
+        return this;
+    }
+
+    public SystemPhase getPhase() {
+        return phase;
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public boolean isExclusive() {
+        return exclusive;
+    }
+
+    boolean conflictsWith(SystemAccess other) {
+        if (phase != other.phase) {
+            return false;
+        }
+        if (exclusive || other.exclusive) {
+            return true;
+        }
+        return intersects(writes, other.reads) || intersects(writes, other.writes) || intersects(reads, other.writes);
+    }
+
+    private static boolean intersects(ObjectSet<Object> set1, ObjectSet<Object> set2) {
+        for (Object resource : set1) {
+            if (set2.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 07:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.schedule;
+
+/**
+ * Phases of the systems, in the order they run: LOGIC and POST (clean up of the step) are run by the logic steps,
+ * RENDER (world batcher) and HUD (HUD batcher) once per frame.
+ */
+public enum SystemPhase {
+    LOGIC, RENDER, HUD, POST;
+
+    public boolean isRendering() {
+        return this == RENDER || this == HUD;
+    }
+}
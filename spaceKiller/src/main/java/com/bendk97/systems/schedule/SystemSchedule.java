@@ -0,0 +1,351 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 16:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.schedule;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.bendk97.entities.BufferedEngine;
+import com.bendk97.systems.SystemWorkers;
+import com.bendk97.systems.profiling.SystemProfiler;
+
+import java.util.Comparator;
+
+/**
+ * Order of the systems of an engine, built from their declarations (see ScheduledSystem) instead of hand written priorities.
+ * The dependency graph goes from each system to the conflicting systems of its phase declared after it:
+ * conflicting systems run in the order of the priorities they were created with, then in the order they were added,
+ * as the engine would run them. A system runs in the wave following the last of its dependencies:
+ * the concurrent systems of a wave are updated at the same time, the others one after the other in an engine update.
+ * Every system of the engine must be added through the schedule.
+ */
+public class SystemSchedule {
+
+    private final BufferedEngine engine;
+    // by declared priority then order of addition
+    private final Array<Node> nodes = new Array<>(true, 32, Node.class);
+    // by phase, wave then declared order: the priorities of the engine
+    private final Array<Node> order = new Array<>(true, 32, Node.class);
+    private final Comparator<Node> declared = new Comparator<Node>() {
+        @Override
+        public int compare(Node node1, Node node2) {
+            return node1.priority != node2.priority ? Integer.compare(node1.priority, node2.priority) : Integer.compare(node1.index, node2.index);
+        }
+    };
+    private final Comparator<Node> comparator = new Comparator<Node>() {
+        @Override
+        public int compare(Node node1, Node node2) {
+            int phases = node1.access.getPhase().compareTo(node2.access.getPhase());
+            if (phases != 0) {
+                return phases;
+            }
+            return node1.wave != node2.wave ? Integer.compare(node1.wave, node2.wave) : declared.compare(node1, node2);
+        }
+    };
+    private final Array<Node> parallel = new Array<>(false, 8, Node.class);
+    private final Array<AsyncResult<Void>> results = new Array<>(false, 8);
+    private final Runnable updateParallel = this::updateParallel;
+    private int added = 0;
+    private boolean hasSequential = false;
+    private float deltaTime;
+    private SystemProfiler profiler;
+
+    public SystemSchedule(BufferedEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * adds the system to the engine, after the systems it conflicts with which have a lower priority
+     * or the same one and were added before
+     */
+    public void add(EntitySystem system) {
+        if (!(system instanceof ScheduledSystem)) {
+            throw new IllegalArgumentException("system without declaration: " + system.getClass().getSimpleName());
+        }
+        if (getWave(system) != -1) {
+            throw new IllegalArgumentException("system already scheduled: " + system.getClass().getSimpleName());
+        }
+        SystemAccess access = new SystemAccess();
+        ((ScheduledSystem) system).declare(access);
+        if (access.getPhase() == null) {
+            throw new IllegalArgumentException("system without phase: " + system.getClass().getSimpleName());
+        }
+        if (access.isConcurrent() && access.isExclusive()) {
+            throw new IllegalArgumentException("exclusive system cannot be concurrent: " + system.getClass().getSimpleName());
+        }
+        // like the engine, a single system per class
+        Node replaced = nodeOf(system.getClass());
+        if (replaced != null) {
+            nodes.removeValue(replaced, true);
+        }
+        nodes.add(new Node(system, access, added++));
+        build();
+        // the engine sorts its systems again when one is added
+        engine.addSystem(system);
+    }
+
+    /**
+     * removes every scheduled system from the engine
+     */
+    public void removeAll() {
+        for (Node node : nodes) {
+            engine.removeSystem(node.system);
+        }
+        nodes.clear();
+        order.clear();
+    }
+
+    /**
+     * only the systems of the rendering phases, or only the others, are processed by the next updates
+     */
+    public void processRendering(boolean rendering) {
+        for (Node node : nodes) {
+            node.system.setProcessing(node.access.getPhase().isRendering() == rendering);
+        }
+    }
+
+    /**
+     * replaces engine.update: the systems processing are run wave by wave
+     */
+    public void update(float deltaTime) {
+        this.deltaTime = deltaTime;
+        for (Node node : order) {
+            node.processing = node.system.checkProcessing();
+            node.sequential = false;
+        }
+        try {
+            int start = 0;
+            while (start < order.size) {
+                int end = start + 1;
+                while (end < order.size && order.get(end).isInWaveOf(order.get(start))) {
+                    ++end;
+                }
+                parallel.clear();
+                for (int i = start; i < end; ++i) {
+                    Node node = order.get(i);
+                    if (node.processing && node.access.isConcurrent()) {
+                        parallel.add(node);
+                    } else if (node.processing) {
+                        node.sequential = hasSequential = true;
+                    }
+                }
+                if (parallel.size > 1) {
+                    updateSequential();
+                    engine.updateOutsideLoop(updateParallel);
+                } else if (parallel.size == 1) {
+                    parallel.first().sequential = hasSequential = true;
+                }
+                start = end;
+            }
+            // at least one engine update per step, for its end of update work
+            hasSequential = true;
+            updateSequential();
+        } finally {
+            for (Node node : order) {
+                node.system.setProcessing(node.processing);
+            }
+            parallel.clear();
+        }
+    }
+
+    /**
+     * each system is measured where it runs by the next updates, null to stop
+     */
+    public void setProfiler(SystemProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return the wave of the system in its phase, -1 if it is not scheduled
+     */
+    public int getWave(EntitySystem system) {
+        Node node = nodeOf(system);
+        return node == null ? -1 : node.wave;
+    }
+
+    /**
+     * adds the system through the schedule of the engine, if any
+     */
+    public static void addSystem(Engine engine, EntitySystem system) {
+        if (engine instanceof BufferedEngine) {
+            ((BufferedEngine) engine).getSchedule().add(system);
+        } else {
+            engine.addSystem(system);
+        }
+    }
+
+    private void build() {
+        nodes.sort(declared);
+        for (int i = 0; i < nodes.size; ++i) {
+            Node node = nodes.get(i);
+            node.wave = 0;
+            for (int j = 0; j < i; ++j) {
+                Node dependency = nodes.get(j);
+                if (dependency.access.conflictsWith(node.access)) {
+                    node.wave = Math.max(node.wave, dependency.wave + 1);
+                }
+            }
+        }
+        order.clear();
+        order.addAll(nodes);
+        order.sort(comparator);
+        for (int i = 0; i < order.size; ++i) {
+            order.get(i).system.priority = i;
+        }
+    }
+
+    /**
+     * the systems waiting to run one after the other, in a single engine update
+     */
+    private void updateSequential() {
+        if (!hasSequential) {
+            return;
+        }
+        hasSequential = false;
+        if (profiler != null) {
+            updateSequentialProfiled();
+            return;
+        }
+        for (Node node : order) {
+            node.system.setProcessing(node.sequential);
+            node.sequential = false;
+        }
+        engine.update(deltaTime);
+    }
+
+    /**
+     * the waiting systems run by an engine update each, the buffered structural changes are made after the last one
+     * as in a single update
+     */
+    private void updateSequentialProfiled() {
+        Node last = null;
+        for (Node node : order) {
+            node.system.setProcessing(false);
+            if (node.sequential) {
+                last = node;
+            }
+        }
+        if (last == null) {
+            engine.update(deltaTime);
+            return;
+        }
+        for (Node node : order) {
+            if (!node.sequential) {
+                continue;
+            }
+            node.sequential = false;
+            node.system.setProcessing(true);
+            long bytes = profiler.allocatedBytes();
+            long start = System.nanoTime();
+            try {
+                engine.update(deltaTime, node == last);
+            } finally {
+                node.system.setProcessing(false);
+            }
+            profiler.record(node.system, System.nanoTime() - start, profiler.allocatedSince(bytes));
+        }
+    }
+
+    private void updateParallel() {
+        AsyncExecutor executor = SystemWorkers.executor();
+        for (int i = 1; i < parallel.size; ++i) {
+            Node node = parallel.get(i);
+            node.deltaTime = deltaTime;
+            node.profiler = profiler;
+            results.add(executor.submit(node));
+        }
+        try {
+            Node first = parallel.first();
+            first.deltaTime = deltaTime;
+            first.profiler = profiler;
+            first.update();
+        } finally {
+            // the whole wave is done before the next one can read what it wrote
+            for (AsyncResult<Void> result : results) {
+                result.get();
+            }
+            results.clear();
+        }
+        if (profiler != null) {
+            for (Node node : parallel) {
+                profiler.record(node.system, node.nanos, node.bytes);
+            }
+        }
+    }
+
+    private Node nodeOf(EntitySystem system) {
+        for (Node node : nodes) {
+            if (node.system == system) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private Node nodeOf(Class<? extends EntitySystem> type) {
+        for (Node node : nodes) {
+            if (node.system.getClass() == type) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static class Node implements AsyncTask<Void> {
+        final EntitySystem system;
+        final SystemAccess access;
+        // the priority of the system when it was added, replaced by its place in the schedule
+        final int priority;
+        final int index;
+        int wave;
+        boolean processing, sequential;
+        float deltaTime;
+        // measures of the last update, when profiled
+        SystemProfiler profiler;
+        long nanos, bytes;
+
+        Node(EntitySystem system, SystemAccess access, int index) {
+            this.system = system;
+            this.access = access;
+            this.priority = system.priority;
+            this.index = index;
+        }
+
+        boolean isInWaveOf(Node other) {
+            return access.getPhase() == other.access.getPhase() && wave == other.wave;
+        }
+
+        /**
+         * run by a worker
+         */
+        @Override
+        public Void call() {
+            SystemWorkers.enter();
+            try {
+                update();
+            } finally {
+                SystemWorkers.leave();
+            }
+            return null;
+        }
+
+        void update() {
+            if (profiler == null) {
+                system.update(deltaTime);
+                return;
+            }
+            long bytesBefore = profiler.allocatedBytes();
+            long start = System.nanoTime();
+            system.update(deltaTime);
+            nanos = System.nanoTime() - start;
+            bytes = profiler.allocatedSince(bytesBefore);
+        }
+    }
+}
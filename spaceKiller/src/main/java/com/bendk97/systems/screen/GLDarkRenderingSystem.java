@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 14/10/18 00:09
+ * Last modified 18/10/26 07:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -15,11 +15,14 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
 
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
 import static com.bendk97.SpaceKillerGameConstants.SCREEN_WIDTH;
 
-public abstract class GLDarkRenderingSystem extends IteratingSystem {
+public abstract class GLDarkRenderingSystem extends IteratingSystem implements ScheduledSystem {
 
     private static final Color BLACK_60 = new Color(0, 0, 0, 0.6f);
     protected final SpriteBatch batcher;
@@ -46,4 +49,9 @@ public abstract class GLDarkRenderingSystem extends IteratingSystem {
         Gdx.gl.glDisable(GL20.GL_BLEND);
         batcher.begin();
     }
+
+    @Override
+    public void declare(SystemAccess access) {
+        access.phase(SystemPhase.HUD).writes(batcher);
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 02/11/18 09:24
+ * Last modified 18/10/26 12:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -9,13 +9,14 @@ package com.bendk97.tweens;
 import aurelienribon.tweenengine.TweenCallback;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.bendk97.entities.EntityCommandBuffer;
 
 public class TweenCallbacks {
 
     public static TweenCallback removeEntity(Engine engine, Entity entity) {
         return (i, baseTween) -> {
             if (i == TweenCallback.COMPLETE) {
-                engine.removeEntity(entity);
+                EntityCommandBuffer.removeEntity(engine, entity);
             }
         };
     }
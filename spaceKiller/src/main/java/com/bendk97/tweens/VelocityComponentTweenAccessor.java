@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 29/09/18 21:09
+ * Last modified 18/10/26 01:50
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -17,10 +17,10 @@ public class VelocityComponentTweenAccessor implements TweenAccessor<VelocityCom
     public int getValues(VelocityComponent target, int type, float[] returnValues) {
         switch (type) {
             case VELOCITY_X:
-                returnValues[0] = target.x;
+                returnValues[0] = target.x();
                 return 1;
             case VELOCITY_Y:
-                returnValues[0] = target.y;
+                returnValues[0] = target.y();
                 return 1;
             default:
                 return -1;
@@ -31,10 +31,10 @@ public class VelocityComponentTweenAccessor implements TweenAccessor<VelocityCom
     public void setValues(VelocityComponent target, int type, float[] newValues) {
         switch (type) {
             case VELOCITY_X:
-                target.x = newValues[0];
+                target.setX(newValues[0]);
                 break;
             case VELOCITY_Y:
-                target.y = newValues[0];
+                target.setY(newValues[0]);
                 break;
             default:
                 break;
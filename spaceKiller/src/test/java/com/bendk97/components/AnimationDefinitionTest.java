@@ -0,0 +1,46 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 06:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class AnimationDefinitionTest {
+
+    private final Array<TextureRegion> frames = new Array<>(new TextureRegion[]{
+            new TextureRegion(), new TextureRegion(), new TextureRegion(), new TextureRegion()});
+
+    @Test
+    public void frames_are_the_ones_of_a_gdx_animation() {
+        for (PlayMode playMode : new PlayMode[]{PlayMode.NORMAL, PlayMode.REVERSED, PlayMode.LOOP,
+                PlayMode.LOOP_REVERSED, PlayMode.LOOP_PINGPONG}) {
+            AnimationDefinition definition = new AnimationDefinition(0.1f, frames, playMode);
+            Animation<TextureRegion> animation = new Animation<>(0.1f, frames, playMode);
+            for (float time = 0f; time < 2f; time += 0.03f) {
+                assertThat(definition.frame(definition.frameIndex(time))).isSameAs(animation.getKeyFrame(time));
+            }
+        }
+    }
+
+    @Test
+    public void only_a_normal_animation_finishes() {
+        AnimationDefinition normal = new AnimationDefinition(0.1f, frames, PlayMode.NORMAL);
+        AnimationDefinition loop = new AnimationDefinition(0.1f, frames, PlayMode.LOOP);
+
+        assertThat(normal.isFinished(0.35f)).isFalse();
+        assertThat(normal.isFinished(0.45f)).isTrue();
+        assertThat(loop.isFinished(10f)).isFalse();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 06:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components.helpers;
+
+import com.badlogic.ashley.core.Entity;
+import com.bendk97.components.BoundsComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
+import static com.bendk97.components.helpers.Activity.ACTIVATION_MARGIN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ActivityTest {
+
+    private final Entity entity = new Entity();
+    private final BoundsComponent bounds = new BoundsComponent();
+
+    @Test
+    public void entity_without_bounds_is_active() {
+        entity.flags |= Activity.DORMANT;
+
+        Activity.update(entity);
+
+        assertThat(Activity.isDormant(entity)).isFalse();
+    }
+
+    @Test
+    public void entity_is_woken_in_the_activation_margin() {
+        entity.add(bounds);
+        setBounds(10f, SCREEN_HEIGHT + ACTIVATION_MARGIN + 1f);
+        Activity.update(entity);
+        assertThat(Activity.isDormant(entity)).isTrue();
+
+        setBounds(10f, SCREEN_HEIGHT + ACTIVATION_MARGIN - 1f);
+        Activity.update(entity);
+
+        assertThat(Activity.isDormant(entity)).isFalse();
+    }
+
+    private void setBounds(float x, float y) {
+        bounds.minX = x;
+        bounds.maxX = x + 32f;
+        bounds.minY = y;
+        bounds.maxY = y + 32f;
+    }
+}
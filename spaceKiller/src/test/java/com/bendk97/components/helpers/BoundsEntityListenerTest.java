@@ -0,0 +1,109 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 08:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.components.helpers;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.bendk97.components.BoundsComponent;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.SpriteComponent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.*;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+@RunWith(JUnit4.class)
+public class BoundsEntityListenerTest {
+
+    private final Engine engine = new Engine();
+
+    @Before
+    public void init() {
+        BoundsEntityListener.register(engine);
+    }
+
+    @Test
+    public void bounds_follow_position() {
+        Entity entity = createEntity(engine, PositionComponent.class, SpriteComponent.class);
+        sprite.get(entity).sprite = new Sprite(mock(Texture.class), 20, 10);
+
+        position.get(entity).setXY(100f, 200f);
+
+        BoundsComponent boundsComponent = bounds.get(entity);
+        assertThat(boundsComponent.minX).isEqualTo(100f);
+        assertThat(boundsComponent.minY).isEqualTo(200f);
+        assertThat(boundsComponent.maxX).isEqualTo(120f);
+        assertThat(boundsComponent.maxY).isEqualTo(210f);
+        assertThat(boundsComponent.centerX).isEqualTo(110f);
+        assertThat(boundsComponent.centerY).isEqualTo(205f);
+        assertThat(boundsComponent.radius).isEqualTo(10f);
+        assertThat(boundsComponent.isOffScreen()).isFalse();
+
+        position.get(entity).setY(-20f);
+        assertThat(boundsComponent.maxY).isEqualTo(-10f);
+        assertThat(boundsComponent.isOffScreen()).isTrue();
+    }
+
+    @Test
+    public void bounds_contain_rotated_sprite() {
+        Entity entity = createEntity(engine, PositionComponent.class, SpriteComponent.class);
+        Sprite rotated = new Sprite(mock(Texture.class), 20, 10);
+        rotated.setOriginCenter();
+        rotated.setRotation(90f);
+        sprite.get(entity).sprite = rotated;
+
+        position.get(entity).setXY(0f, 0f);
+
+        BoundsComponent boundsComponent = bounds.get(entity);
+        assertThat(boundsComponent.minX).isCloseTo(5f, within(0.001f));
+        assertThat(boundsComponent.maxX).isCloseTo(15f, within(0.001f));
+        assertThat(boundsComponent.minY).isCloseTo(-5f, within(0.001f));
+        assertThat(boundsComponent.maxY).isCloseTo(15f, within(0.001f));
+    }
+
+    @Test
+    public void bounds_are_refreshed_when_the_sprite_is_transformed() {
+        Entity entity = createEntity(engine, PositionComponent.class, SpriteComponent.class);
+        Sprite sprite = new Sprite(mock(Texture.class), 20, 10);
+        sprite.setOriginCenter();
+        ComponentMapperHelper.sprite.get(entity).sprite = sprite;
+        position.get(entity).setXY(0f, 0f);
+        BoundsComponent boundsComponent = bounds.get(entity);
+
+        sprite.setRotation(90f);
+        assertThat(boundsComponent.maxY).isEqualTo(10f);
+        boundsComponent.refresh();
+        assertThat(boundsComponent.maxY).isCloseTo(15f, within(0.001f));
+
+        sprite.setRotation(0f);
+        sprite.setSize(40f, 10f);
+        boundsComponent.refresh();
+        assertThat(boundsComponent.maxX).isEqualTo(40f);
+        assertThat(boundsComponent.radius).isEqualTo(20f);
+    }
+
+    @Test
+    public void removed_entity_does_not_update_its_bounds_anymore() {
+        Entity entity = createEntity(engine, PositionComponent.class, SpriteComponent.class);
+        sprite.get(entity).sprite = new Sprite(mock(Texture.class), 20, 10);
+        BoundsComponent boundsComponent = bounds.get(entity);
+        PositionComponent positionComponent = position.get(entity);
+
+        engine.removeEntity(entity);
+        positionComponent.setXY(100f, 100f);
+
+        assertThat(boundsComponent.maxX).isEqualTo(0f);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 03:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.entities;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.Array;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.VelocityComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.position;
+import static com.bendk97.components.helpers.ComponentMapperHelper.velocity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class EntityArchetypeTest {
+
+    private final PooledEngine engine = new PooledEngine();
+    private final EntityArchetype archetype = new EntityArchetype(engine, PositionComponent.class, VelocityComponent.class);
+
+    @Test
+    public void entities_are_spawned_complete() {
+        Array<Entity> added = new Array<>();
+        engine.addEntityListener(archetype.getFamily(), new EntityListener() {
+            @Override
+            public void entityAdded(Entity entity) {
+                assertThat(velocity.get(entity).y()).isEqualTo(-10f);
+                added.add(entity);
+            }
+
+            @Override
+            public void entityRemoved(Entity entity) {
+            }
+        });
+        Array<Entity> bullets = archetype.create(12, new Array<>());
+        assertThat(engine.getEntities().size()).isZero();
+        for (Entity bullet : bullets) {
+            assertThat(position.get(bullet)).isNotNull();
+            velocity.get(bullet).setY(-10f);
+        }
+
+        archetype.spawn(bullets);
+
+        assertThat(added).containsExactlyElementsOf(bullets);
+        assertThat(engine.getEntitiesFor(archetype.getFamily()).size()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 04:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.entities;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.VelocityComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class EntityCommandBufferTest {
+
+    private final BufferedEngine engine = new BufferedEngine(10, 100, 10, 100);
+    private final EntityCommandBuffer commands = engine.getCommands();
+
+    @Test
+    public void changes_asked_during_an_update_are_made_at_its_end() {
+        final Entity removed = entity();
+        final Entity kept = entity();
+        engine.addEntity(removed);
+        engine.addEntity(kept);
+        final Entity added = entity();
+        final Entity[] seen = new Entity[1];
+        engine.addSystem(new EntitySystem() {
+            @Override
+            public void update(float deltaTime) {
+                commands.remove(removed);
+                commands.removeComponent(kept, VelocityComponent.class);
+                commands.add(added);
+                assertThat(commands.isRemoved(removed)).isTrue();
+                assertThat(commands.size()).isEqualTo(3);
+                assertThat(engine.getEntities()).containsExactly(removed, kept);
+                seen[0] = engine.getEntitiesFor(Family.all(VelocityComponent.class).get()).first();
+                setProcessing(false);
+            }
+        });
+
+        engine.update(0.1f);
+
+        assertThat(seen[0]).isSameAs(removed);
+        assertThat(commands.size()).isZero();
+        assertThat(engine.getEntities()).containsOnly(kept, added);
+        assertThat(kept.getComponent(VelocityComponent.class)).isNull();
+    }
+
+    @Test
+    public void entity_added_and_removed_in_the_same_update_never_enters_the_engine() {
+        final Entity bullet = entity();
+        final Entity enemy = entity();
+        engine.addEntity(enemy);
+        engine.addSystem(new EntitySystem() {
+            @Override
+            public void update(float deltaTime) {
+                commands.add(bullet);
+                commands.remove(bullet);
+                commands.removeComponent(enemy, PositionComponent.class);
+                commands.remove(enemy);
+            }
+        });
+
+        engine.update(0.1f);
+
+        assertThat(engine.getEntities()).isEmpty();
+        assertThat(commands.isRemoved(bullet)).isFalse();
+    }
+
+    @Test
+    public void changes_outside_of_an_update_are_made_at_once() {
+        Entity entity = entity();
+        commands.add(entity);
+        assertThat(engine.getEntities()).containsExactly(entity);
+
+        commands.remove(entity);
+
+        assertThat(engine.getEntities()).isEmpty();
+        assertThat(commands.size()).isZero();
+    }
+
+    private Entity entity() {
+        Entity entity = engine.createEntity();
+        entity.add(engine.createComponent(PositionComponent.class));
+        entity.add(engine.createComponent(VelocityComponent.class));
+        return entity;
+    }
+}
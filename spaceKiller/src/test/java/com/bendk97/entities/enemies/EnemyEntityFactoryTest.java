@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 19/10/18 20:18
+ * Last modified 17/10/26 22:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -185,14 +185,15 @@ public class EnemyEntityFactoryTest {
                 PositionComponent.class,
                 SpriteComponent.class,
                 GroundEnemyComponent.class);
-        assertThat(tank.get(1).getComponents()).hasSize(6);
+        assertThat(tank.get(1).getComponents()).hasSize(7);
         assertThat(tank.get(1).getComponents()).hasOnlyElementsOfTypes(
                 PositionComponent.class,
                 GroundEnemyComponent.class,
                 TankComponent.class,
                 FollowPlayerComponent.class,
                 SpriteComponent.class,
-                EnemyComponent.class);
+                EnemyComponent.class,
+                CollisionComponent.class);
         verify(sprites).findRegion("tankCannon");
     }
 
@@ -397,13 +398,14 @@ public class EnemyEntityFactoryTest {
     public void boss_1_is_created() {
         Entity boss = enemyEntityFactory.createBoss(entityFactory.engine.createEntity(), 1f, 1f);
         assertThat(boss).isNotNull();
-        assertThat(boss.getComponents()).hasSize(5);
+        assertThat(boss.getComponents()).hasSize(6);
         assertThat(boss.getComponents()).hasOnlyElementsOfTypes(
                 BossComponent.class,
                 EnemyComponent.class,
                 PositionComponent.class,
                 SpriteComponent.class,
-                StatusHealthComponent.class
+                StatusHealthComponent.class,
+                CollisionComponent.class
         );
         verify(sprites).findRegion("boss-level1");
         EnemyComponent enemyComponent = ComponentMapperHelper.enemy.get(boss);
@@ -414,13 +416,14 @@ public class EnemyEntityFactoryTest {
     public void boss_2_is_created() {
         Entity boss = enemyEntityFactory.createBoss2(entityFactory.engine.createEntity(), 1f, 1f, 1f);
         assertThat(boss).isNotNull();
-        assertThat(boss.getComponents()).hasSize(5);
+        assertThat(boss.getComponents()).hasSize(6);
         assertThat(boss.getComponents()).hasOnlyElementsOfTypes(
                 BossComponent.class,
                 EnemyComponent.class,
                 PositionComponent.class,
                 SpriteComponent.class,
-                StatusHealthComponent.class
+                StatusHealthComponent.class,
+                CollisionComponent.class
         );
         verify(sprites).findRegion("boss");
         EnemyComponent enemyComponent = ComponentMapperHelper.enemy.get(boss);
@@ -431,7 +434,7 @@ public class EnemyEntityFactoryTest {
     public void boss_3_is_created() {
         Entity boss = enemyEntityFactory.createBoss3(entityFactory.engine.createEntity(), 1f, 1f, 1f);
         assertThat(boss).isNotNull();
-        assertThat(boss.getComponents()).hasSize(7);
+        assertThat(boss.getComponents()).hasSize(8);
         assertThat(boss.getComponents()).hasOnlyElementsOfTypes(
                 BossComponent.class,
                 EnemyComponent.class,
@@ -439,7 +442,8 @@ public class EnemyEntityFactoryTest {
                 AnimationComponent.class,
                 SpriteComponent.class,
                 StateComponent.class,
-                StatusHealthComponent.class
+                StatusHealthComponent.class,
+                CollisionComponent.class
         );
         verify(sprites).findRegions("boss3");
         EnemyComponent enemyComponent = ComponentMapperHelper.enemy.get(boss);
@@ -450,13 +454,14 @@ public class EnemyEntityFactoryTest {
     public void asteroid_is_created() {
         Entity asteroid = enemyEntityFactory.createAsteroid(entityFactory.engine.createEntity(), ASTEROID_1);
         assertThat(asteroid).isNotNull();
-        assertThat(asteroid.getComponents()).hasSize(5);
+        assertThat(asteroid.getComponents()).hasSize(6);
         assertThat(asteroid.getComponents()).hasOnlyElementsOfTypes(
                 EnemyComponent.class,
                 PositionComponent.class,
                 AnimationComponent.class,
                 SpriteComponent.class,
-                StateComponent.class
+                StateComponent.class,
+                CollisionComponent.class
         );
         verify(sprites).findRegions("asteroid");
     }
@@ -465,12 +470,13 @@ public class EnemyEntityFactoryTest {
     public void house_is_created() {
         Array<Entity> house = enemyEntityFactory.createHouse(entityFactory.engine.createEntity(), HOUSE_1);
         assertThat(house).hasSize(2);
-        assertThat(house.get(0).getComponents()).hasSize(4);
+        assertThat(house.get(0).getComponents()).hasSize(5);
         assertThat(house.get(0).getComponents()).hasOnlyElementsOfTypes(
                 EnemyComponent.class,
                 SpriteComponent.class,
                 PositionComponent.class,
-                GroundEnemyComponent.class
+                GroundEnemyComponent.class,
+                CollisionComponent.class
         );
         assertThat(house.get(1).getComponents()).hasSize(3);
         assertThat(house.get(1).getComponents()).hasOnlyElementsOfTypes(
@@ -525,7 +531,7 @@ public class EnemyEntityFactoryTest {
 
     private void assertThatEntityIsLaserShip(Entity entity) {
         assertThat(entity).isNotNull();
-        assertThat(entity.getComponents()).hasSize(7);
+        assertThat(entity.getComponents()).hasSize(8);
         assertThat(entity.getComponents()).hasOnlyElementsOfTypes(
                 VelocityComponent.class,
                 FollowPlayerComponent.class,
@@ -533,7 +539,8 @@ public class EnemyEntityFactoryTest {
                 AnimationComponent.class,
                 PositionComponent.class,
                 EnemyComponent.class,
-                StateComponent.class);
+                StateComponent.class,
+                CollisionComponent.class);
     }
 
     private void assertThatEntityIsDirectionableEnemyShip(Entity entity) {
@@ -554,7 +561,8 @@ public class EnemyEntityFactoryTest {
                 PositionComponent.class,
                 EnemyComponent.class,
                 DirectionableComponent.class,
-                StateComponent.class);
+                StateComponent.class,
+                CollisionComponent.class);
         assertThat(entity.getComponents()).hasOnlyElementsOfTypes(components.toArray(new Class[components.size()]));
         if(directionable) {
             assertThat(entity.getComponents()).hasAtLeastOneElementOfType(DirectionableComponent.class);
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 06/11/18 06:41
+ * Last modified 17/10/26 22:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -77,7 +77,7 @@ public class BonusEntityFactoryTest {
         bonusEntityFactory.createPowerUp(squadron);
 
         verify(sprites).findRegions("power-up");
-        assertThat(powerUp.getComponents()).hasSize(6);
+        assertThat(powerUp.getComponents()).hasSize(7);
         assertThat(powerUp.getComponents())
                 .hasOnlyElementsOfTypes(
                         PowerUpComponent.class,
@@ -85,7 +85,8 @@ public class BonusEntityFactoryTest {
                         PositionComponent.class,
                         VelocityComponent.class,
                         AnimationComponent.class,
-                        SpriteComponent.class
+                        SpriteComponent.class,
+                        CollisionComponent.class
                 );
         verify(tweenManager).add(any(Timeline.class));
     }
@@ -97,7 +98,7 @@ public class BonusEntityFactoryTest {
         bonusEntityFactory.createShieldUp(squadron);
 
         verify(sprites).findRegions("shieldup");
-        assertThat(shield.getComponents()).hasSize(6);
+        assertThat(shield.getComponents()).hasSize(7);
         assertThat(shield.getComponents())
                 .hasOnlyElementsOfTypes(
                         ShieldUpComponent.class,
@@ -105,7 +106,8 @@ public class BonusEntityFactoryTest {
                         PositionComponent.class,
                         VelocityComponent.class,
                         AnimationComponent.class,
-                        SpriteComponent.class
+                        SpriteComponent.class,
+                        CollisionComponent.class
                 );
         verify(tweenManager).add(any(Timeline.class));
     }
@@ -117,13 +119,14 @@ public class BonusEntityFactoryTest {
         bonusEntityFactory.createBombUp(squadron);
 
         verify(sprites).findRegion("bombUp");
-        assertThat(bombUp.getComponents()).hasSize(4);
+        assertThat(bombUp.getComponents()).hasSize(5);
         assertThat(bombUp.getComponents())
                 .hasOnlyElementsOfTypes(
                         BombUpComponent.class,
                         PositionComponent.class,
                         VelocityComponent.class,
-                        SpriteComponent.class
+                        SpriteComponent.class,
+                        CollisionComponent.class
                 );
         verify(tweenManager).add(any(Timeline.class));
     }
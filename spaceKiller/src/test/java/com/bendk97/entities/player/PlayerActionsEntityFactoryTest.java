@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 06/11/18 06:41
+ * Last modified 17/10/26 22:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -215,14 +215,15 @@ public class PlayerActionsEntityFactoryTest {
 
     private void check_bullet(String regionName, Entity bullet) {
         verify(sprites).findRegion(regionName);
-        assertThat(bullet.getComponents()).hasSize(5);
+        assertThat(bullet.getComponents()).hasSize(6);
         assertThat(bullet.getComponents())
                 .hasOnlyElementsOfTypes(
                         PositionComponent.class,
                         VelocityComponent.class,
                         SpriteComponent.class,
                         PlayerBulletComponent.class,
-                        RemovableComponent.class
+                        RemovableComponent.class,
+                        CollisionComponent.class
                 );
     }
 
@@ -1,6 +1,6 @@
 /*
  * Developed by Benjamin Lefèvre
- * Last modified 06/11/18 08:15
+ * Last modified 17/10/26 22:20
  * Copyright (c) 2018. All rights reserved.
  */
 
@@ -92,7 +92,7 @@ public class PlayerEntityFactoryTest {
         playerEntityFactory.createEntityPlayer(Level1);
 
         verify(sprites).findRegions("player");
-        assertThat(player.getComponents()).hasSize(6);
+        assertThat(player.getComponents()).hasSize(7);
         assertThat(player.getComponents())
                 .hasOnlyElementsOfTypes(
                         PlayerComponent.class,
@@ -100,7 +100,8 @@ public class PlayerEntityFactoryTest {
                         VelocityComponent.class,
                         AnimationComponent.class,
                         StateComponent.class,
-                        SpriteComponent.class
+                        SpriteComponent.class,
+                        CollisionComponent.class
                 );
         assertThat(player.getComponent(PlayerComponent.class).bombs).isEqualTo(3);
         assertThat(player.getComponent(PlayerComponent.class).lives).isEqualTo(4);
@@ -136,12 +137,13 @@ public class PlayerEntityFactoryTest {
 
         verify(sprites).findRegion("shield");
         verify(tweenManager).add(any(Timeline.class));
-        assertThat(shield.getComponents()).hasSize(3);
+        assertThat(shield.getComponents()).hasSize(4);
         assertThat(shield.getComponents())
                 .hasOnlyElementsOfTypes(
                         ShieldComponent.class,
                         PositionComponent.class,
-                        SpriteComponent.class
+                        SpriteComponent.class,
+                        CollisionComponent.class
                 );
         assertThat(player.getComponents())
                 .hasAtLeastOneElementOfType(InvulnerableComponent.class);
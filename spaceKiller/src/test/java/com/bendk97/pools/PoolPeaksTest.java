@@ -0,0 +1,126 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 15:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.pools;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.VelocityComponent;
+import com.bendk97.entities.BufferedEngine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class PoolPeaksTest {
+
+    private final PoolPeaks peaks = new PoolPeaks("Level1");
+
+    @Test
+    public void only_the_highest_counts_are_kept() {
+        peaks.record("Sprite", 12);
+        peaks.record("Sprite", 8);
+        peaks.record(PoolPeaks.ENTITIES, 40);
+
+        assertThat(peaks.get("Sprite")).isEqualTo(12);
+        assertThat(peaks.get("Vector2")).isZero();
+        assertThat(peaks.get(PoolPeaks.ENTITIES)).isEqualTo(40);
+    }
+
+    @Test
+    public void peak_is_forgotten_after_the_games_below_it() {
+        peaks.record("Sprite", 50);
+        String saved = peaks.toString();
+        for (int game = 1; game <= PoolPeaks.GAMES; ++game) {
+            PoolPeaks next = new PoolPeaks("Level1");
+            next.parse(saved);
+            next.record("Sprite", 10);
+            assertThat(next.get("Sprite")).isEqualTo(50);
+            saved = next.toString();
+        }
+        PoolPeaks next = new PoolPeaks("Level1");
+
+        next.parse(saved);
+
+        assertThat(next.get("Sprite")).isEqualTo(10);
+    }
+
+    @Test
+    public void engine_pools_are_sized_by_the_entities_and_components_only() {
+        peaks.record(PoolPeaks.ENTITIES, 200);
+        peaks.record(PositionComponent.class.getName(), 300);
+        peaks.record("Sprite", 1000);
+
+        assertThat(BufferedEngine.poolMaxSize(peaks, 150)).isEqualTo(300);
+        assertThat(BufferedEngine.poolMaxSize(new PoolPeaks("Level1"), 150)).isEqualTo(150);
+    }
+
+    @Test
+    public void peaks_are_read_back_from_their_saved_form() {
+        peaks.record("Sprite", 12);
+        peaks.record(PoolPeaks.ENTITIES, 40);
+        PoolPeaks loaded = new PoolPeaks("Level1");
+
+        loaded.parse(peaks.toString() + ";corrupted=x");
+
+        assertThat(loaded.get("Sprite")).isEqualTo(12);
+        assertThat(loaded.get(PoolPeaks.ENTITIES)).isEqualTo(40);
+        assertThat(loaded.get("corrupted")).isZero();
+    }
+
+    @Test
+    public void components_are_counted_by_type() {
+        PooledEngine engine = new PooledEngine();
+        for (int i = 0; i < 3; ++i) {
+            Entity entity = engine.createEntity();
+            entity.add(engine.createComponent(PositionComponent.class));
+            if (i > 0) {
+                entity.add(engine.createComponent(VelocityComponent.class));
+            }
+            engine.addEntity(entity);
+        }
+
+        peaks.sample(engine);
+
+        assertThat(peaks.get(PoolPeaks.ENTITIES)).isEqualTo(3);
+        assertThat(peaks.get(PositionComponent.class.getName())).isEqualTo(3);
+        assertThat(peaks.get(VelocityComponent.class.getName())).isEqualTo(2);
+    }
+
+    @Test
+    public void components_are_counted_every_few_steps() {
+        PooledEngine engine = new PooledEngine();
+        Entity entity = engine.createEntity();
+        entity.add(engine.createComponent(PositionComponent.class));
+        engine.addEntity(entity);
+
+        for (int step = 1; step < PoolPeaks.SAMPLE_STEPS; ++step) {
+            peaks.recordStep(engine);
+        }
+        assertThat(peaks.get(PoolPeaks.ENTITIES)).isEqualTo(1);
+        assertThat(peaks.get(PositionComponent.class.getName())).isZero();
+        peaks.recordStep(engine);
+
+        assertThat(peaks.get(PositionComponent.class.getName())).isEqualTo(1);
+    }
+
+    @Test
+    public void prewarmed_engine_is_left_empty() {
+        peaks.record(PoolPeaks.ENTITIES, 20);
+        peaks.record(PositionComponent.class.getName(), 30);
+        peaks.record("Sprite", 5);
+        BufferedEngine engine = new BufferedEngine(10, 100, 10, 100);
+
+        engine.prewarm(peaks);
+
+        assertThat(engine.getEntities().size()).isZero();
+        Entity entity = engine.createEntity();
+        assertThat(entity.getComponents().size()).isZero();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 02:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.screens.levels.utils;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.screens.levels.utils.FixedTimestep.LOGIC_STEP;
+import static com.bendk97.screens.levels.utils.FixedTimestep.MAX_STEPS_PER_FRAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@RunWith(JUnit4.class)
+public class FixedTimestepTest {
+
+    private final FixedTimestep timestep = new FixedTimestep();
+
+    @Test
+    public void logic_steps_do_not_depend_on_the_refresh_rate() {
+        int steps = 0;
+        for (int frame = 0; frame < 120; ++frame) {
+            steps += timestep.advance(1f / 120f);
+        }
+        assertThat(steps).isBetween(59, 60);
+
+        FixedTimestep slow = new FixedTimestep();
+        steps = 0;
+        for (int frame = 0; frame < 30; ++frame) {
+            steps += slow.advance(1f / 30f);
+        }
+        assertThat(steps).isBetween(59, 60);
+    }
+
+    @Test
+    public void remaining_time_gives_the_interpolation() {
+        assertThat(timestep.advance(LOGIC_STEP * 0.25f)).isZero();
+        assertThat(timestep.alpha()).isCloseTo(0.25f, within(0.001f));
+        assertThat(timestep.advance(LOGIC_STEP)).isEqualTo(1);
+        assertThat(timestep.alpha()).isCloseTo(0.25f, within(0.001f));
+    }
+
+    @Test
+    public void hitches_are_caught_up_up_to_a_limit() {
+        assertThat(timestep.advance(LOGIC_STEP * 3.5f)).isEqualTo(3);
+        assertThat(timestep.advance(1f)).isEqualTo(MAX_STEPS_PER_FRAME);
+        assertThat(timestep.alpha()).isZero();
+        assertThat(timestep.advance(0f)).isZero();
+    }
+}
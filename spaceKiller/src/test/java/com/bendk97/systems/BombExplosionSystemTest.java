@@ -0,0 +1,71 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 09:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import aurelienribon.tweenengine.TweenManager;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.bendk97.components.*;
+import com.bendk97.components.helpers.Activity;
+import com.bendk97.listeners.CollisionListener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.*;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(JUnit4.class)
+public class BombExplosionSystemTest {
+
+    private final Engine engine = new Engine();
+    private final CollisionListener collisionListener = mock(CollisionListener.class);
+    private final Entity player = createEntity(engine, PlayerComponent.class);
+
+    @Test
+    public void bomb_clears_every_enemy_and_enemy_bullet() {
+        engine.addSystem(new BombExplosionSystem(0, collisionListener, player, new TweenManager()));
+        // neither collidable nor awake
+        Entity bullet = createEntity(engine, EnemyBulletComponent.class, PositionComponent.class);
+        position.get(bullet).setXY(-500f, 2000f);
+        Entity enemy = createEntity(engine, EnemyComponent.class, PositionComponent.class);
+        position.get(enemy).setXY(100f, 5000f);
+        enemy.flags |= Activity.DORMANT;
+        explosionAt(200f, 300f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShootByExplosion(enemy, player);
+        assertThat(engine.getEntities()).containsOnly(player, enemy);
+    }
+
+    @Test
+    public void smaller_bomb_only_reaches_what_is_around() {
+        engine.addSystem(new BombExplosionSystem(0, collisionListener, player, new TweenManager()));
+        Entity near = createEntity(engine, EnemyComponent.class, PositionComponent.class);
+        position.get(near).setXY(250f, 300f);
+        Entity far = createEntity(engine, EnemyComponent.class, PositionComponent.class);
+        position.get(far).setXY(250f, 600f);
+        bombExplosion.get(explosionAt(200f, 300f)).radius = 100f;
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShootByExplosion(near, player);
+        verify(collisionListener, never()).enemyShootByExplosion(far, player);
+    }
+
+    private Entity explosionAt(float x, float y) {
+        Entity explosion = createEntity(engine, BombExplosionComponent.class, PositionComponent.class, SpriteComponent.class);
+        sprite.get(explosion).sprite = new Sprite(mock(Texture.class), 0, 0);
+        position.get(explosion).setXY(x, y);
+        return explosion;
+    }
+}
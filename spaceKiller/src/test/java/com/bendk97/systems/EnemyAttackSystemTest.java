@@ -0,0 +1,48 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 05:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.screens.levels.utils.FixedTimestep.LOGIC_STEP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@RunWith(JUnit4.class)
+public class EnemyAttackSystemTest {
+
+    private final EnemyAttackSystem system = new EnemyAttackSystem(0, null, new WorldBlackboard());
+
+    @Test
+    public void odds_to_fire_during_a_step_are_one_in_probability_attack() {
+        int samples = 100000, firedDuringFirstStep = 0;
+        for (int i = 0; i < samples; ++i) {
+            if (system.nextFireDelay(150) <= LOGIC_STEP) {
+                ++firedDuringFirstStep;
+            }
+        }
+        assertThat(firedDuringFirstStep / (float) samples).isCloseTo(1f / 150f, within(0.0015f));
+    }
+
+    @Test
+    public void mean_delay_matches_the_former_dice_rolls() {
+        int samples = 100000;
+        double total = 0;
+        for (int i = 0; i < samples; ++i) {
+            total += system.nextFireDelay(50);
+        }
+        // geometric number of steps of mean 50, continuous so half a step shorter
+        assertThat(total / samples).isCloseTo(49.5 * LOGIC_STEP, within(0.03 * 50 * LOGIC_STEP));
+    }
+
+    @Test
+    public void certain_fire_is_due_at_once() {
+        assertThat(system.nextFireDelay(1)).isZero();
+    }
+}
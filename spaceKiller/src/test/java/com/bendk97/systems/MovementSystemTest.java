@@ -0,0 +1,81 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 01:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.bendk97.components.PlayerComponent;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.VelocityComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.position;
+import static com.bendk97.components.helpers.ComponentMapperHelper.velocity;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class MovementSystemTest {
+
+    private final Engine engine = new Engine();
+    private final MovementSystem movementSystem = new MovementSystem(0);
+
+    @Test
+    public void movers_are_integrated_through_the_store() {
+        engine.addSystem(movementSystem);
+        Entity bullet = mover(10f, 20f, 100f, -50f);
+        Entity enemy = mover(50f, 60f, 0f, 10f);
+        Entity player = createEntity(engine, PositionComponent.class, VelocityComponent.class, PlayerComponent.class);
+        velocity.get(player).setXY(100f, 100f);
+        assertThat(movementSystem.getStore().size()).isEqualTo(2);
+
+        engine.update(0.5f);
+
+        assertThat(position.get(bullet).x()).isEqualTo(60f);
+        assertThat(position.get(bullet).y()).isEqualTo(-5f);
+        assertThat(position.get(bullet).previousX()).isEqualTo(10f);
+        assertThat(position.get(enemy).y()).isEqualTo(65f);
+        assertThat(position.get(player).x()).isZero();
+
+        velocity.get(enemy).setY(-10f);
+        engine.update(0.5f);
+        assertThat(position.get(enemy).y()).isEqualTo(60f);
+        assertThat(position.get(enemy).previousY()).isEqualTo(65f);
+    }
+
+    @Test
+    public void removed_entities_get_their_values_back_and_free_their_slot() {
+        engine.addSystem(movementSystem);
+        Entity first = mover(10f, 20f, 2f, 4f);
+        Entity last = mover(30f, 40f, 6f, 8f);
+        PositionComponent firstPosition = position.get(first);
+
+        engine.removeEntity(first);
+        assertThat(movementSystem.getStore().size()).isEqualTo(1);
+        assertThat(firstPosition.x()).isEqualTo(10f);
+        assertThat(firstPosition.y()).isEqualTo(20f);
+
+        // the last slot took the freed one
+        engine.update(1f);
+        assertThat(position.get(last).x()).isEqualTo(36f);
+        assertThat(position.get(last).y()).isEqualTo(48f);
+
+        engine.removeSystem(movementSystem);
+        assertThat(movementSystem.getStore().size()).isZero();
+        assertThat(position.get(last).x()).isEqualTo(36f);
+        assertThat(velocity.get(last).y()).isEqualTo(8f);
+    }
+
+    private Entity mover(float x, float y, float velocityX, float velocityY) {
+        Entity entity = createEntity(engine, PositionComponent.class, VelocityComponent.class);
+        position.get(entity).setXY(x, y);
+        velocity.get(entity).setXY(velocityX, velocityY);
+        return entity;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 16:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.bendk97.components.StateComponent;
+import com.bendk97.components.helpers.Activity;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.state;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class ParallelIteratingSystemTest {
+
+    private final Engine engine = new Engine();
+
+    @Test
+    public void every_entity_is_processed_once_per_update() {
+        engine.addSystem(new StateSystem(0));
+        Entity[] entities = new Entity[ParallelChunks.CHUNK_SIZE * 10 + 3];
+        for (int i = 0; i < entities.length; ++i) {
+            entities[i] = createEntity(engine, StateComponent.class);
+        }
+
+        engine.update(0.25f);
+        engine.update(0.25f);
+
+        for (Entity entity : entities) {
+            assertThat(state.get(entity).time).isEqualTo(0.5f);
+        }
+    }
+
+    @Test
+    public void workers_are_created_again_after_being_disposed() {
+        engine.addSystem(new StateSystem(0));
+        Entity[] entities = new Entity[ParallelChunks.CHUNK_SIZE * 4];
+        for (int i = 0; i < entities.length; ++i) {
+            entities[i] = createEntity(engine, StateComponent.class);
+        }
+
+        engine.update(0.25f);
+        SystemWorkers.dispose();
+        engine.update(0.25f);
+
+        for (Entity entity : entities) {
+            assertThat(state.get(entity).time).isEqualTo(0.5f);
+        }
+    }
+
+    @Test
+    public void range_processed_by_a_worker_keeps_its_chunks_there() {
+        Set<Thread> innerThreads = Collections.synchronizedSet(new HashSet<>());
+        ParallelChunks inner = new ParallelChunks((from, to, deltaTime) -> innerThreads.add(Thread.currentThread()));
+        ParallelChunks outer = new ParallelChunks((from, to, deltaTime) -> {
+            if (from > 0) {
+                // the chunk given to a worker
+                inner.process(ParallelChunks.CHUNK_SIZE * 4, deltaTime);
+            }
+        });
+
+        outer.process(ParallelChunks.CHUNK_SIZE * 2, 0.25f);
+
+        assertThat(innerThreads).hasSize(1);
+        assertThat(innerThreads).doesNotContain(Thread.currentThread());
+        assertThat(SystemWorkers.isWorkerThread()).isFalse();
+    }
+
+    @Test
+    public void structural_changes_are_run_after_the_processing() {
+        int[] commands = new int[1];
+        engine.addSystem(new ParallelIteratingSystem(Family.all(StateComponent.class).get(), 0) {
+            @Override
+            protected void processEntity(Entity entity, float deltaTime) {
+                StateComponent stateComponent = state.get(entity);
+                stateComponent.time += deltaTime;
+                if (stateComponent.time > 1f) {
+                    removeLater(entity);
+                    defer(() -> ++commands[0]);
+                }
+            }
+        });
+        for (int i = 0; i < ParallelChunks.CHUNK_SIZE * 10; ++i) {
+            Entity entity = createEntity(engine, StateComponent.class);
+            state.get(entity).time = i % 2;
+        }
+
+        engine.update(0.5f);
+
+        assertThat(engine.getEntities().size()).isEqualTo(ParallelChunks.CHUNK_SIZE * 5);
+        assertThat(commands[0]).isEqualTo(ParallelChunks.CHUNK_SIZE * 5);
+    }
+
+    @Test
+    public void dormant_entities_are_skipped_by_active_only_systems() {
+        StateSystem stateSystem = new StateSystem(0);
+        stateSystem.setActiveOnly(true);
+        engine.addSystem(stateSystem);
+        Entity active = createEntity(engine, StateComponent.class);
+        Entity dormant = createEntity(engine, StateComponent.class);
+        dormant.flags |= Activity.DORMANT;
+
+        engine.update(0.5f);
+
+        assertThat(state.get(active).time).isEqualTo(0.5f);
+        assertThat(state.get(dormant).time).isZero();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 14:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.bendk97.components.StateComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.state;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class TimeSlicedIteratingSystemTest {
+
+    private final Engine engine = new Engine();
+
+    @Test
+    public void whole_family_is_processed_within_a_large_budget() {
+        SlicedStateSystem system = new SlicedStateSystem(1_000_000L);
+        engine.addSystem(system);
+        Entity[] entities = createEntities(TimeSlicedIteratingSystem.MIN_SLICE * 3);
+
+        engine.update(0.25f);
+        engine.update(0.25f);
+
+        for (Entity entity : entities) {
+            assertThat(state.get(entity).time).isEqualTo(0.5f);
+        }
+        assertThat(system.getCursor()).isZero();
+        assertThat(system.getLastSlice()).isEqualTo(entities.length);
+        assertThat(system.getRemainingMicros()).isPositive();
+    }
+
+    @Test
+    public void pass_is_sliced_when_the_budget_is_spent() {
+        SlicedStateSystem system = new SlicedStateSystem(0L);
+        engine.addSystem(system);
+        Entity[] entities = createEntities(TimeSlicedIteratingSystem.MIN_SLICE * 3);
+
+        // first pass: a slice per update
+        engine.update(0.25f);
+        assertThat(system.getLastSlice()).isEqualTo(TimeSlicedIteratingSystem.MIN_SLICE);
+        assertThat(system.getCursor()).isEqualTo(TimeSlicedIteratingSystem.MIN_SLICE);
+        assertThat(system.getRemainingMicros()).isLessThanOrEqualTo(0L);
+        engine.update(0.25f);
+        engine.update(0.25f);
+        assertThat(system.getCursor()).isZero();
+        // second pass: each entity is given the time since it was processed
+        engine.update(0.25f);
+
+        for (int i = 0; i < entities.length; ++i) {
+            // time of the last update which processed the entity
+            float expected = i < TimeSlicedIteratingSystem.MIN_SLICE ? 1f : (i / TimeSlicedIteratingSystem.MIN_SLICE + 1) * 0.25f;
+            assertThat(state.get(entities[i]).time).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void entities_removed_or_added_during_a_pass_are_skipped_until_the_next_one() {
+        SlicedStateSystem system = new SlicedStateSystem(0L);
+        engine.addSystem(system);
+        Entity[] entities = createEntities(TimeSlicedIteratingSystem.MIN_SLICE * 3);
+        engine.update(0.25f);
+
+        // the last entity of the family takes the place of the removed one, already processed by the pass
+        Entity removed = entities[1];
+        engine.removeEntity(removed);
+        Entity added = createEntity(engine, StateComponent.class);
+        engine.update(0.25f);
+        engine.update(0.25f);
+
+        assertThat(system.getCursor()).isZero();
+        assertThat(state.get(removed).time).isEqualTo(0.25f);
+        assertThat(state.get(entities[entities.length - 1]).time).isEqualTo(0.75f);
+        assertThat(state.get(added).time).isZero();
+
+        system.setBudgetMicros(1_000_000L);
+        engine.update(0.25f);
+
+        // only the time since it was added
+        assertThat(state.get(added).time).isEqualTo(0.75f);
+        assertThat(state.get(removed).time).isEqualTo(0.25f);
+    }
+
+    private Entity[] createEntities(int count) {
+        Entity[] entities = new Entity[count];
+        for (int i = 0; i < count; ++i) {
+            entities[i] = createEntity(engine, StateComponent.class);
+        }
+        return entities;
+    }
+
+    private static class SlicedStateSystem extends TimeSlicedIteratingSystem {
+
+        SlicedStateSystem(long budgetMicros) {
+            super(Family.all(StateComponent.class).get(), budgetMicros, 0);
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+            state.get(entity).time += deltaTime;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 04:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.bendk97.components.PauseComponent;
+import com.bendk97.components.PlayerComponent;
+import com.bendk97.components.PositionComponent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class WorldBlackboardTest {
+
+    private final PooledEngine engine = new PooledEngine();
+    private final WorldBlackboard blackboard = new WorldBlackboard();
+
+    @Test
+    public void no_target_without_player() {
+        blackboard.update(engine);
+
+        assertThat(blackboard.player).isNull();
+        assertThat(blackboard.target()).isNull();
+        assertThat(blackboard.boss).isNull();
+    }
+
+    @Test
+    public void player_state_is_read_once_per_step() {
+        Entity player = engine.createEntity();
+        player.add(engine.createComponent(PlayerComponent.class));
+        PositionComponent position = engine.createComponent(PositionComponent.class);
+        position.setXY(10f, 20f);
+        player.add(position);
+        engine.addEntity(player);
+
+        blackboard.update(engine);
+        position.setXY(30f, 40f);
+
+        assertThat(blackboard.target()).isSameAs(player);
+        assertThat(blackboard.playerX).isEqualTo(10f);
+        assertThat(blackboard.playerY).isEqualTo(20f);
+        assertThat(blackboard.playerVulnerable).isTrue();
+
+        player.add(engine.createComponent(PauseComponent.class));
+        blackboard.update(engine);
+
+        assertThat(blackboard.playerPaused).isTrue();
+        assertThat(blackboard.target()).isNull();
+        assertThat(blackboard.playerX).isEqualTo(30f);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 19:40
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.bendk97.components.EnemyBulletComponent;
+import com.bendk97.components.EnemyComponent;
+import com.bendk97.components.helpers.Families;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.SpaceKillerGameConstants.SCREEN_HEIGHT;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class CollisionGridTest {
+
+    private final Engine engine = new Engine();
+    private final CollisionGrid grid = new CollisionGrid();
+    private final Array<Entity> result = new Array<>();
+
+    @Test
+    public void query_returns_only_overlapping_entities() {
+        Entity near = createEntity(engine, EnemyComponent.class);
+        Entity far = createEntity(engine, EnemyComponent.class);
+        grid.insert(near, 100f, 100f, 32f, 32f);
+        grid.insert(far, 300f, 500f, 32f, 32f);
+
+        grid.query(110f, 110f, 10f, 10f, Families.enemies, result);
+
+        assertThat(result).containsExactly(near);
+    }
+
+    @Test
+    public void query_filters_by_family() {
+        Entity enemy = createEntity(engine, EnemyComponent.class);
+        Entity bullet = createEntity(engine, EnemyBulletComponent.class);
+        grid.insert(enemy, 100f, 100f, 32f, 32f);
+        grid.insert(bullet, 110f, 110f, 8f, 8f);
+
+        grid.query(100f, 100f, 32f, 32f, Families.enemyBullet, result);
+
+        assertThat(result).containsExactly(bullet);
+    }
+
+    @Test
+    public void entity_spanning_several_cells_is_returned_once() {
+        Entity boss = createEntity(engine, EnemyComponent.class);
+        grid.insert(boss, 0f, 0f, 350f, 250f);
+
+        grid.query(-10f, -10f, 400f, 300f, null, result);
+
+        assertThat(result).containsExactly(boss);
+    }
+
+    @Test
+    public void entities_outside_playfield_are_still_found() {
+        Entity incoming = createEntity(engine, EnemyComponent.class);
+        grid.insert(incoming, -200f, SCREEN_HEIGHT + 10f, 32f, 32f);
+
+        grid.query(-190f, SCREEN_HEIGHT + 20f, 4f, 4f, Families.enemies, result);
+        assertThat(result).containsExactly(incoming);
+
+        grid.query(0f, SCREEN_HEIGHT - 20f, 4f, 4f, Families.enemies, result);
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void clear_empties_the_grid() {
+        for (int i = 0; i < 300; ++i) {
+            grid.insert(createEntity(engine, EnemyComponent.class), i, i, 20f, 20f);
+        }
+        assertThat(grid.size()).isEqualTo(300);
+
+        grid.clear();
+
+        assertThat(grid.size()).isEqualTo(0);
+        assertThat(grid.query(0f, 0f, 400f, 700f, null, result)).isEmpty();
+    }
+}
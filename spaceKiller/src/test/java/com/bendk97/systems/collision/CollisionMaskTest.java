@@ -0,0 +1,212 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 17/10/26 20:05
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(JUnit4.class)
+public class CollisionMaskTest {
+
+    private final Texture texture = mock(Texture.class);
+    private final CollisionMasks collisionMasks = new CollisionMasks();
+
+    @Before
+    public void init() {
+        when(texture.getWidth()).thenReturn(256);
+        when(texture.getHeight()).thenReturn(256);
+    }
+
+    @Test
+    public void masks_overlap_only_when_solid_pixels_are_shared() {
+        CollisionMask dot = square(1, 0, 0, 1);
+        CollisionMask ring = ring(10);
+
+        assertThat(dot.overlaps(5, 5, ring, 0, 0)).isFalse();
+        assertThat(dot.overlaps(0, 5, ring, 0, 0)).isTrue();
+        assertThat(dot.overlaps(9, 9, ring, 0, 0)).isTrue();
+        assertThat(dot.overlaps(10, 9, ring, 0, 0)).isFalse();
+    }
+
+    @Test
+    public void masks_wider_than_a_word_overlap_across_word_boundaries() {
+        CollisionMask wide = new CollisionMask(150, 2);
+        wide.set(130, 1);
+        CollisionMask other = new CollisionMask(100, 2);
+        other.set(70, 0);
+
+        assertThat(wide.overlaps(0, 0, other, 60, 1)).isTrue();
+        assertThat(wide.overlaps(0, 0, other, 61, 1)).isFalse();
+        assertThat(other.overlaps(60, 1, wide, 0, 0)).isTrue();
+        assertThat(wide.overlaps(0, 0, other, 60, 0)).isFalse();
+    }
+
+    @Test
+    public void mask_overlaps_rectangle() {
+        CollisionMask ring = ring(10);
+
+        assertThat(ring.overlapsRectangle(0, 0, 3, 3, 4, 4)).isFalse();
+        assertThat(ring.overlapsRectangle(0, 0, 3, 3, 7, 4)).isTrue();
+    }
+
+    @Test
+    public void sprites_without_rotation_collide_with_masks() {
+        Sprite ring = sprite(0, ring(10));
+        Sprite dot = sprite(20, square(4, 0, 0, 4));
+
+        ring.setPosition(100f, 100f);
+        dot.setPosition(103f, 103f);
+        assertThat(collisionMasks.overlaps(ring, dot)).isFalse();
+
+        dot.setPosition(97f, 103f);
+        assertThat(collisionMasks.overlaps(ring, dot)).isTrue();
+    }
+
+    @Test
+    public void rotated_sprites_collide_with_masks() {
+        CollisionMask bar = square(20, 0, 8, 4);
+        Sprite rotated = sprite(0, bar);
+        Sprite dot = sprite(40, square(2, 0, 0, 2));
+        rotated.setOrigin(10f, 10f);
+        rotated.setPosition(100f, 100f);
+        dot.setPosition(109f, 100f);
+        assertThat(collisionMasks.overlaps(rotated, dot)).isFalse();
+
+        rotated.setRotation(90f);
+        assertThat(collisionMasks.overlaps(rotated, dot)).isTrue();
+    }
+
+    @Test
+    public void flipped_sprites_collide_with_flipped_masks() {
+        Sprite left = sprite(0, leftHalf());
+        Sprite dot = sprite(40, square(2, 0, 0, 2));
+        left.setPosition(100f, 100f);
+        dot.setPosition(107f, 104f);
+        assertThat(collisionMasks.overlaps(left, dot)).isFalse();
+
+        left.flip(true, false);
+        assertThat(collisionMasks.overlaps(left, dot)).isTrue();
+    }
+
+    @Test
+    public void rotated_masks_are_cached_per_angle_bucket() {
+        RotatedCollisionMasks cache = new RotatedCollisionMasks(2);
+        CollisionMask mask = ring(10);
+
+        RotatedCollisionMasks.RotatedMask quarter = cache.get(mask.id, mask, 16, false, false, 5, 5);
+        assertThat(cache.get(mask.id, mask, RotatedCollisionMasks.angleBucket(91f), false, false, 5, 5)).isSameAs(quarter);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(quarter.mask.width).isEqualTo(10);
+        assertThat(quarter.offsetX).isEqualTo(-5);
+
+        cache.get(mask.id, mask, 32, false, false, 5, 5);
+        cache.get(mask.id, mask, 16, false, false, 5, 5);
+        cache.get(mask.id, mask, 48, false, false, 5, 5);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(mask.id, mask, 16, false, false, 5, 5)).isSameAs(quarter);
+        assertThat(cache.misses()).isEqualTo(3);
+        cache.get(mask.id, mask, 32, false, false, 5, 5);
+        assertThat(cache.misses()).isEqualTo(4);
+    }
+
+    @Test
+    public void compound_shape_covers_every_solid_pixel() {
+        CollisionMask laser = square(8, 2, 0, 64);
+        CollisionShape shape = CollisionShape.fit(laser);
+        float[] circles = new float[CollisionShape.MAX_CIRCLES * 3];
+        Sprite sprite = new Sprite();
+        sprite.setSize(8f, 64f);
+
+        assertThat(shape.toWorld(sprite, circles)).isEqualTo(CollisionShape.MAX_CIRCLES);
+        for (int y = 0; y < 64; ++y) {
+            for (int x = 2; x < 8; ++x) {
+                assertThat(isCovered(circles, shape.size(), x, y)).isTrue();
+                assertThat(isCovered(circles, shape.size(), x + 1, y + 1)).isTrue();
+            }
+        }
+        // far tighter than the bounding circle of the sprite
+        assertThat(circles[2]).isLessThan(16f);
+        assertThat(isCovered(circles, shape.size(), -8f, 32f)).isFalse();
+    }
+
+    @Test
+    public void compound_shape_follows_sprite_rotation() {
+        CollisionShape shape = CollisionShape.fit(square(40, 0, 0, 10));
+        float[] circles = new float[CollisionShape.MAX_CIRCLES * 3];
+        Sprite sprite = new Sprite();
+        sprite.setSize(40f, 10f);
+        sprite.setOrigin(0f, 0f);
+        sprite.setPosition(100f, 100f);
+
+        int count = shape.toWorld(sprite, circles);
+        assertThat(isCovered(circles, count, 135f, 105f)).isTrue();
+        assertThat(isCovered(circles, count, 105f, 135f)).isFalse();
+
+        sprite.setRotation(90f);
+        shape.toWorld(sprite, circles);
+        assertThat(isCovered(circles, count, 95f, 135f)).isTrue();
+        assertThat(isCovered(circles, count, 135f, 105f)).isFalse();
+    }
+
+    private static boolean isCovered(float[] circles, int count, float x, float y) {
+        for (int i = 0; i < count * 3; i += 3) {
+            float dx = circles[i] - x, dy = circles[i + 1] - y;
+            if (dx * dx + dy * dy <= circles[i + 2] * circles[i + 2] + 0.001f) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Sprite sprite(int regionX, CollisionMask mask) {
+        AtlasRegion region = new AtlasRegion(texture, regionX, 0, mask.width, mask.height);
+        collisionMasks.add(region, mask);
+        Sprite sprite = new Sprite(region);
+        sprite.setOrigin(0f, 0f);
+        return sprite;
+    }
+
+    private static CollisionMask square(int size, int fromX, int fromY, int height) {
+        CollisionMask mask = new CollisionMask(size, Math.max(size, fromY + height));
+        for (int y = fromY; y < fromY + height; ++y) {
+            for (int x = fromX; x < size; ++x) {
+                mask.set(x, y);
+            }
+        }
+        return mask;
+    }
+
+    private static CollisionMask leftHalf() {
+        CollisionMask mask = new CollisionMask(10, 10);
+        for (int y = 0; y < 10; ++y) {
+            for (int x = 0; x < 5; ++x) {
+                mask.set(x, y);
+            }
+        }
+        return mask;
+    }
+
+    private static CollisionMask ring(int size) {
+        CollisionMask mask = new CollisionMask(size, size);
+        for (int i = 0; i < size; ++i) {
+            mask.set(i, 0);
+            mask.set(i, size - 1);
+            mask.set(0, i);
+            mask.set(size - 1, i);
+        }
+        return mask;
+    }
+}
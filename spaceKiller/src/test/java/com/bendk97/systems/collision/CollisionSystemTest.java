@@ -0,0 +1,352 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 11:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.Array;
+import com.bendk97.components.*;
+import com.bendk97.components.helpers.BoundsEntityListener;
+import com.bendk97.components.helpers.Families;
+import com.bendk97.listeners.CollisionListener;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.collision;
+import static com.bendk97.components.helpers.ComponentMapperHelper.position;
+import static com.bendk97.components.helpers.ComponentMapperHelper.sprite;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static com.bendk97.systems.collision.CollisionLayers.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(JUnit4.class)
+public class CollisionSystemTest {
+
+    private final Engine engine = new Engine();
+    private final CollisionListener collisionListener = mock(CollisionListener.class);
+    private final CollisionSystem collisionSystem = new CollisionSystem(collisionListener, new CollisionMasks(), 13);
+    private Entity player;
+    private Entity enemy;
+
+    @Before
+    public void init() {
+        BoundsEntityListener.register(engine);
+        engine.addSystem(collisionSystem);
+        player = collidable(PLAYER, PlayerComponent.class);
+        moveTo(player, 32f, 32f, 200f, 0f);
+        enemy = collidable(ENEMY, EnemyComponent.class);
+        moveTo(enemy, 16f, 16f, 100f, 300f);
+    }
+
+    @Test
+    public void fast_bullet_does_not_tunnel_through_enemy() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 330f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+    }
+
+    @Test
+    public void fast_bullet_does_not_tunnel_through_pixel_perfect_enemy() {
+        sprite.get(enemy).pixelPerfectCollision = true;
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 330f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+    }
+
+    @Test
+    public void bullet_missing_enemy_is_not_a_collision() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 150f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 150f, 330f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void spawned_entity_is_not_swept_from_origin() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 500f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void long_move_is_swept() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 100f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 600f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+    }
+
+    @Test
+    public void teleported_entity_is_not_swept() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        position.get(bullet).teleport(106f, 330f);
+        sprite.get(bullet).sprite.setPosition(106f, 330f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void entity_which_stopped_is_not_swept_again() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 330f);
+        engine.update(0.016f);
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+
+        reset(collisionListener);
+        startStep(bullet);
+        engine.update(0.016f);
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void detection_uses_logic_positions_without_moving_the_drawn_sprites() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 305f);
+        // drawn between two logic positions
+        sprite.get(bullet).sprite.setPosition(106f, 200f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+        assertThat(sprite.get(bullet).sprite.getY()).isEqualTo(200f);
+    }
+
+    @Test
+    public void throttled_mode_tests_current_positions_only() {
+        collisionSystem.setMode(CollisionSystem.Mode.THROTTLED);
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 330f);
+
+        engine.update(0.016f);
+        engine.update(0.05f);
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+
+        moveTo(bullet, 4f, 8f, 106f, 305f);
+        engine.update(0.016f);
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+        engine.update(0.05f);
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+    }
+
+    @Test
+    public void all_contacts_of_a_tick_are_resolved() {
+        Entity enemy2 = collidable(ENEMY, EnemyComponent.class);
+        moveTo(enemy2, 16f, 16f, 300f, 300f);
+        Entity bullet1 = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet1, 4f, 8f, 106f, 305f);
+        Entity bullet2 = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet2, 4f, 8f, 306f, 305f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).enemyShoot(enemy, player, bullet1);
+        verify(collisionListener).enemyShoot(enemy2, player, bullet2);
+    }
+
+    @Test
+    public void contact_with_an_entity_removed_by_an_earlier_contact_is_skipped() {
+        doAnswer(invocation -> {
+            engine.removeEntity(invocation.getArgument(0));
+            return null;
+        }).when(collisionListener).enemyShoot(any(), any(), any());
+        Entity bullet1 = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet1, 4f, 8f, 104f, 305f);
+        Entity bullet2 = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet2, 4f, 8f, 108f, 305f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener, times(1)).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void player_is_hit_once_per_tick() {
+        Entity bullet1 = collidable(ENEMY_BULLET, EnemyBulletComponent.class);
+        moveTo(bullet1, 4f, 4f, 205f, 5f);
+        Entity bullet2 = collidable(ENEMY_BULLET, EnemyBulletComponent.class);
+        moveTo(bullet2, 4f, 4f, 215f, 15f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener, times(1)).playerHitByEnemyBullet(eq(player), any());
+    }
+
+    @Test
+    public void layer_matrix_routes_contacts() {
+        Entity tank = collidable(GROUND_ENEMY, EnemyComponent.class);
+        moveTo(tank, 32f, 32f, 200f, 0f);
+        Entity shield = collidable(SHIELD, ShieldComponent.class);
+        moveTo(shield, 48f, 48f, 192f, -8f);
+        Entity bullet = collidable(ENEMY_BULLET, EnemyBulletComponent.class);
+        moveTo(bullet, 4f, 4f, 210f, 10f);
+
+        engine.update(0.016f);
+
+        verify(collisionListener).bulletStoppedByShield(bullet);
+        verify(collisionListener, never()).playerHitByEnemyBullet(any(), any());
+        verify(collisionListener, never()).playerHitByEnemyBody(any());
+        verify(collisionListener, never()).enemyShootByShield(any());
+    }
+
+    @Test
+    public void async_mode_dispatches_contacts_at_next_update() {
+        collisionSystem.setMode(CollisionSystem.Mode.ASYNC);
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 270f);
+        startStep(bullet);
+        moveTo(bullet, 4f, 8f, 106f, 330f);
+
+        engine.update(0.016f);
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+
+        engine.update(0.016f);
+        verify(collisionListener).enemyShoot(enemy, player, bullet);
+        assertThat(collisionSystem.getStats().hits).isEqualTo(1);
+    }
+
+    @Test
+    public void async_contact_with_an_entity_removed_since_the_snapshot_is_skipped() {
+        collisionSystem.setMode(CollisionSystem.Mode.ASYNC);
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 305f);
+
+        engine.update(0.016f);
+        engine.removeEntity(bullet);
+        collisionSystem.setMode(CollisionSystem.Mode.SWEPT);
+        engine.update(0.016f);
+
+        verify(collisionListener, never()).enemyShoot(any(), any(), any());
+    }
+
+    @Test
+    public void stats_count_the_tests_of_the_last_tick() {
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 305f);
+
+        engine.update(0.016f);
+
+        CollisionStats stats = collisionSystem.getStats();
+        assertThat(stats.ticks).isEqualTo(1);
+        assertThat(stats.entities).isEqualTo(3);
+        assertThat(stats.pairs).isEqualTo(1);
+        assertThat(stats.shapeTests).isEqualTo(1);
+        assertThat(stats.pixelTests).isZero();
+        assertThat(stats.hits).isEqualTo(1);
+
+        sprite.get(enemy).pixelPerfectCollision = true;
+        engine.update(0.016f);
+
+        assertThat(stats.ticks).isEqualTo(2);
+        assertThat(stats.pixelTests).isEqualTo(1);
+        assertThat(stats.hits).isEqualTo(1);
+    }
+
+    @Test
+    public void repeated_pixel_perfect_test_is_answered_by_the_cache() {
+        sprite.get(enemy).pixelPerfectCollision = true;
+        Entity bullet = collidable(PLAYER_BULLET, PlayerBulletComponent.class);
+        moveTo(bullet, 4f, 8f, 106f, 305f);
+
+        engine.update(0.016f);
+        assertThat(collisionSystem.getStats().pixelTests).isEqualTo(1);
+
+        engine.update(0.016f);
+        assertThat(collisionSystem.getStats().pixelTests).isZero();
+        assertThat(collisionSystem.getStats().pixelCacheHits).isEqualTo(1);
+
+        moveTo(bullet, 4f, 8f, 106f, 310f);
+        engine.update(0.016f);
+        assertThat(collisionSystem.getStats().pixelTests).isEqualTo(1);
+        verify(collisionListener, times(3)).enemyShoot(enemy, player, bullet);
+    }
+
+    @Test
+    public void spatial_queries_return_nearby_entities_of_the_family() {
+        Entity farEnemy = collidable(ENEMY, EnemyComponent.class);
+        moveTo(farEnemy, 16f, 16f, 300f, 600f);
+        Array<Entity> result = new Array<>();
+
+        assertThat(collisionSystem.queryCircle(108f, 280f, 25f, Families.enemies, result)).containsExactly(enemy);
+        assertThat(collisionSystem.queryCircle(108f, 280f, 5f, Families.enemies, result)).isEmpty();
+        assertThat(collisionSystem.queryRect(290f, 590f, 20f, 20f, Families.enemies, result)).containsExactly(farEnemy);
+        assertThat(collisionSystem.queryRay(0f, 0f, 400f, 800f, Families.enemies, result)).containsExactly(farEnemy);
+        assertThat(collisionSystem.queryRay(0f, 0f, 400f, 800f, Families.player, result)).isEmpty();
+
+        moveTo(farEnemy, 16f, 16f, 100f, 330f);
+        engine.update(0.016f);
+        assertThat(collisionSystem.queryCircle(108f, 280f, 60f, Families.enemies, result)).containsExactlyInAnyOrder(enemy, farEnemy);
+    }
+
+    @Test
+    public void spatial_queries_read_logic_positions_even_without_bounds() {
+        Entity farEnemy = collidable(ENEMY, EnemyComponent.class);
+        moveTo(farEnemy, 16f, 16f, 300f, 600f);
+        farEnemy.remove(BoundsComponent.class);
+        // both drawn somewhere else
+        sprite.get(farEnemy).sprite.setPosition(100f, 270f);
+        sprite.get(enemy).sprite.setPosition(300f, 600f);
+        Array<Entity> result = new Array<>();
+
+        assertThat(collisionSystem.queryRect(290f, 590f, 20f, 20f, Families.enemies, result)).containsExactly(farEnemy);
+        assertThat(collisionSystem.queryCircle(108f, 280f, 25f, Families.enemies, result)).containsExactly(enemy);
+    }
+
+    private Entity collidable(int category, Class component) {
+        Entity entity = createEntity(engine, component, PositionComponent.class, SpriteComponent.class, CollisionComponent.class);
+        collision.get(entity).category = category;
+        collision.get(entity).mask = CollisionLayers.maskOf(category);
+        return entity;
+    }
+
+    private static void startStep(Entity entity) {
+        position.get(entity).startStep();
+    }
+
+    private static void moveTo(Entity entity, float width, float height, float x, float y) {
+        if (sprite.get(entity).sprite == null) {
+            sprite.get(entity).sprite = new Sprite(mock(Texture.class), (int) width, (int) height);
+        }
+        position.get(entity).setXY(x, y);
+        sprite.get(entity).sprite.setPosition(x, y);
+    }
+}
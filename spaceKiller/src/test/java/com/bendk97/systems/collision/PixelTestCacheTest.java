@@ -0,0 +1,71 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 10:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.collision;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@RunWith(JUnit4.class)
+public class PixelTestCacheTest {
+
+    private final PixelTestCache cache = new PixelTestCache();
+    private final CollisionMask mask1 = new CollisionMask(8, 8);
+    private final CollisionMask mask2 = new CollisionMask(8, 8);
+    private final Sprite sprite1 = sprite(10f, 10f);
+    private final Sprite sprite2 = sprite(14f, 12f);
+
+    @Test
+    public void same_relative_placement_hits() {
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(PixelTestCache.MISS);
+        cache.put(true);
+
+        sprite1.setPosition(110f, 210f);
+        sprite2.setPosition(114f, 212f);
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void other_frame_origin_rotation_or_offset_misses() {
+        cache.get(sprite1, mask1, sprite2, mask2);
+        cache.put(false);
+
+        assertThat(cache.get(sprite1, mask2, sprite2, mask2)).isEqualTo(PixelTestCache.MISS);
+        sprite1.setOrigin(0f, 0f);
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(PixelTestCache.MISS);
+        sprite1.setOriginCenter();
+        sprite1.setRotation(45f);
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(PixelTestCache.MISS);
+        sprite1.setRotation(0f);
+        sprite1.translateX(1f);
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(PixelTestCache.MISS);
+        sprite1.translateX(-1f);
+        assertThat(cache.get(sprite1, mask1, sprite2, mask2)).isEqualTo(0);
+    }
+
+    @Test
+    public void rotated_sprite_without_mask_is_not_cacheable() {
+        assertThat(PixelTestCache.isCacheable(sprite1, null)).isTrue();
+        sprite1.setRotation(30f);
+        assertThat(PixelTestCache.isCacheable(sprite1, null)).isFalse();
+        assertThat(PixelTestCache.isCacheable(sprite1, mask1)).isTrue();
+        sprite1.setScale(2f);
+        assertThat(PixelTestCache.isCacheable(sprite1, mask1)).isFalse();
+    }
+
+    private static Sprite sprite(float x, float y) {
+        Sprite sprite = new Sprite(mock(Texture.class), 8, 8);
+        sprite.setPosition(x, y);
+        return sprite;
+    }
+}
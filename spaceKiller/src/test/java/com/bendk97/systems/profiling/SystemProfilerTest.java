@@ -0,0 +1,206 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 15:20
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.profiling;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.bendk97.components.EnemyComponent;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.StateComponent;
+import com.bendk97.entities.BufferedEngine;
+import com.bendk97.entities.EntityCommandBuffer;
+import com.bendk97.systems.EnemyAttackSystem;
+import com.bendk97.systems.StateSystem;
+import com.bendk97.systems.TimeSlicedIteratingSystem;
+import com.bendk97.systems.WorldBlackboard;
+import com.bendk97.systems.schedule.ScheduledSystem;
+import com.bendk97.systems.schedule.SystemAccess;
+import com.bendk97.systems.schedule.SystemPhase;
+import com.bendk97.systems.schedule.SystemSchedule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.bendk97.components.helpers.ComponentMapperHelper.state;
+import static com.bendk97.helpers.EntityTestHelper.createEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnit4.class)
+public class SystemProfilerTest {
+
+    private final BufferedEngine engine = new BufferedEngine(10, 100, 10, 100);
+    private final SystemSchedule schedule = engine.getSchedule();
+    private final SystemProfiler profiler = new SystemProfiler();
+
+    public SystemProfilerTest() {
+        schedule.setProfiler(profiler);
+    }
+
+    @Test
+    public void each_processed_system_is_measured() {
+        StateSystem stateSystem = new StateSystem(0);
+        SlowSystem slowSystem = new SlowSystem();
+        DisabledSystem disabledSystem = new DisabledSystem();
+        schedule.add(stateSystem);
+        schedule.add(slowSystem);
+        Entity entity = createEntity(engine, StateComponent.class);
+        createEntity(engine, StateComponent.class);
+
+        schedule.update(0.5f);
+        schedule.add(disabledSystem);
+        disabledSystem.setProcessing(false);
+        schedule.update(0.5f);
+
+        assertThat(state.get(entity).time).isEqualTo(1f);
+        assertThat(slowSystem.updates).isEqualTo(2);
+        assertThat(disabledSystem.updates).isZero();
+        assertThat(stateSystem.checkProcessing()).isTrue();
+        assertThat(slowSystem.checkProcessing()).isTrue();
+        assertThat(disabledSystem.checkProcessing()).isFalse();
+        assertThat(profiler.getSamples(stateSystem).count()).isEqualTo(2);
+        assertThat(profiler.getSamples(stateSystem).averageEntities()).isEqualTo(2);
+        assertThat(profiler.getSamples(disabledSystem)).isNull();
+
+        Array<SystemSamples> top = profiler.top(1, new Array<>());
+        assertThat(top.size).isEqualTo(1);
+        assertThat(top.first().name).isEqualTo("SlowSystem");
+
+        String csv = profiler.exportCsv(new StringBuilder()).toString();
+        assertThat(csv).startsWith("system,updates,");
+        assertThat(csv).contains("StateSystem,2,").contains("SlowSystem,2,");
+    }
+
+    @Test
+    public void profiled_update_makes_the_buffered_changes_once_and_runs_the_concurrent_waves() {
+        Entity entity = createEntity(engine, PositionComponent.class);
+        SlowSystem remover = new SlowSystem() {
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                EntityCommandBuffer.removeEntity(getEngine(), entity);
+            }
+        };
+        SlowSystem reader = new SlowSystem() {
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                assertThat(getEngine().getEntities()).containsExactly(entity);
+            }
+        };
+        ConcurrentSystem concurrent1 = new ConcurrentSystem() {
+        };
+        ConcurrentSystem concurrent2 = new ConcurrentSystem() {
+        };
+        schedule.add(remover);
+        schedule.add(reader);
+        schedule.add(concurrent1);
+        schedule.add(concurrent2);
+
+        schedule.update(0.5f);
+
+        assertThat(engine.getEntities()).isEmpty();
+        assertThat(reader.updates).isEqualTo(1);
+        assertThat(concurrent1.thread).isNotEqualTo(concurrent2.thread);
+        assertThat(profiler.getSamples(concurrent1).count()).isEqualTo(1);
+        assertThat(profiler.getSamples(concurrent2).count()).isEqualTo(1);
+        assertThat(profiler.getSamples(reader).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void entities_of_a_time_sliced_system_are_counted() {
+        SlicedSystem slicedSystem = new SlicedSystem();
+        schedule.add(slicedSystem);
+        createEntity(engine, StateComponent.class);
+        createEntity(engine, StateComponent.class);
+        createEntity(engine, StateComponent.class);
+
+        schedule.update(0.5f);
+
+        assertThat(profiler.getSamples(slicedSystem).averageEntities()).isEqualTo(3);
+    }
+
+    @Test
+    public void enemies_waiting_to_fire_are_counted() {
+        EnemyAttackSystem enemyAttackSystem = new EnemyAttackSystem(0, null, new WorldBlackboard());
+        schedule.add(enemyAttackSystem);
+        createEntity(engine, EnemyComponent.class);
+        createEntity(engine, EnemyComponent.class);
+
+        schedule.update(0.5f);
+
+        assertThat(profiler.getSamples(enemyAttackSystem).averageEntities()).isEqualTo(2);
+    }
+
+    @Test
+    public void rolling_window_keeps_the_last_updates() {
+        SystemSamples samples = new SystemSamples("system", 2);
+        samples.add(1000L, 1, 10L);
+        samples.add(2000L, 2, 20L);
+        samples.add(4000L, 4, 40L);
+
+        assertThat(samples.count()).isEqualTo(2);
+        assertThat(samples.averageNanos()).isEqualTo(3000L);
+        assertThat(samples.maxNanos()).isEqualTo(4000L);
+        assertThat(samples.averageEntities()).isEqualTo(3);
+        assertThat(samples.averageBytes()).isEqualTo(30L);
+    }
+
+    // the engine keeps one system per class
+    private static class DisabledSystem extends SlowSystem {
+    }
+
+    private static class SlowSystem extends EntitySystem implements ScheduledSystem {
+        int updates = 0;
+
+        @Override
+        public void declare(SystemAccess access) {
+            access.phase(SystemPhase.LOGIC).exclusive();
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            ++updates;
+            long end = System.nanoTime() + 2_000_000L;
+            while (System.nanoTime() < end) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static class SlicedSystem extends TimeSlicedIteratingSystem implements ScheduledSystem {
+
+        SlicedSystem() {
+            super(Family.all(StateComponent.class).get(), 1_000L, 0);
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+        }
+
+        @Override
+        public void declare(SystemAccess access) {
+            access.phase(SystemPhase.LOGIC).writes(StateComponent.class);
+        }
+    }
+
+    private static class ConcurrentSystem extends EntitySystem implements ScheduledSystem {
+        volatile Thread thread;
+
+        @Override
+        public void update(float deltaTime) {
+            thread = Thread.currentThread();
+        }
+
+        @Override
+        public void declare(SystemAccess access) {
+            access.phase(SystemPhase.LOGIC).writes(this).concurrent();
+        }
+    }
+}
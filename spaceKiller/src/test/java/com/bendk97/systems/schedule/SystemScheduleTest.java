@@ -0,0 +1,146 @@
+/*
+ * Developed by Benjamin Lefèvre
+ * Last modified 18/10/26 13:50
+ * Copyright (c) 2018. All rights reserved.
+ */
+
+package com.bendk97.systems.schedule;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.bendk97.components.PositionComponent;
+import com.bendk97.components.SpriteComponent;
+import com.bendk97.components.VelocityComponent;
+import com.bendk97.entities.BufferedEngine;
+import com.bendk97.entities.EntityCommandBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@RunWith(JUnit4.class)
+public class SystemScheduleTest {
+
+    private final BufferedEngine engine = new BufferedEngine(10, 100, 10, 100);
+    private final SystemSchedule schedule = engine.getSchedule();
+
+    @Test
+    public void conflicting_systems_run_in_the_order_they_were_added() {
+        DeclaredSystem render = new DeclaredSystem(SystemPhase.RENDER, null, SpriteComponent.class, false) {
+        };
+        DeclaredSystem movement = new DeclaredSystem(SystemPhase.LOGIC, VelocityComponent.class, PositionComponent.class, true) {
+        };
+        DeclaredSystem follower = new DeclaredSystem(SystemPhase.LOGIC, PositionComponent.class, VelocityComponent.class, true) {
+        };
+        DeclaredSystem animation = new DeclaredSystem(SystemPhase.LOGIC, null, SpriteComponent.class, true) {
+        };
+
+        schedule.add(render);
+        schedule.add(movement);
+        schedule.add(follower);
+        schedule.add(animation);
+
+        assertThat(schedule.getWave(movement)).isZero();
+        assertThat(schedule.getWave(follower)).isEqualTo(1);
+        assertThat(schedule.getWave(animation)).isZero();
+        // phase, wave then order of addition
+        assertThat(engine.getSystems()).containsExactly(movement, animation, follower, render);
+    }
+
+    @Test
+    public void conflicting_system_added_later_with_a_lower_priority_runs_first() {
+        DeclaredSystem collision = new DeclaredSystem(SystemPhase.LOGIC, PositionComponent.class, PositionComponent.class, false) {
+        };
+        collision.priority = 13;
+        DeclaredSystem follower = new DeclaredSystem(SystemPhase.LOGIC, PositionComponent.class, VelocityComponent.class, true) {
+        };
+        follower.priority = 2;
+
+        schedule.add(collision);
+        schedule.add(follower);
+
+        assertThat(schedule.getWave(follower)).isZero();
+        assertThat(schedule.getWave(collision)).isEqualTo(1);
+        assertThat(engine.getSystems()).containsExactly(follower, collision);
+    }
+
+    @Test
+    public void system_without_declaration_is_rejected() {
+        try {
+            schedule.add(new EntitySystem() {
+            });
+            fail("undeclared system scheduled");
+        } catch (IllegalArgumentException e) {
+            assertThat(engine.getSystems()).isEmpty();
+        }
+    }
+
+    @Test
+    public void concurrent_wave_buffers_its_structural_changes() {
+        final Entity entity = engine.createEntity();
+        engine.addEntity(entity);
+        final DeclaredSystem remover = new DeclaredSystem(SystemPhase.LOGIC, null, PositionComponent.class, true) {
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                EntityCommandBuffer.removeEntity(getEngine(), entity);
+                assertThat(getEngine().getEntities()).containsExactly(entity);
+            }
+        };
+        DeclaredSystem animation = new DeclaredSystem(SystemPhase.LOGIC, null, SpriteComponent.class, true) {
+        };
+        DeclaredSystem render = new DeclaredSystem(SystemPhase.RENDER, null, SpriteComponent.class, false) {
+        };
+        schedule.add(remover);
+        schedule.add(animation);
+        schedule.add(render);
+        schedule.processRendering(false);
+
+        schedule.update(0.1f);
+
+        assertThat(remover.updates.get()).isEqualTo(1);
+        assertThat(animation.updates.get()).isEqualTo(1);
+        assertThat(render.updates.get()).isZero();
+        assertThat(engine.getEntities()).isEmpty();
+        assertThat(remover.checkProcessing()).isTrue();
+        assertThat(render.checkProcessing()).isFalse();
+    }
+
+    /**
+     * the engine keeps a single system per class: each test system is an anonymous subclass
+     */
+    private static class DeclaredSystem extends EntitySystem implements ScheduledSystem {
+        private final SystemPhase phase;
+        private final Object read, write;
+        private final boolean concurrent;
+        final AtomicInteger updates = new AtomicInteger();
+
+        DeclaredSystem(SystemPhase phase, Object read, Object write, boolean concurrent) {
+            this.phase = phase;
+            this.read = read;
+            this.write = write;
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            updates.incrementAndGet();
+        }
+
+        @Override
+        public void declare(SystemAccess access) {
+            access.phase(phase);
+            if (read != null) {
+                access.reads(read);
+            }
+            access.writes(write);
+            if (concurrent) {
+                access.concurrent();
+            }
+        }
+    }
+}